@@ -32,6 +32,7 @@ import net.dv8tion.jda.api.entities.Guild;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 
@@ -71,6 +72,15 @@ public interface DiscordGuild extends JDAEntity<Guild>, Snowflake {
     @NotNull
     Task<DiscordGuildMember> retrieveMemberById(long id);
 
+    /**
+     * Retrieves Discord guild members from Discord by id, in as few requests as possible.
+     * Users that are not members of this server are not included.
+     * @param ids the ids for the Discord guild members
+     * @return a future for the Discord guild members
+     */
+    @NotNull
+    Task<List<DiscordGuildMember>> retrieveMembersByIds(@NotNull Collection<Long> ids);
+
     /**
      * Gets a Discord guild member by id from the cache, the provided entity can be cached and will not update if it changes on Discord.
      * @param id the id for the Discord guild member
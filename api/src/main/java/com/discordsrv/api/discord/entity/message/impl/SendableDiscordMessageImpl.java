@@ -30,6 +30,7 @@ import com.discordsrv.api.discord.entity.message.AllowedMention;
 import com.discordsrv.api.discord.entity.message.DiscordMessageEmbed;
 import com.discordsrv.api.discord.entity.message.SendableDiscordMessage;
 import com.discordsrv.api.discord.util.DiscordFormattingUtil;
+import com.discordsrv.api.placeholder.PlaceholderRenderScope;
 import com.discordsrv.api.placeholder.PlaceholderService;
 import com.discordsrv.api.placeholder.format.FormattedText;
 import com.discordsrv.api.placeholder.format.PlainPlaceholderFormat;
@@ -357,11 +358,8 @@ public class SendableDiscordMessageImpl implements SendableDiscordMessage {
 
         @Override
         public @NotNull Formatter applyPlaceholderService() {
-            DiscordSRVApi api = DiscordSRVApi.get();
-            this.replacements.put(
-                    PlaceholderService.PATTERN,
-                    wrapFunction(matcher -> api.placeholderService().getResultAsCharSequence(matcher, context))
-            );
+            // Created in build(), with the context of that build
+            this.replacements.put(PlaceholderService.PATTERN, null);
             return this;
         }
 
@@ -385,6 +383,21 @@ public class SendableDiscordMessageImpl implements SendableDiscordMessage {
         public @NotNull SendableDiscordMessage build() {
             DiscordSRVApi api = DiscordSRVApi.get();
 
+            Set<Object> context = new HashSet<>(this.context);
+            if (context.stream().noneMatch(ctx -> ctx instanceof PlaceholderRenderScope)) {
+                // Remember placeholder results across the content, embeds and webhook fields of this build
+                context.add(new PlaceholderRenderScope());
+            }
+
+            Map<Pattern, Function<Matcher, Object>> replacements = new LinkedHashMap<>(this.replacements.size());
+            for (Map.Entry<Pattern, Function<Matcher, Object>> entry : this.replacements.entrySet()) {
+                Function<Matcher, Object> replacement = entry.getValue();
+                if (replacement == null) {
+                    replacement = wrapFunction(matcher -> api.placeholderService().getResultAsCharSequence(matcher, context));
+                }
+                replacements.put(entry.getKey(), replacement);
+            }
+
             Function<String, String> placeholders = input -> {
                 if (input == null) {
                     return null;
@@ -24,6 +24,7 @@
 package com.discordsrv.api.eventbus;
 
 import com.discordsrv.api.events.Event;
+import com.discordsrv.api.task.Task;
 import net.dv8tion.jda.api.events.GenericEvent;
 import org.jetbrains.annotations.Blocking;
 import org.jetbrains.annotations.NotNull;
@@ -74,4 +75,28 @@ public interface EventBus {
     @Blocking
     void publish(@NotNull GenericEvent event);
 
+    /**
+     * Publishes a DiscordSRV {@link Event} to this {@link EventBus} on another thread.
+     * There are no ordering guarantees between events published with this method, use {@link #publishAsync(Event, Object)} if the order matters.
+     *
+     * @param event the event
+     * @return a task that completes with the provided event once all listeners have received it
+     * @param <E> the type of event
+     */
+    @NotNull
+    <E extends Event> Task<E> publishAsync(@NotNull E event);
+
+    /**
+     * Publishes a DiscordSRV {@link Event} to this {@link EventBus} on another thread.
+     * Events published with the same ordering key are delivered in the order they were published in,
+     * events with different ordering keys may be delivered in parallel.
+     *
+     * @param event the event
+     * @param orderingKey the key to order events by, for example a player's {@link java.util.UUID} or a channel's id
+     * @return a task that completes with the provided event once all listeners have received it
+     * @param <E> the type of event
+     */
+    @NotNull
+    <E extends Event> Task<E> publishAsync(@NotNull E event, @NotNull Object orderingKey);
+
 }
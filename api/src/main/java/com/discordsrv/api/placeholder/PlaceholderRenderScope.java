@@ -0,0 +1,130 @@
+/*
+ * This file is part of the DiscordSRV API, licensed under the MIT License
+ * Copyright (c) 2016-2025 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.discordsrv.api.placeholder;
+
+import com.discordsrv.api.placeholder.annotation.Placeholder;
+import com.discordsrv.api.placeholder.provider.PlaceholderProvider;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A short-lived memo of placeholder results, for rendering one message (for example to multiple channels or guilds).
+ * When provided as context to {@link PlaceholderService}, results are remembered by placeholder and the identity of the other context objects,
+ * so the same placeholder is only looked up once while the scope is in use.
+ * <p>
+ * {@link PlaceholderProvider}s provided as context are always consulted and never remembered,
+ * placeholders can opt out with {@link Placeholder#cacheable()}.
+ */
+public final class PlaceholderRenderScope {
+
+    private final Map<Key, PlaceholderLookupResult> results = new ConcurrentHashMap<>();
+
+    /**
+     * Gets a remembered result for the given placeholder and context.
+     * @param placeholder the placeholder
+     * @param context the lookup context
+     * @return the remembered result or {@code null}
+     */
+    @Nullable
+    public PlaceholderLookupResult get(@NotNull String placeholder, @NotNull Set<Object> context) {
+        return results.get(new Key(placeholder, context));
+    }
+
+    /**
+     * Remembers a result for the given placeholder and context, only successful, unknown and unavailable results are remembered.
+     * @param placeholder the placeholder
+     * @param context the lookup context
+     * @param result the result of the lookup
+     */
+    public void put(@NotNull String placeholder, @NotNull Set<Object> context, @NotNull PlaceholderLookupResult result) {
+        switch (result.getType()) {
+            case SUCCESS:
+            case UNKNOWN_PLACEHOLDER:
+            case DATA_NOT_AVAILABLE:
+                results.put(new Key(placeholder, context), result);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static class Key {
+
+        private final String placeholder;
+        private final List<Object> context;
+        private final int hash;
+
+        private Key(String placeholder, Set<Object> context) {
+            List<Object> identities = new ArrayList<>(context.size());
+            int hash = placeholder.hashCode();
+            for (Object o : context) {
+                if (o instanceof PlaceholderProvider || o instanceof PlaceholderRenderScope) {
+                    continue;
+                }
+                identities.add(o);
+                hash += System.identityHashCode(o);
+            }
+
+            this.placeholder = placeholder;
+            this.context = identities;
+            this.hash = hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            if (hash != other.hash || context.size() != other.context.size() || !placeholder.equals(other.placeholder)) {
+                return false;
+            }
+            for (Object object : context) {
+                if (!containsIdentity(other.context, object)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static boolean containsIdentity(List<Object> list, Object object) {
+            for (Object o : list) {
+                if (o == object) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -49,4 +49,11 @@ public @interface Placeholder {
      * @return the prefix used for the next lookup
      */
     String relookup() default "";
+
+    /**
+     * If the result of this placeholder may be remembered for the duration of a {@link com.discordsrv.api.placeholder.PlaceholderRenderScope}.
+     * Should be {@code false} for values that change between lookups of the same message, for example counters or timestamps.
+     * @return {@code true} if the result may be remembered
+     */
+    boolean cacheable() default true;
 }
@@ -0,0 +1,183 @@
+/*
+ * This file is part of the DiscordSRV API, licensed under the MIT License
+ * Copyright (c) 2016-2025 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.discordsrv.api.placeholder.util;
+
+import java.util.*;
+
+/**
+ * Finds any of a set of literal strings in a single pass over the input (Aho-Corasick).
+ * When multiple literals match, the one starting first wins, then the longest one.
+ */
+final class LiteralPatternMatcher {
+
+    private final Node root = new Node(0);
+    private final int[] lengths;
+    private final int maxLength;
+    private final boolean independent;
+
+    LiteralPatternMatcher(List<String> literals) {
+        Map<Node, Map<Character, Node>> children = new HashMap<>();
+        this.lengths = new int[literals.size()];
+        int maxLength = 0;
+        for (int index = 0; index < literals.size(); index++) {
+            String literal = literals.get(index);
+            lengths[index] = literal.length();
+            maxLength = Math.max(maxLength, literal.length());
+
+            Node node = root;
+            for (int i = 0; i < literal.length(); i++) {
+                int depth = i + 1;
+                node = children.computeIfAbsent(node, key -> new TreeMap<>())
+                        .computeIfAbsent(literal.charAt(i), key -> new Node(depth));
+            }
+            if (node.output == -1) {
+                node.output = index;
+            }
+        }
+        this.maxLength = maxLength;
+        this.independent = isIndependent(literals);
+
+        // Breadth first, so failure links always point to already linked nodes
+        Deque<Node> queue = new ArrayDeque<>();
+        queue.add(root);
+        while (!queue.isEmpty()) {
+            Node node = queue.poll();
+            Map<Character, Node> nodeChildren = children.getOrDefault(node, Collections.emptyMap());
+
+            node.keys = new char[nodeChildren.size()];
+            node.children = new Node[nodeChildren.size()];
+            int i = 0;
+            for (Map.Entry<Character, Node> entry : nodeChildren.entrySet()) {
+                char key = entry.getKey();
+                Node child = entry.getValue();
+                node.keys[i] = key;
+                node.children[i++] = child;
+
+                Node fail = node == root ? root : next(node.fail, key);
+                child.fail = fail;
+                child.outputLink = fail.output != -1 ? fail : fail.outputLink;
+                queue.add(child);
+            }
+        }
+    }
+
+    private static boolean isIndependent(List<String> literals) {
+        for (int i = 0; i < literals.size(); i++) {
+            String first = literals.get(i);
+            for (int j = 0; j < literals.size(); j++) {
+                if (i == j) {
+                    continue;
+                }
+
+                String second = literals.get(j);
+                if (j > i && second.contains(first) && !second.equals(first)) {
+                    // The contained literal would be replaced first, breaking up the longer one
+                    return false;
+                }
+                for (int length = 1; length < Math.min(first.length(), second.length()); length++) {
+                    if (first.regionMatches(first.length() - length, second, 0, length)) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Whether finding the literals in one pass gives the same matches as finding them one after another,
+     * meaning no literal ends with the start of another and literals containing others come before them.
+     * @return {@code true} if the literals are independent of each other
+     */
+    boolean isIndependent() {
+        return independent;
+    }
+
+    private Node next(Node node, char c) {
+        while (true) {
+            Node child = node.child(c);
+            if (child != null) {
+                return child;
+            }
+            if (node == root) {
+                return root;
+            }
+            node = node.fail;
+        }
+    }
+
+    /**
+     * Finds the next literal in the input.
+     * @param input the input
+     * @param from the index to start searching from
+     * @param result receives the index of the matched literal and the end of the match
+     * @return the start of the match or {@code -1} if none of the literals occur after {@code from}
+     */
+    int find(CharSequence input, int from, int[] result) {
+        int bestStart = -1;
+        int bestIndex = -1;
+
+        Node node = root;
+        for (int i = from; i < input.length(); i++) {
+            node = next(node, input.charAt(i));
+            for (Node output = node.output != -1 ? node : node.outputLink; output != null; output = output.outputLink) {
+                int start = i + 1 - output.depth;
+                if (bestStart == -1 || start < bestStart || (start == bestStart && output.depth > lengths[bestIndex])) {
+                    bestStart = start;
+                    bestIndex = output.output;
+                }
+            }
+
+            if (bestStart != -1 && i + 1 - bestStart >= maxLength) {
+                // No match found later can start before or at the current best
+                break;
+            }
+        }
+
+        if (bestStart != -1) {
+            result[0] = bestIndex;
+            result[1] = bestStart + lengths[bestIndex];
+        }
+        return bestStart;
+    }
+
+    private static class Node {
+
+        private final int depth;
+        private int output = -1;
+        private char[] keys;
+        private Node[] children;
+        private Node fail;
+        private Node outputLink;
+
+        private Node(int depth) {
+            this.depth = depth;
+        }
+
+        private Node child(char c) {
+            int index = Arrays.binarySearch(keys, c);
+            return index >= 0 ? children[index] : null;
+        }
+    }
+}
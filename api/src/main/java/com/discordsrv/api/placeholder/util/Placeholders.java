@@ -25,8 +25,7 @@ package com.discordsrv.api.placeholder.util;
 
 import org.jetbrains.annotations.NotNull;
 
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.util.*;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.regex.Matcher;
@@ -34,6 +33,16 @@ import java.util.regex.Pattern;
 
 public class Placeholders {
 
+    private static final int MATCHER_CACHE_SIZE = 64;
+    private static final Map<List<String>, LiteralPatternMatcher> MATCHER_CACHE = Collections.synchronizedMap(
+            new LinkedHashMap<List<String>, LiteralPatternMatcher>(16, 0.75F, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<List<String>, LiteralPatternMatcher> eldest) {
+                    return size() > MATCHER_CACHE_SIZE;
+                }
+            }
+    );
+
     private final String inputText;
     private final Map<Pattern, Function<Matcher, Object>> replacements = new LinkedHashMap<>();
 
@@ -82,24 +91,106 @@ public class Placeholders {
     @NotNull
     public String toString() {
         String input = inputText;
-        for (Map.Entry<Pattern, Function<Matcher, Object>> entry : replacements.entrySet()) {
-            Pattern pattern = entry.getKey();
-            Matcher matcher = pattern.matcher(input);
-            StringBuffer buffer = new StringBuffer();
-            int lastEnd = -1;
-            while (matcher.find()) {
-                lastEnd = matcher.end();
-                Function<Matcher, Object> replacement = entry.getValue();
-                Object value = replacement.apply(matcher);
-
-                matcher.appendReplacement(buffer, Matcher.quoteReplacement(String.valueOf(value)));
+
+        List<Map.Entry<Pattern, Function<Matcher, Object>>> entries = new ArrayList<>(replacements.entrySet());
+        int index = 0;
+        while (index < entries.size()) {
+            int literalEnd = index;
+            while (literalEnd < entries.size() && isLiteral(entries.get(literalEnd).getKey())) {
+                literalEnd++;
             }
-            if (lastEnd == -1) {
+
+            if (literalEnd - index > 1) {
+                // Consecutive literal patterns (like mentions) are replaced in one pass,
+                // if that finds the same matches as replacing them one after another.
+                // Text inserted by a replacement is not searched for the following literals
+                String replaced = replaceLiterals(input, entries.subList(index, literalEnd));
+                if (replaced != null) {
+                    input = replaced;
+                    index = literalEnd;
+                    continue;
+                }
+
+                for (; index < literalEnd; index++) {
+                    Map.Entry<Pattern, Function<Matcher, Object>> entry = entries.get(index);
+                    input = replace(input, entry.getKey(), entry.getValue());
+                }
                 continue;
             }
-            buffer.append(input.substring(lastEnd));
-            input = buffer.toString();
+
+            Map.Entry<Pattern, Function<Matcher, Object>> entry = entries.get(index++);
+            input = replace(input, entry.getKey(), entry.getValue());
         }
         return input;
     }
+
+    private static boolean isLiteral(Pattern pattern) {
+        return pattern.flags() == Pattern.LITERAL && !pattern.pattern().isEmpty();
+    }
+
+    private static String replace(String input, Pattern pattern, Function<Matcher, Object> replacement) {
+        Matcher matcher = pattern.matcher(input);
+        if (!matcher.find()) {
+            return input;
+        }
+
+        StringBuilder builder = new StringBuilder(input.length());
+        int lastEnd = 0;
+        do {
+            builder.append(input, lastEnd, matcher.start());
+            builder.append(replacement.apply(matcher));
+            lastEnd = matcher.end();
+        } while (matcher.find());
+
+        builder.append(input, lastEnd, input.length());
+        return builder.toString();
+    }
+
+    /**
+     * Replaces the given literal patterns in a single pass.
+     * @return the replaced input, or {@code null} if the literals can overlap each other,
+     * in which case they need to be replaced one after another
+     */
+    private static String replaceLiterals(String input, List<Map.Entry<Pattern, Function<Matcher, Object>>> entries) {
+        List<String> literals = new ArrayList<>(entries.size());
+        for (Map.Entry<Pattern, Function<Matcher, Object>> entry : entries) {
+            literals.add(entry.getKey().pattern());
+        }
+
+        LiteralPatternMatcher literalMatcher = MATCHER_CACHE.computeIfAbsent(literals, LiteralPatternMatcher::new);
+        if (!literalMatcher.isIndependent()) {
+            return null;
+        }
+
+        Matcher[] matchers = new Matcher[entries.size()];
+        int[] result = new int[2];
+
+        StringBuilder builder = null;
+        int lastEnd = 0;
+        int start;
+        while ((start = literalMatcher.find(input, lastEnd, result)) != -1) {
+            int index = result[0];
+            int end = result[1];
+
+            // Provide the replacement with a Matcher positioned at this match
+            Matcher matcher = matchers[index];
+            if (matcher == null) {
+                matcher = matchers[index] = entries.get(index).getKey().matcher(input);
+            }
+            matcher.region(start, end).lookingAt();
+
+            if (builder == null) {
+                builder = new StringBuilder(input.length());
+            }
+            builder.append(input, lastEnd, start);
+            builder.append(entries.get(index).getValue().apply(matcher));
+            lastEnd = end;
+        }
+
+        if (builder == null) {
+            return input;
+        }
+        builder.append(input, lastEnd, input.length());
+        return builder.toString();
+    }
 }
@@ -26,6 +26,8 @@ package com.discordsrv.api.placeholder.util;
 import org.junit.jupiter.api.Test;
 
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -76,4 +78,68 @@ public class PlaceholdersTest {
 
         assertEquals("b c", placeholders.toString());
     }
+
+    @Test
+    public void literalsTest() {
+        Placeholders placeholders = new Placeholders("@Bobby and @Bob in #general");
+
+        placeholders.replace("@Bobby", "<@1>");
+        placeholders.replace("#general", "<#2>");
+        placeholders.replace("@Bob", "<@3>");
+
+        assertEquals("<@1> and <@3> in <#2>", placeholders.toString());
+    }
+
+    @Test
+    public void literalsContainedFirstTest() {
+        Placeholders placeholders = new Placeholders("@Bobby and @Bob");
+
+        placeholders.replace("@Bob", "<@3>");
+        placeholders.replace("@Bobby", "<@1>");
+
+        assertEquals("<@3>by and <@3>", placeholders.toString());
+    }
+
+    @Test
+    public void literalsOverlappingTest() {
+        Placeholders placeholders = new Placeholders("abc");
+
+        placeholders.replace("bc", "x");
+        placeholders.replace("ab", "y");
+
+        assertEquals("ax", placeholders.toString());
+    }
+
+    @Test
+    public void literalsReplacedOnceTest() {
+        Placeholders placeholders = new Placeholders("@Bobby and @Bob");
+
+        AtomicInteger calls = new AtomicInteger();
+        placeholders.replace("@Bobby", matcher -> "<@1>" + calls.incrementAndGet());
+        placeholders.replace("@Bob", matcher -> "<@3>" + calls.incrementAndGet());
+
+        assertEquals("<@1>1 and <@3>2", placeholders.toString());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void literalsMatcherTest() {
+        Placeholders placeholders = new Placeholders("a b a");
+
+        placeholders.replace("a", matcher -> matcher.group() + matcher.start());
+        placeholders.replace("b", matcher -> matcher.group().toUpperCase());
+
+        assertEquals("a0 B a4", placeholders.toString());
+    }
+
+    @Test
+    public void literalsAndPatternsTest() {
+        Placeholders placeholders = new Placeholders("hello world");
+
+        placeholders.replaceAll(Pattern.compile("o+"), "0");
+        placeholders.replace("hell", "heaven");
+        placeholders.replace("w0rld", "earth");
+
+        assertEquals("heaven0 earth", placeholders.toString());
+    }
 }
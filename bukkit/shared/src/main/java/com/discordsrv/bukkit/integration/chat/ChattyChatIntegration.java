@@ -84,9 +84,10 @@ public class ChattyChatIntegration extends PluginIntegration<BukkitDiscordSRV> i
         );
 
         BukkitPlayer srvPlayer = discordSRV.playerProvider().player(player);
-        discordSRV.scheduler().run(() -> discordSRV.eventBus().publish(
-                new GameChatMessageReceiveEvent(event, srvPlayer, component, new ChattyChannel(chat), false)
-        ));
+        discordSRV.eventBus().publishAsync(
+                new GameChatMessageReceiveEvent(event, srvPlayer, component, new ChattyChannel(chat), false),
+                player.getUniqueId()
+        );
     }
 
     @Subscribe
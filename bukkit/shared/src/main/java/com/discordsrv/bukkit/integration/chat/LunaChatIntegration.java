@@ -98,9 +98,10 @@ public class LunaChatIntegration extends PluginIntegration<BukkitDiscordSRV> imp
 
         BukkitPlayer srvPlayer = discordSRV.playerProvider().player(player);
         boolean cancelled = event.isCancelled();
-        discordSRV.scheduler().run(() -> discordSRV.eventBus().publish(
-                new GameChatMessageReceiveEvent(event, srvPlayer, component, new LunaChatChannel(channel), cancelled)
-        ));
+        discordSRV.eventBus().publishAsync(
+                new GameChatMessageReceiveEvent(event, srvPlayer, component, new LunaChatChannel(channel), cancelled),
+                player.getUniqueId()
+        );
     }
 
     @Subscribe
@@ -110,9 +110,10 @@ public class McMMOChatIntegration extends PluginIntegration<BukkitDiscordSRV> im
 
         BukkitPlayer srvPlayer = discordSRV.playerProvider().player(player);
         boolean cancelled = event.isCancelled();
-        discordSRV.scheduler().run(() -> discordSRV.eventBus().publish(
-                new GameChatMessageReceiveEvent(event, srvPlayer, component, adminChannel, cancelled)
-        ));
+        discordSRV.eventBus().publishAsync(
+                new GameChatMessageReceiveEvent(event, srvPlayer, component, adminChannel, cancelled),
+                player.getUniqueId()
+        );
     }
 
     @Subscribe
@@ -91,9 +91,10 @@ public class TownyChatIntegration extends PluginIntegration<BukkitDiscordSRV> im
 
         BukkitPlayer srvPlayer = discordSRV.playerProvider().player(player);
         boolean cancelled = event.isCancelled();
-        discordSRV.scheduler().run(() -> discordSRV.eventBus().publish(
-                new GameChatMessageReceiveEvent(event, srvPlayer, component, new TownyChatChannel(channel), cancelled)
-        ));
+        discordSRV.eventBus().publishAsync(
+                new GameChatMessageReceiveEvent(event, srvPlayer, component, new TownyChatChannel(channel), cancelled),
+                player.getUniqueId()
+        );
     }
 
     @Subscribe
@@ -99,9 +99,10 @@ public class VentureChatIntegration extends PluginIntegration<BukkitDiscordSRV>
         );
 
         BukkitPlayer srvPlayer = discordSRV.playerProvider().player(player);
-        discordSRV.scheduler().run(() -> discordSRV.eventBus().publish(
-                new GameChatMessageReceiveEvent(event, srvPlayer, component, new VentureChatChannel(channel), false)
-        ));
+        discordSRV.eventBus().publishAsync(
+                new GameChatMessageReceiveEvent(event, srvPlayer, component, new VentureChatChannel(channel), false),
+                player.getUniqueId()
+        );
     }
 
     @Subscribe
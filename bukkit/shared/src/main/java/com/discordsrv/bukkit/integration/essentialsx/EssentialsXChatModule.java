@@ -63,9 +63,10 @@ public class EssentialsXChatModule extends AbstractEssentialsXModule {
 
         BukkitPlayer srvPlayer = discordSRV.playerProvider().player(player);
         boolean cancelled = event.isCancelled();
-        discordSRV.scheduler().run(() -> discordSRV.eventBus().publish(
-                new GameChatMessageReceiveEvent(event, srvPlayer, component, channel, cancelled)
-        ));
+        discordSRV.eventBus().publishAsync(
+                new GameChatMessageReceiveEvent(event, srvPlayer, component, channel, cancelled),
+                player.getUniqueId()
+        );
     }
 
     @Subscribe(priority = EventPriorities.LAST)
@@ -36,6 +36,7 @@ import com.discordsrv.common.config.configurate.manager.MessagesConfigSingleMana
 import com.discordsrv.common.config.connection.BotConfig;
 import com.discordsrv.common.config.connection.ConnectionConfig;
 import com.discordsrv.common.config.connection.HttpProxyConfig;
+import com.discordsrv.common.config.connection.StorageConfig;
 import com.discordsrv.common.config.connection.UpdateConfig;
 import com.discordsrv.common.config.main.MainConfig;
 import com.discordsrv.common.config.main.linking.LinkedAccountConfig;
@@ -53,9 +54,11 @@ import com.discordsrv.common.core.placeholder.PlaceholderServiceImpl;
 import com.discordsrv.common.core.placeholder.context.*;
 import com.discordsrv.common.core.placeholder.format.DiscordMarkdownFormatImpl;
 import com.discordsrv.common.core.placeholder.result.ComponentResultStringifier;
+import com.discordsrv.common.core.storage.LinkChange;
 import com.discordsrv.common.core.storage.Storage;
 import com.discordsrv.common.core.storage.StorageType;
 import com.discordsrv.common.core.storage.impl.MemoryStorage;
+import com.discordsrv.common.core.storage.impl.WriteBehindStorage;
 import com.discordsrv.common.discord.api.DiscordAPIEventModule;
 import com.discordsrv.common.discord.api.DiscordAPIImpl;
 import com.discordsrv.common.discord.connection.DiscordConnectionManager;
@@ -239,12 +242,16 @@ public abstract class AbstractDiscordSRV<
                                                + " (" + JDAInfo.GITHUB + ", " + JDAInfo.VERSION + ")"
                                        : "DiscordSRV/" + versionInfo().version();
 
-                    return chain.proceed(
+                    Response response = chain.proceed(
                             original.newBuilder()
                                     .removeHeader("User-Agent")
                                     .addHeader("User-Agent", userAgent)
                                     .build()
                     );
+                    if (isDiscord) {
+                        discordAPI.sendQueues().updateRateLimit(response);
+                    }
+                    return response;
                 })
                 .connectTimeout(20, TimeUnit.SECONDS)
                 .readTimeout(20, TimeUnit.SECONDS)
@@ -858,7 +865,7 @@ public abstract class AbstractDiscordSRV<
 
             try {
                 try {
-                    StorageType storageType = getStorageType();
+                    StorageType storageType = getStorageType(connectionConfig().storage.backend);
                     logger().info("Using " + storageType.prettyName() + " as storage, loading drivers...");
                     if (storageType == StorageType.MEMORY) {
                         logger().warning("Using memory as storage backend.");
@@ -868,8 +875,21 @@ public abstract class AbstractDiscordSRV<
                         dependencyManager().hikari().downloadRelocateAndLoad().get();
                     }
                     storage = storageType.storageFunction().apply(this);
+
+                    StorageConfig.WriteBehind writeBehind = connectionConfig().storage.writeBehind;
+                    if (writeBehind.enabled && storageType != StorageType.MEMORY && storageType != StorageType.FILE) {
+                        storage = new WriteBehindStorage(this, storage, Duration.ofMillis(writeBehind.flushIntervalMilliseconds));
+                    }
                     storage.initialize();
                     logger().info("Storage connection successfully established");
+
+                    String importFrom = connectionConfig().storage.importFrom;
+                    if (StringUtils.isNotBlank(importFrom) && storage.getLinkedAccountCount() == 0) {
+                        StorageType importType = getStorageType(importFrom.trim());
+                        if (importType != storageType) {
+                            importLinkedAccounts(importType);
+                        }
+                    }
                 } catch (ExecutionException e) {
                     throw new StorageException(e.getCause());
                 } catch (StorageException e) {
@@ -890,6 +910,9 @@ public abstract class AbstractDiscordSRV<
         if (flags.contains(ReloadFlag.LINKED_ACCOUNT_PROVIDER)) {
             LinkedAccountConfig linkedAccountConfig = config().linkedAccounts;
             boolean linkProviderMissing = linkProvider == null;
+            if (linkProvider != null) {
+                linkProvider.close();
+            }
             if (linkedAccountConfig != null && linkedAccountConfig.enabled) {
                 LinkedAccountConfig.Provider provider = linkedAccountConfig.provider;
                 boolean permitMinecraftAuth = connectionConfig().minecraftAuth.allow;
@@ -944,6 +967,8 @@ public abstract class AbstractDiscordSRV<
 
         // Modules are reloaded upon DiscordSRV being ready, thus not needed at initial
         if (!initial && flags.contains(ReloadFlag.CONFIG)) {
+            // The amount of webhooks per channel may have changed
+            discordAPI().invalidateWebhookPools();
             results.addAll(moduleManager().reload());
         }
 
@@ -963,12 +988,12 @@ public abstract class AbstractDiscordSRV<
         return results;
     }
 
-    private StorageType getStorageType() {
-        String backend = connectionConfig().storage.backend;
+    private StorageType getStorageType(String backend) {
         switch (backend.toLowerCase(Locale.ROOT)) {
             case "h2": return StorageType.H2;
             case "mysql": return StorageType.MYSQL;
             case "mariadb": return StorageType.MARIADB;
+            case "file": return StorageType.FILE;
         }
         if (backend.equals(MemoryStorage.IDENTIFIER)) {
             return StorageType.MEMORY;
@@ -976,6 +1001,30 @@ public abstract class AbstractDiscordSRV<
         throw new StorageException("Unknown storage backend \"" + backend + "\"");
     }
 
+    private void importLinkedAccounts(StorageType storageType) {
+        logger().info("Importing linked accounts from " + storageType.prettyName());
+        Storage source = null;
+        try {
+            if (storageType.hikari()) {
+                dependencyManager().hikari().downloadRelocateAndLoad().get();
+            }
+
+            source = storageType.storageFunction().apply(this);
+            source.initialize();
+
+            List<LinkChange> links = new ArrayList<>();
+            source.readLinks(0, (player, userId) -> links.add(LinkChange.link(player, userId)));
+            storage.applyLinkChanges(links);
+            logger().info("Imported " + links.size() + " linked accounts from " + storageType.prettyName());
+        } catch (Throwable t) {
+            logger().error("Failed to import linked accounts from " + storageType.prettyName(), t);
+        } finally {
+            if (source != null) {
+                source.close();
+            }
+        }
+    }
+
     @SuppressWarnings("resource") //
     @MustBeInvokedByOverriders
     protected void disable() {
@@ -1004,6 +1053,10 @@ public abstract class AbstractDiscordSRV<
             } catch (IOException ignored) {}
         }
 
+        if (linkProvider != null) {
+            linkProvider.close();
+        }
+
         try {
             if (storage != null) {
                 storage.close();
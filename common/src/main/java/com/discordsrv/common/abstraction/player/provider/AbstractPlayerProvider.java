@@ -68,7 +68,7 @@ public abstract class AbstractPlayerProvider<T extends IPlayer, DT extends Disco
     protected void addPlayer(UUID uuid, T player, boolean initial) {
         this.players.put(uuid, player);
         this.allPlayers.add(player);
-        discordSRV.scheduler().run(() -> discordSRV.eventBus().publish(new PlayerConnectedEvent(player, initial)));
+        discordSRV.eventBus().publishAsync(new PlayerConnectedEvent(player, initial), uuid);
 
         discordSRV.profileManager().loadProfile(player.uniqueId());
 
@@ -81,7 +81,7 @@ public abstract class AbstractPlayerProvider<T extends IPlayer, DT extends Disco
         T player = this.players.remove(uuid);
         if (player != null) {
             allPlayers.remove(player);
-            discordSRV.scheduler().run(() -> discordSRV.eventBus().publish(new PlayerDisconnectedEvent(player)));
+            discordSRV.eventBus().publishAsync(new PlayerDisconnectedEvent(player), uuid);
         }
 
         discordSRV.profileManager().unloadProfile(uuid);
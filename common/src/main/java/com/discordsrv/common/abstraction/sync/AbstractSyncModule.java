@@ -33,6 +33,7 @@ import com.discordsrv.common.config.main.generic.AbstractSyncConfig;
 import com.discordsrv.common.core.logging.NamedLogger;
 import com.discordsrv.common.core.module.type.AbstractModule;
 import com.discordsrv.common.events.player.PlayerConnectedEvent;
+import com.discordsrv.common.events.player.PlayerDisconnectedEvent;
 import com.discordsrv.common.helper.Someone;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -41,7 +42,11 @@ import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiPredicate;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * Abstraction for synchronization between Minecraft and Discord.
@@ -60,9 +65,19 @@ public abstract class AbstractSyncModule<
         S
 > extends AbstractModule<DT> {
 
+    /**
+     * The amount of players resynced at the same time during a bulk resync.
+     */
+    protected static final int BULK_BATCH_SIZE = 50;
+
     protected final Map<C, Future<?>> syncs = new LinkedHashMap<>();
     protected final Map<G, List<C>> configsForGame = new ConcurrentHashMap<>();
     protected final Map<D, List<C>> configsForDiscord = new ConcurrentHashMap<>();
+    protected final SyncSnapshots<C> snapshots = new SyncSnapshots<>();
+
+    // Changes waiting for the debounce window, by Player UUID or user id
+    private final Map<UUID, PendingChanges> pendingChanges = new HashMap<>();
+    private final AtomicLong changeSequence = new AtomicLong();
 
     public AbstractSyncModule(DT discordSRV, String loggerName) {
         super(discordSRV, new NamedLogger(discordSRV, loggerName));
@@ -109,6 +124,7 @@ public abstract class AbstractSyncModule<
             configsForDiscord.clear();
 
             String syncName = syncName();
+            Map<Integer, List<C>> timedConfigs = new LinkedHashMap<>();
             for (C config : configs()) {
                 if (!config.isSet() || !config.validate(syncName, discordSRV)) {
                     continue;
@@ -126,18 +142,12 @@ public abstract class AbstractSyncModule<
                     continue;
                 }
 
-                Future<?> future = null;
                 AbstractSyncConfig.TimerConfig timer = config.timer;
                 if (timer != null && timer.enabled) {
-                    int cycleTime = timer.cycleTime;
-                    future = discordSRV.scheduler().runAtFixedRate(
-                            () -> resyncTimer(config),
-                            Duration.ofMinutes(cycleTime),
-                            Duration.ofMinutes(cycleTime)
-                    );
+                    timedConfigs.computeIfAbsent(timer.cycleTime, key -> new ArrayList<>()).add(config);
                 }
 
-                syncs.put(config, future);
+                syncs.put(config, null);
 
                 G game = config.gameId();
                 if (game != null) {
@@ -149,13 +159,73 @@ public abstract class AbstractSyncModule<
                     configsForDiscord.computeIfAbsent(discord, key -> new ArrayList<>()).add(config);
                 }
             }
+
+            snapshots.reset(syncs.keySet());
+
+            // One timer per cycle time, so each player is only resolved once per cycle
+            for (Map.Entry<Integer, List<C>> entry : timedConfigs.entrySet()) {
+                int cycleTime = entry.getKey();
+                List<C> configs = entry.getValue();
+                AtomicInteger cycle = new AtomicInteger();
+
+                Future<?> future = discordSRV.scheduler().runAtFixedRate(
+                        () -> resyncTimer(configs, cycle.getAndIncrement()),
+                        Duration.ofMinutes(cycleTime),
+                        Duration.ofMinutes(cycleTime)
+                );
+                for (C config : configs) {
+                    syncs.put(config, future);
+                }
+            }
         }
     }
 
-    private void resyncTimer(C config) {
+    /**
+     * If all changes on both sides are reported through {@link #discordChanged} and {@link #gameChanged},
+     * allowing timed resyncs to only check pairs that changed since they were last in sync.
+     * All pairs are still checked every {@link AbstractSyncConfig.TimerConfig#fullSyncEvery} cycles.
+     * @return {@code true} if changes are reported for both sides
+     */
+    protected boolean isIncrementalResyncSupported() {
+        return false;
+    }
+
+    private void resyncTimer(List<C> configs, int cycle) {
+        Set<UUID> players = new LinkedHashSet<>();
         for (IPlayer player : discordSRV.playerProvider().allPlayers()) {
-            resync(GenericSyncCauses.TIMER, config, Someone.of(player.uniqueId()));
+            players.add(player.uniqueId());
+        }
+        snapshots.retainAll(players);
+        if (players.isEmpty()) {
+            return;
+        }
+
+        if (!isIncrementalResyncSupported()) {
+            bulkResync(GenericSyncCauses.TIMER, configs, players, null);
+            return;
+        }
+
+        Set<C> fullSync = new HashSet<>();
+        for (C config : configs) {
+            if (cycle % Math.max(1, config.timer.fullSyncEvery) == 0) {
+                fullSync.add(config);
+            }
+        }
+
+        BiPredicate<C, UUID> needsSync = (config, playerUUID) -> fullSync.contains(config) || !snapshots.isInSync(playerUUID, config);
+        players.removeIf(playerUUID -> {
+            for (C config : configs) {
+                if (needsSync.test(config, playerUUID)) {
+                    return false;
+                }
+            }
+            return true;
+        });
+        if (players.isEmpty()) {
+            return;
         }
+
+        bulkResync(GenericSyncCauses.TIMER, configs, players, needsSync);
     }
 
     @Subscribe
@@ -163,6 +233,11 @@ public abstract class AbstractSyncModule<
         resyncAll(GenericSyncCauses.GAME_JOIN, Someone.of(event.player()));
     }
 
+    @Subscribe
+    public void onPlayerDisconnected(PlayerDisconnectedEvent event) {
+        snapshots.remove(event.player().uniqueId());
+    }
+
     /**
      * Checks if the given new and current state are the same, basically meaning that no update is necessary.
      * @return the result stating the states are the same, otherwise {@code null} to state they are not
@@ -188,6 +263,28 @@ public abstract class AbstractSyncModule<
      */
     protected abstract Task<S> getGame(C config, UUID playerUUID);
 
+    /**
+     * Gets the current states of the provided configs for many Discord users at once, for bulk resyncs.
+     *
+     * @param configs the configurations for the synchronizables
+     * @param userIds the Discord user ids
+     * @return a future for the states on Discord, states that are not included are fetched with {@link #getDiscord(AbstractSyncConfig, long)}
+     */
+    protected Task<SyncStates<C, Long, S>> getDiscordBulk(List<C> configs, Set<Long> userIds) {
+        return Task.completed(new SyncStates<>());
+    }
+
+    /**
+     * Gets the current states of the provided configs for many players at once, for bulk resyncs.
+     *
+     * @param configs the configurations for the synchronizables
+     * @param playerUUIDs the Minecraft player {@link UUID}s
+     * @return a future for the states on Minecraft, states that are not included are fetched with {@link #getGame(AbstractSyncConfig, UUID)}
+     */
+    protected Task<SyncStates<C, UUID, S>> getGameBulk(List<C> configs, List<UUID> playerUUIDs) {
+        return Task.completed(new SyncStates<>());
+    }
+
     /**
      * Applies the provided state for the provided config for the provided Discord user.
      *
@@ -230,47 +327,34 @@ public abstract class AbstractSyncModule<
         });
     }
 
+    /**
+     * The window in which changes for the same person are combined into one synchronization,
+     * {@link Duration#ZERO} to synchronize every change immediately.
+     * @return the debounce window
+     */
+    protected Duration debounceWindow() {
+        return Duration.ZERO;
+    }
+
     protected Task<SyncSummary<C>> discordChanged(ISyncCause cause, Someone someone, D discordId, @Nullable S newState) {
-        List<C> gameConfigs = configsForDiscord.get(discordId);
-        if (gameConfigs == null) {
+        if (!configsForDiscord.containsKey(discordId)) {
             return Task.completed(null);
         }
 
+        Duration window = debounceWindow();
+        if (!window.isZero() && !window.isNegative()) {
+            PendingChange change = new PendingChange(changeSequence.incrementAndGet(), discordId, null, newState);
+            return pendingChanges(cause, someone, window, pending -> pending.discordChanges.merge(discordId, change, PendingChange::latest));
+        }
+
         return someone.withLinkedAccounts(discordSRV).thenApply(resolved -> {
             if (resolved == null) {
                 return new SyncSummary<>(this, cause, someone).fail(GenericSyncResults.NOT_LINKED);
             }
 
-            SyncSummary<C> summary = new SyncSummary<>(this, cause, resolved);
-            for (C config : gameConfigs) {
-                SyncDirection direction = config.direction;
-                if (direction == SyncDirection.MINECRAFT_TO_DISCORD) {
-                    // Not going Discord -> Minecraft
-                    summary.appendResult(config, GenericSyncResults.WRONG_DIRECTION);
-                    continue;
-                }
-
-                summary.appendResult(config, applyGameIfDoesNotMatch(config, resolved.playerUUID(), newState));
-
-                // If the sync is bidirectional, also sync anything else linked to the same Minecraft id
-                if (direction == SyncDirection.DISCORD_TO_MINECRAFT) {
-                    continue;
-                }
-
-                List<C> discordConfigs = configsForGame.get(config.gameId());
-                if (discordConfigs == null) {
-                    continue;
-                }
-
-                for (C gameConfig : discordConfigs) {
-                    if (Objects.equals(gameConfig.discordId(), discordId)) {
-                        continue;
-                    }
-
-                    summary.appendResult(gameConfig, applyDiscordIfDoesNotMatch(gameConfig, resolved.userId(), newState));
-                }
-            }
-            return summary;
+            Map<C, Supplier<Task<ISyncResult>>> actions = new LinkedHashMap<>();
+            discordChangedActions(actions, resolved, discordId, newState);
+            return toSummary(cause, resolved, actions);
         }).whenComplete((summary, t) -> {
             if (summary != null) {
                 logSummary(summary);
@@ -279,53 +363,190 @@ public abstract class AbstractSyncModule<
     }
 
     protected Task<SyncSummary<C>> gameChanged(ISyncCause cause, Someone someone, @NotNull G gameId, @Nullable S newState) {
-        List<C> discordConfigs = configsForGame.get(gameId);
-        if (discordConfigs == null) {
+        if (!configsForGame.containsKey(gameId)) {
             return Task.completed(null);
         }
 
+        Duration window = debounceWindow();
+        if (!window.isZero() && !window.isNegative()) {
+            PendingChange change = new PendingChange(changeSequence.incrementAndGet(), null, gameId, newState);
+            return pendingChanges(cause, someone, window, pending -> pending.gameChanges.merge(gameId, change, PendingChange::latest));
+        }
+
         return someone.withLinkedAccounts(discordSRV).thenApply(resolved -> {
             if (resolved == null) {
                 return new SyncSummary<>(this, cause, someone).fail(GenericSyncResults.NOT_LINKED);
             }
 
-            SyncSummary<C> summary = new SyncSummary<>(this, cause, resolved);
-            for (C config : discordConfigs) {
-                SyncDirection direction = config.direction;
-                if (direction == SyncDirection.DISCORD_TO_MINECRAFT) {
-                    // Not going Minecraft -> Discord
-                    summary.appendResult(config, GenericSyncResults.WRONG_DIRECTION);
-                    continue;
-                }
+            Map<C, Supplier<Task<ISyncResult>>> actions = new LinkedHashMap<>();
+            gameChangedActions(actions, resolved, gameId, newState);
+            return toSummary(cause, resolved, actions);
+        }).whenComplete((summary, t) -> {
+            if (summary != null) {
+                logSummary(summary);
+            }
+        });
+    }
+
+    private void discordChangedActions(
+            Map<C, Supplier<Task<ISyncResult>>> actions,
+            Someone.Resolved resolved,
+            D discordId,
+            @Nullable S newState
+    ) {
+        List<C> gameConfigs = configsForDiscord.get(discordId);
+        if (gameConfigs == null) {
+            return;
+        }
+
+        for (C config : gameConfigs) {
+            SyncDirection direction = config.direction;
+            if (direction == SyncDirection.MINECRAFT_TO_DISCORD) {
+                // Not going Discord -> Minecraft
+                putAction(actions, config, () -> Task.completed(GenericSyncResults.WRONG_DIRECTION));
+                continue;
+            }
+
+            putAction(actions, config, () -> applyGameIfDoesNotMatch(config, resolved.playerUUID(), newState));
+
+            // If the sync is bidirectional, also sync anything else linked to the same Minecraft id
+            if (direction == SyncDirection.DISCORD_TO_MINECRAFT) {
+                continue;
+            }
 
-                summary.appendResult(config, applyDiscordIfDoesNotMatch(config, resolved.userId(), newState));
+            List<C> discordConfigs = configsForGame.get(config.gameId());
+            if (discordConfigs == null) {
+                continue;
+            }
 
-                // If the sync is bidirectional, also sync anything else linked to the same Discord id
-                if (direction == SyncDirection.MINECRAFT_TO_DISCORD) {
+            for (C gameConfig : discordConfigs) {
+                if (Objects.equals(gameConfig.discordId(), discordId)) {
                     continue;
                 }
 
-                List<C> gameConfigs = configsForDiscord.get(config.discordId());
-                if (gameConfigs == null) {
+                putAction(actions, gameConfig, () -> applyDiscordIfDoesNotMatch(gameConfig, resolved.userId(), newState));
+            }
+        }
+    }
+
+    private void gameChangedActions(
+            Map<C, Supplier<Task<ISyncResult>>> actions,
+            Someone.Resolved resolved,
+            G gameId,
+            @Nullable S newState
+    ) {
+        List<C> discordConfigs = configsForGame.get(gameId);
+        if (discordConfigs == null) {
+            return;
+        }
+
+        for (C config : discordConfigs) {
+            SyncDirection direction = config.direction;
+            if (direction == SyncDirection.DISCORD_TO_MINECRAFT) {
+                // Not going Minecraft -> Discord
+                putAction(actions, config, () -> Task.completed(GenericSyncResults.WRONG_DIRECTION));
+                continue;
+            }
+
+            putAction(actions, config, () -> applyDiscordIfDoesNotMatch(config, resolved.userId(), newState));
+
+            // If the sync is bidirectional, also sync anything else linked to the same Discord id
+            if (direction == SyncDirection.MINECRAFT_TO_DISCORD) {
+                continue;
+            }
+
+            List<C> gameConfigs = configsForDiscord.get(config.discordId());
+            if (gameConfigs == null) {
+                continue;
+            }
+
+            for (C gameConfig : gameConfigs) {
+                if (Objects.equals(gameConfig.gameId(), gameId)) {
                     continue;
                 }
 
-                for (C gameConfig : gameConfigs) {
-                    if (Objects.equals(gameConfig.gameId(), gameId)) {
-                        continue;
-                    }
+                putAction(actions, gameConfig, () -> applyGameIfDoesNotMatch(gameConfig, resolved.playerUUID(), newState));
+            }
+        }
+    }
 
-                    summary.appendResult(gameConfig, applyGameIfDoesNotMatch(gameConfig, resolved.playerUUID(), newState));
-                }
+    private void putAction(Map<C, Supplier<Task<ISyncResult>>> actions, C config, Supplier<Task<ISyncResult>> action) {
+        // The latest change for a config wins, keep the order in which they were changed
+        actions.remove(config);
+        actions.put(config, action);
+    }
+
+    private SyncSummary<C> toSummary(ISyncCause cause, Someone.Resolved resolved, Map<C, Supplier<Task<ISyncResult>>> actions) {
+        SyncSummary<C> summary = new SyncSummary<>(this, cause, resolved);
+        for (Map.Entry<C, Supplier<Task<ISyncResult>>> entry : actions.entrySet()) {
+            snapshots.markChanged(resolved.playerUUID(), entry.getKey());
+            summary.appendResult(entry.getKey(), entry.getValue().get());
+        }
+        return summary;
+    }
+
+    private Task<SyncSummary<C>> pendingChanges(
+            ISyncCause cause,
+            Someone someone,
+            Duration window,
+            Consumer<PendingChanges> change
+    ) {
+        return someone.withLinkedAccounts(discordSRV).then(resolved -> {
+            if (resolved == null) {
+                return Task.completed(new SyncSummary<>(this, cause, someone).fail(GenericSyncResults.NOT_LINKED));
             }
-            return summary;
-        }).whenComplete((summary, t) -> {
-            if (summary != null) {
-                logSummary(summary);
+
+            // Keyed by the linked player, so game and Discord changes for the same person are synced together
+            UUID key = resolved.playerUUID();
+            synchronized (pendingChanges) {
+                PendingChanges pending = pendingChanges.get(key);
+                if (pending == null) {
+                    pending = new PendingChanges(cause, resolved);
+                    pendingChanges.put(key, pending);
+                    discordSRV.scheduler().runLater(() -> flushPendingChanges(key), window);
+                }
+                change.accept(pending);
+                return pending.task;
             }
         });
     }
 
+    private void flushPendingChanges(UUID key) {
+        PendingChanges pending;
+        synchronized (pendingChanges) {
+            pending = pendingChanges.remove(key);
+        }
+        if (pending == null) {
+            return;
+        }
+
+        // Only the final state of each changed game or Discord object is synced, once per config,
+        // in the order the changes happened
+        List<PendingChange> changes = new ArrayList<>(pending.discordChanges.size() + pending.gameChanges.size());
+        changes.addAll(pending.discordChanges.values());
+        changes.addAll(pending.gameChanges.values());
+        changes.sort(Comparator.comparingLong(change -> change.sequence));
+
+        SyncSummary<C> summary;
+        try {
+            Map<C, Supplier<Task<ISyncResult>>> actions = new LinkedHashMap<>();
+            for (PendingChange change : changes) {
+                if (change.discordId != null) {
+                    discordChangedActions(actions, pending.resolved, change.discordId, change.newState);
+                } else {
+                    gameChangedActions(actions, pending.resolved, change.gameId, change.newState);
+                }
+            }
+            summary = toSummary(pending.cause, pending.resolved, actions);
+        } catch (Throwable t) {
+            pending.task.completeExceptionally(t);
+            return;
+        }
+
+        logSummary(summary);
+        pending.task.complete(summary);
+    }
+
     public Task<SyncSummary<C>> resyncAll(ISyncCause cause, Someone someone) {
         return someone.withLinkedAccounts(discordSRV).thenApply(resolved -> {
             if (resolved == null) {
@@ -361,13 +582,157 @@ public abstract class AbstractSyncModule<
         });
     }
 
+    /**
+     * Resyncs the provided configs for many players at once.
+     * Linked accounts are looked up together, Discord states are fetched once with {@link #getDiscordBulk(List, Set)}
+     * and players are processed in batches of {@value #BULK_BATCH_SIZE} with {@link #getGameBulk(List, List)}.
+     * One summary is logged for all players, updates are still written to the log file per player.
+     *
+     * @param cause the cause of the resync
+     * @param configs the configurations for the synchronizables
+     * @param playerUUIDs the players to resync
+     * @return a future completed once all players have been resynced
+     */
+    public Task<Void> bulkResync(ISyncCause cause, List<C> configs, Collection<UUID> playerUUIDs) {
+        return bulkResync(cause, configs, playerUUIDs, null);
+    }
+
+    private Task<Void> bulkResync(
+            ISyncCause cause,
+            List<C> configs,
+            Collection<UUID> playerUUIDs,
+            @Nullable BiPredicate<C, UUID> needsSync
+    ) {
+        long startTime = System.currentTimeMillis();
+        Map<ISyncResult, AtomicInteger> resultCounts = new ConcurrentHashMap<>();
+
+        // Lookups made at the same time are batched by the link provider
+        List<Task<Someone.Resolved>> lookups = new ArrayList<>(playerUUIDs.size());
+        for (UUID playerUUID : playerUUIDs) {
+            lookups.add(Someone.of(playerUUID).withLinkedAccounts(discordSRV).mapException(t -> {
+                logger().debug("Failed to look up linked account for " + playerUUID, t);
+                return null;
+            }));
+        }
+
+        return Task.allOf(lookups).then(resolvedAccounts -> {
+            List<Someone.Resolved> linked = new ArrayList<>(resolvedAccounts.size());
+            Set<Long> userIds = new HashSet<>(resolvedAccounts.size());
+            for (Someone.Resolved resolved : resolvedAccounts) {
+                if (resolved != null) {
+                    linked.add(resolved);
+                    userIds.add(resolved.userId());
+                }
+            }
+
+            int notLinked = playerUUIDs.size() - linked.size();
+            if (notLinked > 0) {
+                resultCounts.put(GenericSyncResults.NOT_LINKED, new AtomicInteger(notLinked));
+            }
+            if (linked.isEmpty()) {
+                return Task.completed(null);
+            }
+
+            return getDiscordBulk(configs, userIds)
+                    .mapException(t -> {
+                        logger().debug("Failed to get " + discordTerm() + "s in bulk", t);
+                        return new SyncStates<>();
+                    })
+                    .then(discordStates -> bulkResyncBatch(cause, configs, needsSync, linked, 0, discordStates, resultCounts));
+        }).whenComplete((v, t) -> {
+            String who = playerUUIDs.size() + " players (sync cause: " + cause + ")";
+            if (t != null) {
+                logger().error("Failed to " + syncName() + " " + who, t);
+                return;
+            }
+
+            List<String> results = new ArrayList<>();
+            for (Map.Entry<ISyncResult, AtomicInteger> entry : resultCounts.entrySet()) {
+                results.add(entry.getKey().format(gameTerm(), discordTerm()) + ": " + entry.getValue().get());
+            }
+            logger().debug(syncName() + " performed for " + who + " in " + (System.currentTimeMillis() - startTime) + "ms"
+                                   + (results.isEmpty() ? "" : ": " + String.join(", ", results)));
+        });
+    }
+
+    private Task<Void> bulkResyncBatch(
+            ISyncCause cause,
+            List<C> configs,
+            @Nullable BiPredicate<C, UUID> needsSync,
+            List<Someone.Resolved> linked,
+            int from,
+            SyncStates<C, Long, S> discordStates,
+            Map<ISyncResult, AtomicInteger> resultCounts
+    ) {
+        if (from >= linked.size()) {
+            return Task.completed(null);
+        }
+
+        List<Someone.Resolved> batch = linked.subList(from, Math.min(linked.size(), from + BULK_BATCH_SIZE));
+        List<UUID> playerUUIDs = new ArrayList<>(batch.size());
+        Map<UUID, Integer> versions = new HashMap<>(batch.size());
+        for (Someone.Resolved resolved : batch) {
+            UUID playerUUID = resolved.playerUUID();
+            playerUUIDs.add(playerUUID);
+            versions.put(playerUUID, snapshots.version(playerUUID));
+        }
+
+        return getGameBulk(configs, playerUUIDs)
+                .mapException(t -> {
+                    logger().debug("Failed to get " + gameTerm() + "s in bulk", t);
+                    return new SyncStates<>();
+                })
+                .then(gameStates -> {
+                    List<Task<Map<C, ISyncResult>>> summaries = new ArrayList<>(batch.size());
+                    for (Someone.Resolved resolved : batch) {
+                        UUID playerUUID = resolved.playerUUID();
+                        long userId = resolved.userId();
+
+                        SyncSummary<C> summary = new SyncSummary<>(this, cause, resolved);
+                        for (C config : configs) {
+                            if (needsSync != null && !needsSync.test(config, playerUUID)) {
+                                continue;
+                            }
+
+                            Task<S> gameGet = gameStates.get(config, playerUUID);
+                            Task<S> discordGet = discordStates.get(config, userId);
+                            summary.appendResult(config, resync(
+                                    config,
+                                    resolved,
+                                    gameGet != null ? gameGet : getGame(config, playerUUID),
+                                    discordGet != null ? discordGet : getDiscord(config, userId)
+                            ));
+                        }
+
+                        int version = versions.get(playerUUID);
+                        summaries.add(summary.resultFuture().whenSuccessful(results -> {
+                            for (Map.Entry<C, ISyncResult> entry : results.entrySet()) {
+                                ISyncResult result = entry.getValue();
+                                if (result == null) {
+                                    continue;
+                                }
+
+                                resultCounts.computeIfAbsent(result, key -> new AtomicInteger()).incrementAndGet();
+                                if (!result.isError()) {
+                                    snapshots.markInSync(playerUUID, entry.getKey(), version);
+                                }
+                            }
+                            writeAuditLog(summary, results);
+                        }));
+                    }
+                    return Task.allOf(summaries);
+                })
+                .then(__ -> bulkResyncBatch(cause, configs, needsSync, linked, from + BULK_BATCH_SIZE, discordStates, resultCounts));
+    }
+
     private Task<ISyncResult> resync(C config, Someone.Resolved resolved) {
+        return resync(config, resolved, getGame(config, resolved.playerUUID()), getDiscord(config, resolved.userId()));
+    }
+
+    private Task<ISyncResult> resync(C config, Someone.Resolved resolved, Task<S> gameGet, Task<S> discordGet) {
         UUID playerUUID = resolved.playerUUID();
         long userId = resolved.userId();
 
-        Task<S> gameGet = getGame(config, playerUUID);
-        Task<S> discordGet = getDiscord(config, userId);
-
         return Task.allOf(gameGet, discordGet).then((__) -> {
             S gameState = gameGet.join();
             S discordState = discordGet.join();
@@ -448,31 +813,69 @@ public abstract class AbstractSyncModule<
                 return;
             }
 
-            Map<ISyncResult, List<String>> groupedResults = new LinkedHashMap<>();
-            for (Map.Entry<C, ISyncResult> entry : results.entrySet()) {
-                C config = entry.getKey();
-                ISyncResult result = entry.getValue();
+            logger().debug(syncName() + " performed for " + formatResults(summary, groupResults(results, false)));
+            writeAuditLog(summary, results);
+        });
+    }
 
-                groupedResults.computeIfAbsent(result, key -> new ArrayList<>()).add(config.describe());
-            }
+    private void writeAuditLog(SyncSummary<C> summary, Map<C, ISyncResult> results) {
+        List<String> auditResults = groupResults(results, true);
+        if (!auditResults.isEmpty()) {
+            discordSRV.logger().writeLogForCurrentDay(logFileName(), formatResults(summary, auditResults));
+        }
+    }
 
-            List<String> allResults = new ArrayList<>();
-            List<String> auditResults = new ArrayList<>();
-            for (Map.Entry<ISyncResult, List<String>> entry : groupedResults.entrySet()) {
-                ISyncResult result = entry.getKey();
-                String line = result.format(gameTerm(), discordTerm())
-                        + ": [" + String.join(", ", entry.getValue()) + "]";
-                allResults.add(line);
-                if (result.isUpdate()) {
-                    auditResults.add(line);
-                }
+    private List<String> groupResults(Map<C, ISyncResult> results, boolean updatesOnly) {
+        Map<ISyncResult, List<String>> groupedResults = new LinkedHashMap<>();
+        for (Map.Entry<C, ISyncResult> entry : results.entrySet()) {
+            C config = entry.getKey();
+            ISyncResult result = entry.getValue();
+            if (result == null || (updatesOnly && !result.isUpdate())) {
+                continue;
             }
 
-            logger().debug(syncName() + " performed for " + formatResults(summary, allResults));
-            if (!auditResults.isEmpty()) {
-                discordSRV.logger().writeLogForCurrentDay(logFileName(), formatResults(summary, auditResults));
-            }
-        });
+            groupedResults.computeIfAbsent(result, key -> new ArrayList<>()).add(config.describe());
+        }
+
+        List<String> lines = new ArrayList<>();
+        for (Map.Entry<ISyncResult, List<String>> entry : groupedResults.entrySet()) {
+            ISyncResult result = entry.getKey();
+            lines.add(result.format(gameTerm(), discordTerm()) + ": [" + String.join(", ", entry.getValue()) + "]");
+        }
+        return lines;
     }
 
+    private class PendingChanges {
+
+        private final ISyncCause cause;
+        private final Someone.Resolved resolved;
+        private final Map<D, PendingChange> discordChanges = new HashMap<>();
+        private final Map<G, PendingChange> gameChanges = new HashMap<>();
+        private final Task<SyncSummary<C>> task = new Task<>();
+
+        private PendingChanges(ISyncCause cause, Someone.Resolved resolved) {
+            this.cause = cause;
+            this.resolved = resolved;
+        }
+    }
+
+    private class PendingChange {
+
+        private final long sequence;
+        private final D discordId;
+        private final G gameId;
+        private final S newState;
+
+        private PendingChange(long sequence, @Nullable D discordId, @Nullable G gameId, @Nullable S newState) {
+            this.sequence = sequence;
+            this.discordId = discordId;
+            this.gameId = gameId;
+            this.newState = newState;
+        }
+
+        private PendingChange latest(PendingChange other) {
+            // Link lookups may finish out of order
+            return other.sequence > sequence ? other : this;
+        }
+    }
 }
@@ -0,0 +1,144 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2025 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.abstraction.sync;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Which synchronizables were in sync for each player when they were last checked, as a bitset per player over the configs.
+ * Changes reported through events clear the bits for the affected configs, so timed resyncs can skip pairs that haven't changed.
+ *
+ * @param <C> the configuration type for a single synchronizable
+ */
+public class SyncSnapshots<C> {
+
+    private volatile Map<C, Integer> indexes = Collections.emptyMap();
+    private final Map<UUID, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    /**
+     * Clears all snapshots and assigns a bit to each of the given configs.
+     * @param configs the configs in use
+     */
+    public void reset(Collection<C> configs) {
+        Map<C, Integer> indexes = new HashMap<>(configs.size());
+        for (C config : configs) {
+            indexes.put(config, indexes.size());
+        }
+        this.indexes = indexes;
+        snapshots.clear();
+    }
+
+    /**
+     * The version of the given player's snapshot, which changes every time a change is reported for the player.
+     * @param playerUUID the player
+     * @return the current version
+     * @see #markInSync(UUID, Object, int)
+     */
+    public int version(UUID playerUUID) {
+        Snapshot snapshot = snapshots.get(playerUUID);
+        return snapshot != null ? snapshot.version : 0;
+    }
+
+    public boolean isInSync(UUID playerUUID, C config) {
+        Integer index = indexes.get(config);
+        Snapshot snapshot = snapshots.get(playerUUID);
+        return index != null && snapshot != null && snapshot.get(index);
+    }
+
+    /**
+     * Marks the config as in sync for the player, unless a change was reported after the given version was taken.
+     * @param playerUUID the player
+     * @param config the config that was checked
+     * @param version the version from {@link #version(UUID)} taken before the states were checked
+     */
+    public void markInSync(UUID playerUUID, C config, int version) {
+        Integer index = indexes.get(config);
+        if (index == null) {
+            return;
+        }
+
+        snapshots.compute(playerUUID, (key, snapshot) -> {
+            if (snapshot == null) {
+                if (version != 0) {
+                    return null;
+                }
+                snapshot = new Snapshot();
+            }
+            if (snapshot.version == version) {
+                snapshot.set(index, true);
+            }
+            return snapshot;
+        });
+    }
+
+    public void markChanged(UUID playerUUID, C config) {
+        Integer index = indexes.get(config);
+        if (index == null) {
+            return;
+        }
+
+        snapshots.compute(playerUUID, (key, snapshot) -> {
+            if (snapshot == null) {
+                snapshot = new Snapshot();
+            }
+            snapshot.version++;
+            snapshot.set(index, false);
+            return snapshot;
+        });
+    }
+
+    public void remove(UUID playerUUID) {
+        snapshots.remove(playerUUID);
+    }
+
+    /**
+     * Removes the snapshots of players that are not in the given collection, like offline players.
+     * @param playerUUIDs the players to keep snapshots for
+     */
+    public void retainAll(Collection<UUID> playerUUIDs) {
+        snapshots.keySet().retainAll(playerUUIDs);
+    }
+
+    private static class Snapshot {
+
+        private long[] bits = new long[1];
+        private int version;
+
+        private boolean get(int index) {
+            int word = index >>> 6;
+            return word < bits.length && (bits[word] & (1L << index)) != 0;
+        }
+
+        private void set(int index, boolean value) {
+            int word = index >>> 6;
+            if (word >= bits.length) {
+                if (!value) {
+                    return;
+                }
+                bits = Arrays.copyOf(bits, word + 1);
+            }
+            if (value) {
+                bits[word] |= 1L << index;
+            } else {
+                bits[word] &= ~(1L << index);
+            }
+        }
+    }
+}
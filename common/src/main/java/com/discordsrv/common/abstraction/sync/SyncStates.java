@@ -0,0 +1,56 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2025 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.discordsrv.common.abstraction.sync;
+
+import com.discordsrv.api.task.Task;
+import com.discordsrv.common.abstraction.sync.result.ISyncResult;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * States fetched ahead of time for many players or users at once, used by bulk resyncs.
+ * States that are not included are fetched individually.
+ *
+ * @param <C> the configuration type for a single synchronizable
+ * @param <K> the Player UUID or Discord user id
+ * @param <S> state of synchronization on Minecraft/Discord
+ */
+public class SyncStates<C, K, S> {
+
+    private final Map<C, Map<K, Task<S>>> states = new ConcurrentHashMap<>();
+
+    public void put(C config, K key, Task<S> state) {
+        states.computeIfAbsent(config, k -> new ConcurrentHashMap<>()).put(key, state);
+    }
+
+    public void complete(C config, K key, @Nullable S state) {
+        put(config, key, Task.completed(state));
+    }
+
+    public void fail(C config, K key, ISyncResult result) {
+        put(config, key, Task.failed(new SyncFail(result)));
+    }
+
+    @Nullable
+    public Task<S> get(C config, K key) {
+        Map<K, Task<S>> configStates = states.get(config);
+        return configStates != null ? configStates.get(key) : null;
+    }
+}
@@ -31,15 +31,23 @@ public class StorageConfig {
     @Comment("The storage backend to use.\n\n"
             + "- H2\n"
             + "- MySQL\n"
-            + "- MariaDB")
+            + "- MariaDB\n"
+            + "- File (linked accounts in a local file, kept in memory. Faster than H2, but only for a single server)")
     public String backend = "H2";
 
+    @Comment("A storage backend to copy linked accounts from, when the storage backend above has no linked accounts.\n"
+            + "Used for switching between storage backends, for example from H2 to File or from File to MySQL. Leave blank to disable")
+    public String importFrom = "";
+
     @Comment("SQL table prefix")
     public String sqlTablePrefix = "discordsrv_";
 
     @Comment("Connection options for remote databases (MySQL, MariaDB)")
     public Remote remote = new Remote();
 
+    @Comment("Options for writing linked account changes to the database in the background")
+    public WriteBehind writeBehind = new WriteBehind();
+
     @Comment("Extra connection properties for database drivers")
     public Map<String, String> driverProperties = new LinkedHashMap<String, String>() {{
         put("useSSL", "false");
@@ -81,6 +89,18 @@ public class StorageConfig {
 
     }
 
+    public static class WriteBehind {
+
+        @Comment("If linked account changes should be written to the database in batches in the background.\n"
+                + "Changes are visible immediately and kept in a journal file until they are written to the database,\n"
+                + "the journal is replayed on the next startup if the database could not be reached")
+        public boolean enabled = false;
+
+        @Comment("How often to write pending changes to the database, in milliseconds")
+        public long flushIntervalMilliseconds = 1000;
+
+    }
+
     public static class Pool {
 
         @Comment("The maximum number of concurrent connections to keep to the database")
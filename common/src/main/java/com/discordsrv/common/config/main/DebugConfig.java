@@ -36,4 +36,9 @@ public class DebugConfig {
     @Constants.Comment("{\"AWARD_LISTENER\":[\"TRACE\"]}")
     public Map<String, List<String>> additionalLevels = new HashMap<>();
 
+    @Comment("Event listeners that take longer than this amount of milliseconds to process a single event will be logged as a warning\n"
+            + "Slow event listeners may delay messages and other features of DiscordSRV\n"
+            + "Set to 0 to disable")
+    public int slowEventListenerThresholdMilliseconds = 500;
+
 }
@@ -38,6 +38,11 @@ public class GroupSyncConfig {
             + "If you are not using LuckPerms and want to use Minecraft -> Discord synchronization, you must specify timed synchronization")
     public List<SetConfig> sets = new ArrayList<>(Collections.singletonList(new SetConfig()));
 
+    @Comment("How long to wait for more group and role changes for the same player before synchronizing them together, in milliseconds.\n"
+            + "Permission plugin track promotions and role changes made in bulk often change many groups or roles at once.\n"
+            + "Set to 0 to synchronize every change immediately")
+    public long debounceMilliseconds = 250;
+
     public List<Entry> getEntries() {
         List<Entry> entries = new ArrayList<>();
         for (SetConfig set : sets) {
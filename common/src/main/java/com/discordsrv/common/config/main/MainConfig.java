@@ -137,6 +137,15 @@ public abstract class MainConfig implements Config {
     @Comment("These options are for fine-tuning, only touch them if you know what you're doing")
     public MemberCachingConfig memberCaching = new MemberCachingConfig();
 
+    @Order(1001)
+    public WebhookConfig webhooks = new WebhookConfig();
+
+    @Order(1002)
+    public AttachmentMirroringConfig attachmentMirroring = new AttachmentMirroringConfig();
+
+    @Order(1003)
+    public MirroredMessagesConfig mirroredMessages = new MirroredMessagesConfig();
+
     @Order(5000)
     @Comment("Options for diagnosing DiscordSRV, you do not need to touch these options during normal operation")
     public DebugConfig debug = new DebugConfig();
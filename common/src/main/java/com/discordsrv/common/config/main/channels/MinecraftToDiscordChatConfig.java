@@ -21,6 +21,7 @@ package com.discordsrv.common.config.main.channels;
 import com.discordsrv.api.discord.entity.message.SendableDiscordMessage;
 import com.discordsrv.common.config.configurate.annotation.Untranslated;
 import com.discordsrv.common.config.configurate.manager.abstraction.ConfigurateConfigManager;
+import com.discordsrv.common.config.main.generic.BurstConfig;
 import com.discordsrv.common.config.main.generic.IMessageConfig;
 import org.spongepowered.configurate.objectmapping.ConfigSerializable;
 import org.spongepowered.configurate.objectmapping.meta.Comment;
@@ -50,6 +51,9 @@ public class MinecraftToDiscordChatConfig implements IMessageConfig {
 
     public Mentions mentions = new Mentions();
 
+    @Comment("Combining chat messages into fewer Discord messages when a lot of messages are being sent, to stay ahead of Discord's rate limits")
+    public BurstConfig burst = new BurstConfig();
+
     @Override
     public boolean enabled() {
         return enabled;
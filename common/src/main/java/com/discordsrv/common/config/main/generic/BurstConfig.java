@@ -0,0 +1,40 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2025 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.config.main.generic;
+
+import org.spongepowered.configurate.objectmapping.ConfigSerializable;
+import org.spongepowered.configurate.objectmapping.meta.Comment;
+
+@ConfigSerializable
+public class BurstConfig {
+
+    @Comment("If messages sent to the same channel in quick succession should be combined into fewer Discord messages while the channel is busy.\n"
+            + "Messages with the same webhook username, avatar and allowed mentions have their content joined, messages with attachments are never combined")
+    public boolean enabled = false;
+
+    @Comment("If messages from different authors should also be combined, as a bot message with one embed (showing the author's name and avatar) per message.\n"
+            + "Mentions in messages combined this way will not notify anyone")
+    public boolean combineDifferentAuthors = true;
+
+    @Comment("The amount of messages per second to a channel after which messages are combined")
+    public int messagesPerSecond = 3;
+
+    @Comment("How long to collect messages for before sending them, in milliseconds")
+    public long delayMilliseconds = 1000;
+}
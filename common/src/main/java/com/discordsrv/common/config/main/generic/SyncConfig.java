@@ -43,6 +43,10 @@ public class SyncConfig {
 
         @Comment("The number of minutes between timed synchronization cycles")
         public int cycleTime = 5;
+
+        @Comment("When changes on both sides are reported as they happen, timed synchronization only checks what changed since the last cycle.\n"
+                + "Every this many cycles everything is checked regardless")
+        public int fullSyncEvery = 12;
     }
 
     @Comment("Decides which side takes priority when using timed synchronization or the resync command and there are differences\n"
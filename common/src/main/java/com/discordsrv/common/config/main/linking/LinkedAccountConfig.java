@@ -37,6 +37,21 @@ public class LinkedAccountConfig {
     @Constants.Comment({ConnectionConfig.FILE_NAME, "minecraftauth.me", "storage"})
     public Provider provider = Provider.AUTO;
 
+    @Comment("How often to check for accounts linked or unlinked by other servers using the same database, in seconds (0 to disable)\n"
+            + "Only applies to the \"storage\" provider")
+    public int changeCheckIntervalSeconds = 5;
+
+    @Comment("Keep all linked accounts from the storage in memory, so lookups of players and users that aren't cached don't query the database.\n"
+            + "Useful with a large amount of linked accounts, only applies to the \"storage\" provider")
+    public MemoryIndex memoryIndex = new MemoryIndex();
+
+    public static class MemoryIndex {
+
+        @Comment("If all linked accounts should be kept in memory\n"
+                + "Changes made by other servers are applied as they are found by the change check above")
+        public boolean enabled = false;
+    }
+
     public enum Provider {
         AUTO,
         MINECRAFTAUTH,
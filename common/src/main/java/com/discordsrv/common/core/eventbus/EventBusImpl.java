@@ -25,11 +25,15 @@ import com.discordsrv.api.eventbus.internal.EventStateHolder;
 import com.discordsrv.api.events.Cancellable;
 import com.discordsrv.api.events.Event;
 import com.discordsrv.api.events.Processable;
+import com.discordsrv.api.task.Task;
 import com.discordsrv.common.DiscordSRV;
+import com.discordsrv.common.config.main.MainConfig;
 import com.discordsrv.common.core.logging.Logger;
 import com.discordsrv.common.core.logging.NamedLogger;
 import com.discordsrv.common.exception.InvalidListenerMethodException;
 import com.discordsrv.common.feature.debug.DebugGenerateEvent;
+import com.discordsrv.common.feature.debug.DebugObservabilityEvent;
+import com.discordsrv.common.feature.debug.file.KeyValueDebugFile;
 import com.discordsrv.common.feature.debug.file.TextDebugFile;
 import com.discordsrv.common.helper.TestHelper;
 import net.dv8tion.jda.api.events.GenericEvent;
@@ -42,8 +46,11 @@ import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -56,11 +63,20 @@ public class EventBusImpl implements EventBus {
             new State<>(Processable.class, Processable::isProcessed, EventStateHolder.PROCESSED)
     );
 
+    private static final long SLOW_LISTENER_WARNING_INTERVAL = TimeUnit.MINUTES.toMillis(5);
+
     private final Map<Object, List<EventListenerImpl>> listeners = new ConcurrentHashMap<>();
     private final Map<Class<?>, List<EventListenerImpl>> listenersByEvent = new ConcurrentHashMap<>();
+    private final Map<Class<?>, DispatchTable> dispatchTables = new ConcurrentHashMap<>();
+    private final Map<Class<?>, ExecutionTimeHistogram> eventExecutionTimes = new ConcurrentHashMap<>();
+    private final Map<Object, CompletableFuture<Void>> orderedLanes = new ConcurrentHashMap<>();
+    private final AtomicInteger listenersVersion = new AtomicInteger();
+    private final DiscordSRV discordSRV;
     private final Logger logger;
+    private volatile boolean observing = false;
 
     public EventBusImpl(DiscordSRV discordSRV) {
+        this.discordSRV = discordSRV;
         this.logger = new NamedLogger(discordSRV, "EVENT_BUS");
 
         // For debug generation
@@ -70,6 +86,9 @@ public class EventBusImpl implements EventBus {
     public void shutdown() {
         listeners.clear();
         listenersByEvent.clear();
+        eventExecutionTimes.clear();
+        orderedLanes.clear();
+        invalidateDispatchTables();
     }
 
     @Override
@@ -94,6 +113,7 @@ public class EventBusImpl implements EventBus {
             listenersByEvent.computeIfAbsent(method.eventClass(), key -> new CopyOnWriteArrayList<>())
                     .add(method);
         }
+        invalidateDispatchTables();
         logger.debug("Listener " + eventListener.getClass().getName() + " subscribed");
     }
 
@@ -156,10 +176,11 @@ public class EventBusImpl implements EventBus {
             }
         }
 
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
         MethodHandle handle = null;
         MethodType methodType = MethodType.methodType(method.getReturnType(), method.getParameterTypes());
         try {
-            handle = MethodHandles.lookup().findVirtual(listenerClass, method.getName(), methodType);
+            handle = lookup.findVirtual(listenerClass, method.getName(), methodType);
         } catch (ReflectiveOperationException e) {
             suppressedMethods.add(e);
         }
@@ -174,7 +195,8 @@ public class EventBusImpl implements EventBus {
             return;
         }
 
-        EventListenerImpl listener = new EventListenerImpl(eventListener, listenerClass, annotation, firstParameter, method, handle);
+        EventListenerInvoker invoker = handle != null ? EventListenerInvoker.create(lookup, listenerClass, method, handle) : null;
+        EventListenerImpl listener = new EventListenerImpl(eventListener, listenerClass, annotation, firstParameter, method, handle, invoker);
         methods.add(listener);
     }
 
@@ -195,6 +217,7 @@ public class EventBusImpl implements EventBus {
                     listenersByEvent.remove(eventClass);
                 }
             }
+            invalidateDispatchTables();
             logger.debug("Listener " + eventListener.getClass().getName() + " unsubscribed");
         }
     }
@@ -209,30 +232,74 @@ public class EventBusImpl implements EventBus {
         publishEvent(event);
     }
 
-    private void gatherListeners(Class<?> eventClass, List<EventListenerImpl> listeners) {
-        List<EventListenerImpl> listenersForEvent = this.listenersByEvent.get(eventClass);
-        if (listenersForEvent == null) {
-            return;
-        }
-        listeners.addAll(listenersForEvent);
+    @Override
+    public <E extends Event> @NotNull Task<E> publishAsync(@NotNull E event) {
+        return discordSRV.scheduler().supply(() -> {
+            publishEvent(event);
+            return event;
+        });
     }
 
-    private void publishEvent(Object event) {
-        Class<?> checkClass = event.getClass();
-
-        Map<State<?>, Boolean> states = new HashMap<>(STATES.size());
-        for (State<?> state : STATES) {
-            if (state.eventClass().isAssignableFrom(checkClass)) {
-                boolean value = state.statePredicate().test(event);
-                states.put(state, value);
-
-                if (value) {
-                    state.stateHolder().set(EventStateHolder.UNKNOWN_LISTENER);
+    @Override
+    public <E extends Event> @NotNull Task<E> publishAsync(@NotNull E event, @NotNull Object orderingKey) {
+        Task<E> task = new Task<>();
+
+        // Chain the event after the previous event with the same key, the lane is removed once it runs empty
+        CompletableFuture<Void> lane = orderedLanes.compute(orderingKey, (key, previous) -> {
+            CompletableFuture<Void> previousInLane = previous != null ? previous : CompletableFuture.completedFuture(null);
+            return previousInLane.handleAsync((__, ___) -> {
+                try {
+                    publishEvent(event);
+                    task.complete(event);
+                } catch (Throwable t) {
+                    task.completeExceptionally(t);
                 }
+                return null;
+            }, discordSRV.scheduler().executor());
+        });
+        lane.whenComplete((__, throwable) -> {
+            orderedLanes.remove(orderingKey, lane);
+            if (throwable != null) {
+                task.completeExceptionally(throwable);
             }
+        });
+
+        return task;
+    }
+
+    private void invalidateDispatchTables() {
+        listenersVersion.incrementAndGet();
+        dispatchTables.clear();
+    }
+
+    /**
+     * Gets the priority-sorted listeners and applicable states for the given concrete event class,
+     * building and caching the table if it doesn't exist yet.
+     */
+    private DispatchTable getDispatchTable(Class<?> eventClass) {
+        DispatchTable table = dispatchTables.get(eventClass);
+        if (table != null) {
+            return table;
         }
 
+        int version = listenersVersion.get();
+        table = buildDispatchTable(eventClass);
+
+        DispatchTable existing = dispatchTables.putIfAbsent(eventClass, table);
+        if (existing != null) {
+            return existing;
+        }
+        if (version != listenersVersion.get()) {
+            // Listeners changed while building the table, don't keep a potentially outdated table around
+            dispatchTables.remove(eventClass, table);
+        }
+        return table;
+    }
+
+    private DispatchTable buildDispatchTable(Class<?> eventClass) {
         List<EventListenerImpl> listeners = new ArrayList<>();
+
+        Class<?> checkClass = eventClass;
         while (!Object.class.equals(checkClass)) {
             gatherListeners(checkClass, listeners);
             for (Class<?> anInterface : checkClass.getInterfaces()) {
@@ -244,6 +311,65 @@ public class EventBusImpl implements EventBus {
 
         listeners.sort(Comparator.comparingInt(EventListenerImpl::priority));
 
+        List<State<?>> states = new ArrayList<>(STATES.size());
+        for (State<?> state : STATES) {
+            if (state.eventClass().isAssignableFrom(eventClass)) {
+                states.add(state);
+            }
+        }
+
+        return new DispatchTable(
+                listeners.toArray(new EventListenerImpl[0]),
+                states.toArray(new State<?>[0]),
+                eventExecutionTimes.computeIfAbsent(eventClass, key -> new ExecutionTimeHistogram())
+        );
+    }
+
+    private void gatherListeners(Class<?> eventClass, List<EventListenerImpl> listeners) {
+        List<EventListenerImpl> listenersForEvent = this.listenersByEvent.get(eventClass);
+        if (listenersForEvent == null) {
+            return;
+        }
+        listeners.addAll(listenersForEvent);
+    }
+
+    private void publishEvent(Object event) {
+        DispatchTable table = getDispatchTable(event.getClass());
+        long slowListenerThreshold = slowListenerThresholdNanos();
+
+        long startTime = System.nanoTime();
+        dispatch(table, event, slowListenerThreshold);
+        table.executionTimes().record(System.nanoTime() - startTime);
+    }
+
+    private long slowListenerThresholdNanos() {
+        MainConfig config = discordSRV.config();
+        int threshold = config != null ? config.debug.slowEventListenerThresholdMilliseconds : 0;
+        return threshold > 0 ? TimeUnit.MILLISECONDS.toNanos(threshold) : 0;
+    }
+
+    private void dispatch(DispatchTable table, Object event, long slowListenerThreshold) {
+        EventListenerImpl[] listeners = table.listeners();
+        State<?>[] states = table.states();
+
+        if (states.length == 0) {
+            // Not cancellable or processable, no state to track
+            for (EventListenerImpl eventListener : listeners) {
+                invokeListener(eventListener, event, slowListenerThreshold);
+            }
+            return;
+        }
+
+        // The initial values of the states, as bits in the same order as the states
+        int initialValues = 0;
+        for (int i = 0; i < states.length; i++) {
+            State<?> state = states[i];
+            if (state.statePredicate().test(event)) {
+                initialValues |= 1 << i;
+                state.stateHolder().set(EventStateHolder.UNKNOWN_LISTENER);
+            }
+        }
+
         for (EventListenerImpl eventListener : listeners) {
             if (eventListener.isIgnoringCancelled() && event instanceof Cancellable && ((Cancellable) event).isCancelled()) {
                 continue;
@@ -252,28 +378,11 @@ public class EventBusImpl implements EventBus {
                 continue;
             }
 
-            long startTime = System.currentTimeMillis();
-            try {
-                Object listener = eventListener.listener();
-                eventListener.handle().invoke(listener, event);
-            } catch (Throwable e) {
-                String eventClassName = event.getClass().getName();
-                if (eventListener.className().startsWith("com.discordsrv")) {
-                    logger.error("Failed to pass " + eventClassName + " to " + eventListener, e);
-                } else {
-                    // Print the listener failing without references to the DiscordSRV event bus
-                    // as it isn't relevant to the exception, and often causes users to suspect DiscordSRV is doing something wrong when it isn't
-                    //noinspection CallToPrintStackTrace
-                    e.printStackTrace();
-                }
-                TestHelper.fail(e);
-            }
-            long timeTaken = System.currentTimeMillis() - startTime;
-            logger.trace(eventListener + " took " + timeTaken + "ms to execute");
+            invokeListener(eventListener, event, slowListenerThreshold);
 
-            for (Map.Entry<State<?>, Boolean> entry : states.entrySet()) {
-                State<?> state = entry.getKey();
-                boolean currentValue = entry.getValue();
+            for (int i = 0; i < states.length; i++) {
+                State<?> state = states[i];
+                boolean currentValue = (initialValues & (1 << i)) != 0;
                 boolean newValue = state.statePredicate().test(event);
 
                 if (currentValue == newValue) {
@@ -289,11 +398,70 @@ public class EventBusImpl implements EventBus {
         }
 
         // Clear the states
-        for (State<?> state : states.keySet()) {
+        for (State<?> state : states) {
             state.stateHolder().remove();
         }
     }
 
+    private void invokeListener(EventListenerImpl eventListener, Object event, long slowListenerThreshold) {
+        long startTime = System.nanoTime();
+        try {
+            Object listener = eventListener.listener();
+            eventListener.invoker().invoke(listener, event);
+        } catch (Throwable e) {
+            String eventClassName = event.getClass().getName();
+            if (eventListener.className().startsWith("com.discordsrv")) {
+                logger.error("Failed to pass " + eventClassName + " to " + eventListener, e);
+            } else {
+                // Print the listener failing without references to the DiscordSRV event bus
+                // as it isn't relevant to the exception, and often causes users to suspect DiscordSRV is doing something wrong when it isn't
+                //noinspection CallToPrintStackTrace
+                e.printStackTrace();
+            }
+            TestHelper.fail(e);
+        }
+
+        long timeTaken = System.nanoTime() - startTime;
+        eventListener.executionTimes().record(timeTaken);
+        if (observing) {
+            logger.trace(eventListener + " took " + TimeUnit.NANOSECONDS.toMillis(timeTaken) + "ms to execute");
+        }
+        if (slowListenerThreshold > 0 && timeTaken > slowListenerThreshold) {
+            warnSlowListener(eventListener, event, timeTaken);
+        }
+    }
+
+    private void warnSlowListener(EventListenerImpl eventListener, Object event, long timeTaken) {
+        long currentTime = System.currentTimeMillis();
+        long lastWarning = eventListener.lastSlowWarning();
+        if (lastWarning != 0 && currentTime - lastWarning < SLOW_LISTENER_WARNING_INTERVAL) {
+            return;
+        }
+        eventListener.setLastSlowWarning(currentTime);
+
+        logger.warning("Event listener " + eventListener.className() + "#" + eventListener.methodName()
+                               + " took " + TimeUnit.NANOSECONDS.toMillis(timeTaken) + "ms to process " + event.getClass().getName()
+                               + ", slow event listeners may delay DiscordSRV's features."
+                               + " Further warnings about this listener are suppressed for 5 minutes");
+    }
+
+    @Subscribe
+    public void onDebugObservability(DebugObservabilityEvent event) {
+        boolean enable = event.isEnable();
+        if (enable) {
+            // Start from a clean slate
+            for (List<EventListenerImpl> eventListeners : listeners.values()) {
+                for (EventListenerImpl eventListener : eventListeners) {
+                    eventListener.executionTimes().reset();
+                }
+            }
+            for (ExecutionTimeHistogram executionTimes : eventExecutionTimes.values()) {
+                executionTimes.reset();
+            }
+        }
+        this.observing = enable;
+    }
+
     @Subscribe
     public void onDebugGenerate(DebugGenerateEvent event) {
         StringBuilder builder = new StringBuilder("Registered listeners\n");
@@ -327,6 +495,74 @@ public class EventBusImpl implements EventBus {
         }
 
         event.addFile(0, "event-bus.txt", new TextDebugFile(builder));
+        event.addFile(0, "event-bus-metrics.json", new KeyValueDebugFile(metrics(), true));
+    }
+
+    private Map<String, Object> metrics() {
+        List<Map<String, Object>> listenerMetrics = new ArrayList<>();
+        for (List<EventListenerImpl> eventListeners : listeners.values()) {
+            for (EventListenerImpl eventListener : eventListeners) {
+                ExecutionTimeHistogram executionTimes = eventListener.executionTimes();
+                if (executionTimes.count() == 0) {
+                    continue;
+                }
+
+                Map<String, Object> values = new LinkedHashMap<>();
+                values.put("listener", eventListener.className() + "#" + eventListener.methodName());
+                values.put("event", eventListener.eventClass().getName());
+                values.put("priority", eventListener.priority());
+                values.putAll(executionTimes.toMap());
+                listenerMetrics.add(values);
+            }
+        }
+        listenerMetrics.sort(Comparator.comparingLong(values -> -(long) values.get("maxMicros")));
+
+        List<Map<String, Object>> eventMetrics = new ArrayList<>();
+        for (Map.Entry<Class<?>, ExecutionTimeHistogram> entry : eventExecutionTimes.entrySet()) {
+            ExecutionTimeHistogram executionTimes = entry.getValue();
+            if (executionTimes.count() == 0) {
+                continue;
+            }
+
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("event", entry.getKey().getName());
+            values.putAll(executionTimes.toMap());
+            eventMetrics.add(values);
+        }
+        eventMetrics.sort(Comparator.comparingLong(values -> -(long) values.get("count")));
+
+        MainConfig config = discordSRV.config();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("observing", observing);
+        metrics.put("slowListenerThresholdMilliseconds", config != null ? config.debug.slowEventListenerThresholdMilliseconds : null);
+        metrics.put("listeners", listenerMetrics);
+        metrics.put("events", eventMetrics);
+        return metrics;
+    }
+
+    private static class DispatchTable {
+
+        private final EventListenerImpl[] listeners;
+        private final State<?>[] states;
+        private final ExecutionTimeHistogram executionTimes;
+
+        public DispatchTable(EventListenerImpl[] listeners, State<?>[] states, ExecutionTimeHistogram executionTimes) {
+            this.listeners = listeners;
+            this.states = states;
+            this.executionTimes = executionTimes;
+        }
+
+        public EventListenerImpl[] listeners() {
+            return listeners;
+        }
+
+        public State<?>[] states() {
+            return states;
+        }
+
+        public ExecutionTimeHistogram executionTimes() {
+            return executionTimes;
+        }
     }
 
     private static class State<T> {
@@ -33,14 +33,26 @@ public class EventListenerImpl implements EventListener {
     private final Class<?> eventClass;
     private final Method method;
     private final MethodHandle handle;
-
-    public EventListenerImpl(Object listener, Class<?> listenerClass, Subscribe annotation, Class<?> eventClass, Method method, MethodHandle handle) {
+    private final EventListenerInvoker invoker;
+    private final ExecutionTimeHistogram executionTimes = new ExecutionTimeHistogram();
+    private volatile long lastSlowWarning = 0;
+
+    public EventListenerImpl(
+            Object listener,
+            Class<?> listenerClass,
+            Subscribe annotation,
+            Class<?> eventClass,
+            Method method,
+            MethodHandle handle,
+            EventListenerInvoker invoker
+    ) {
         this.listener = listener;
         this.listenerClass = listenerClass;
         this.annotation = annotation;
         this.eventClass = eventClass;
         this.method = method;
         this.handle = handle;
+        this.invoker = invoker;
     }
 
     public boolean isIgnoringCancelled() {
@@ -82,6 +94,22 @@ public class EventListenerImpl implements EventListener {
         return handle;
     }
 
+    public EventListenerInvoker invoker() {
+        return invoker;
+    }
+
+    public ExecutionTimeHistogram executionTimes() {
+        return executionTimes;
+    }
+
+    public long lastSlowWarning() {
+        return lastSlowWarning;
+    }
+
+    public void setLastSlowWarning(long lastSlowWarning) {
+        this.lastSlowWarning = lastSlowWarning;
+    }
+
     @Override
     public String toString() {
         return "EventListenerImpl{" + className() + "#" + methodName() + "}";
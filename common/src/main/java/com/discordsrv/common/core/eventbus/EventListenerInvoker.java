@@ -0,0 +1,79 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2025 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.core.eventbus;
+
+import java.lang.invoke.*;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Invokes a single {@link com.discordsrv.api.eventbus.Subscribe} method.
+ * <p>
+ * When possible the invoker is generated with {@link LambdaMetafactory}, making each invocation a direct call to the listener method.
+ * Otherwise, the invoker falls back to calling the listener method's {@link MethodHandle}.
+ */
+@FunctionalInterface
+public interface EventListenerInvoker {
+
+    void invoke(Object listener, Object event) throws Throwable;
+
+    static EventListenerInvoker create(MethodHandles.Lookup lookup, Class<?> listenerClass, Method method, MethodHandle handle) {
+        if (canGenerate(lookup.lookupClass().getClassLoader(), listenerClass, method)) {
+            try {
+                CallSite callSite = LambdaMetafactory.metafactory(
+                        lookup,
+                        "invoke",
+                        MethodType.methodType(EventListenerInvoker.class),
+                        MethodType.methodType(void.class, Object.class, Object.class),
+                        handle,
+                        handle.type()
+                );
+                return (EventListenerInvoker) callSite.getTarget().invokeExact();
+            } catch (Throwable ignored) {
+                // Fall back to the MethodHandle
+            }
+        }
+
+        return (listener, event) -> handle.invoke(listener, event);
+    }
+
+    /**
+     * The generated class lives in the lookup class' class loader, so all the classes it references need to be public and visible from there.
+     * This isn't the case for listeners from other plugins or relocated classes, which use the {@link MethodHandle} instead.
+     */
+    static boolean canGenerate(ClassLoader classLoader, Class<?> listenerClass, Method method) {
+        Class<?> declaringClass = method.getDeclaringClass();
+        Class<?> eventClass = method.getParameterTypes()[0];
+        return isAccessible(classLoader, listenerClass)
+                && isAccessible(classLoader, declaringClass)
+                && isAccessible(classLoader, eventClass);
+    }
+
+    static boolean isAccessible(ClassLoader classLoader, Class<?> clazz) {
+        if (!Modifier.isPublic(clazz.getModifiers())) {
+            return false;
+        }
+
+        try {
+            return Class.forName(clazz.getName(), false, classLoader) == clazz;
+        } catch (ClassNotFoundException | LinkageError ignored) {
+            return false;
+        }
+    }
+}
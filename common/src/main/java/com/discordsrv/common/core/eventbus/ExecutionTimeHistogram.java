@@ -0,0 +1,135 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2025 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.core.eventbus;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A preallocated lock-free histogram of execution times, using power of two nanosecond buckets.
+ * Buckets are striped {@link LongAdder}s, so concurrent recording from multiple threads doesn't contend.
+ * Percentiles are accurate to the upper bound of the bucket they fall into.
+ */
+public class ExecutionTimeHistogram {
+
+    private static final int BUCKETS = Long.SIZE;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final AtomicLong max = new AtomicLong();
+
+    public ExecutionTimeHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+
+        buckets[bucket(nanos)].increment();
+
+        long currentMax;
+        while (nanos > (currentMax = max.get())) {
+            if (max.compareAndSet(currentMax, nanos)) {
+                break;
+            }
+        }
+    }
+
+    private static int bucket(long nanos) {
+        return BUCKETS - 1 - Long.numberOfLeadingZeros(nanos | 1);
+    }
+
+    public long count() {
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            count += buckets[i].sum();
+        }
+        return count;
+    }
+
+    public long maxNanos() {
+        return max.get();
+    }
+
+    /**
+     * Gets the upper bound of the bucket the given percentile falls into.
+     * @param percentile the percentile, between {@code 0} and {@code 1}
+     * @return the percentile in nanoseconds, or {@code 0} if nothing has been recorded
+     */
+    public long percentileNanos(double percentile) {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long target = Math.max(1, (long) Math.ceil(total * percentile));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                long upperBound = i == BUCKETS - 1 ? Long.MAX_VALUE : (1L << (i + 1)) - 1;
+                return Math.min(upperBound, maxNanos());
+            }
+        }
+        return maxNanos();
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i].reset();
+        }
+        max.set(0);
+    }
+
+    /**
+     * Creates a snapshot of this histogram for debug reports, times are in microseconds.
+     * @return the count, 50th & 99th percentiles and max execution time
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("count", count());
+        values.put("p50Micros", TimeUnit.NANOSECONDS.toMicros(percentileNanos(0.5D)));
+        values.put("p99Micros", TimeUnit.NANOSECONDS.toMicros(percentileNanos(0.99D)));
+        values.put("maxMicros", TimeUnit.NANOSECONDS.toMicros(maxNanos()));
+        return values;
+    }
+
+    @Override
+    public String toString() {
+        return "count=" + count()
+                + ", p50=" + formatNanos(percentileNanos(0.5D))
+                + ", p99=" + formatNanos(percentileNanos(0.99D))
+                + ", max=" + formatNanos(maxNanos());
+    }
+
+    private static String formatNanos(long nanos) {
+        return String.format("%.3fms", nanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+    }
+}
@@ -20,6 +20,7 @@ package com.discordsrv.common.core.placeholder;
 
 import com.discordsrv.api.events.placeholder.PlaceholderLookupEvent;
 import com.discordsrv.api.placeholder.PlaceholderLookupResult;
+import com.discordsrv.api.placeholder.PlaceholderRenderScope;
 import com.discordsrv.api.placeholder.PlaceholderService;
 import com.discordsrv.api.placeholder.annotation.Placeholder;
 import com.discordsrv.api.placeholder.annotation.PlaceholderPrefix;
@@ -30,6 +31,7 @@ import com.discordsrv.common.DiscordSRV;
 import com.discordsrv.common.core.logging.Logger;
 import com.discordsrv.common.core.logging.NamedLogger;
 import com.discordsrv.common.core.placeholder.provider.AnnotationPlaceholderProvider;
+import com.discordsrv.common.core.placeholder.provider.PlaceholderProviderIndex;
 import com.discordsrv.common.helper.Timeout;
 import com.github.benmanes.caffeine.cache.CacheLoader;
 import com.github.benmanes.caffeine.cache.LoadingCache;
@@ -45,6 +47,7 @@ import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -53,7 +56,8 @@ public class PlaceholderServiceImpl implements PlaceholderService {
 
     private final DiscordSRV discordSRV;
     private final Logger logger;
-    private final LoadingCache<Class<?>, Set<PlaceholderProvider>> classProviders;
+    private final LoadingCache<Class<?>, PlaceholderProviderIndex> classProviders;
+    private final LoadingCache<String, PlaceholderTemplate> templates;
     private final Set<PlaceholderResultMapper> mappers = new CopyOnWriteArraySet<>();
     private final Set<Object> globalContext = new CopyOnWriteArraySet<>();
     private final Timeout errorLogTimeout = new Timeout(Duration.ofSeconds(20));
@@ -65,6 +69,10 @@ public class PlaceholderServiceImpl implements PlaceholderService {
                 .expireAfterAccess(10, TimeUnit.MINUTES)
                 .expireAfterWrite(15, TimeUnit.MINUTES)
                 .build(new ClassProviderLoader());
+        this.templates = discordSRV.caffeineBuilder()
+                .weakKeys() // Compare format strings by identity
+                .expireAfterAccess(10, TimeUnit.MINUTES)
+                .build(PlaceholderTemplate::compile);
     }
 
     public void addGlobalContext(@NotNull Object context) {
@@ -91,15 +99,46 @@ public class PlaceholderServiceImpl implements PlaceholderService {
         Set<Object> contexts = new HashSet<>(lookupContexts);
         contexts.addAll(globalContext);
         contexts.removeIf(Objects::isNull);
+
+        PlaceholderRenderScope scope = null;
         for (Object context : contexts) {
+            if (context instanceof PlaceholderRenderScope) {
+                scope = (PlaceholderRenderScope) context;
+                continue;
+            }
             if (context instanceof PlaceholderProvider) {
+                // Context providers are specific to the lookup, so they take precedence over remembered results
                 PlaceholderLookupResult result = ((PlaceholderProvider) context).lookup(placeholder, contexts);
                 if (result.getType() != PlaceholderLookupResult.Type.UNKNOWN_PLACEHOLDER) {
                     return result;
                 }
             }
+        }
+
+        if (scope == null) {
+            return lookupFromProviders(placeholder, contexts, null);
+        }
 
-            Set<PlaceholderProvider> providers = classProviders
+        PlaceholderLookupResult result = scope.get(placeholder, contexts);
+        if (result != null) {
+            return result;
+        }
+
+        AtomicBoolean cacheable = new AtomicBoolean(true);
+        result = lookupFromProviders(placeholder, contexts, cacheable);
+        if (cacheable.get()) {
+            scope.put(placeholder, contexts, result);
+        }
+        return result;
+    }
+
+    private PlaceholderLookupResult lookupFromProviders(String placeholder, Set<Object> contexts, @Nullable AtomicBoolean cacheable) {
+        for (Object context : contexts) {
+            if (context instanceof PlaceholderRenderScope) {
+                continue;
+            }
+
+            PlaceholderProviderIndex providers = classProviders
                     .get(context instanceof Class
                          ? (Class<?>) context
                          : context.getClass());
@@ -107,7 +146,11 @@ public class PlaceholderServiceImpl implements PlaceholderService {
                 continue;
             }
 
-            for (PlaceholderProvider provider : providers) {
+            for (AnnotationPlaceholderProvider provider : providers.candidates(placeholder)) {
+                if (cacheable != null && !provider.isCacheable()) {
+                    cacheable.set(false);
+                }
+
                 PlaceholderLookupResult result = provider.lookup(placeholder, contexts);
                 if (result.getType() != PlaceholderLookupResult.Type.UNKNOWN_PLACEHOLDER) {
                     return result;
@@ -142,19 +185,28 @@ public class PlaceholderServiceImpl implements PlaceholderService {
 
     @Override
     public String replacePlaceholders(@NotNull String input, @NotNull Set<Object> context) {
-        return getReplacement(PATTERN, input, context);
+        PlaceholderTemplate template = templates.get(input);
+        if (template == null || template.isLiteral()) {
+            return input;
+        }
+
+        StringBuilder builder = new StringBuilder(input.length());
+        render(template, context, builder);
+        return builder.toString();
     }
 
-    private String getReplacement(Pattern pattern, String input, Set<Object> context) {
-        Matcher matcher = pattern.matcher(input);
+    private void render(PlaceholderTemplate template, Set<Object> context, StringBuilder builder) {
+        for (PlaceholderTemplate.Segment segment : template.segments()) {
+            if (segment instanceof PlaceholderTemplate.Literal) {
+                builder.append(((PlaceholderTemplate.Literal) segment).text());
+                continue;
+            }
 
-        String output = input;
-        while (matcher.find()) {
-            String placeholder = getPlaceholder(matcher);
-            List<PlaceholderLookupResult> results = resolve(placeholder, context);
-            output = updateContent(results, placeholder, matcher, output);
+            PlaceholderTemplate.Node node = (PlaceholderTemplate.Node) segment;
+            List<PlaceholderLookupResult> results = resolve(node, context);
+            Object representation = getResultRepresentation(results, node);
+            builder.append(getResultAsCharSequence(representation));
         }
-        return output;
     }
 
     @Override
@@ -163,20 +215,13 @@ public class PlaceholderServiceImpl implements PlaceholderService {
             throw new IllegalStateException("Matcher must have at least 3 groups");
         }
 
-        String placeholder = getPlaceholder(matcher);
-        List<PlaceholderLookupResult> results = resolve(placeholder, context);
-        return getResultRepresentation(results, placeholder, matcher);
+        PlaceholderTemplate.Node node = PlaceholderTemplate.Node.of(matcher.group(1), getPlaceholder(matcher), matcher.group(3));
+        List<PlaceholderLookupResult> results = resolve(node, context);
+        return getResultRepresentation(results, node);
     }
 
     private String getPlaceholder(Matcher matcher) {
-        String placeholder = matcher.group(2);
-        Pattern pattern = matcher.pattern();
-        if (PATTERN.equals(pattern)) { // Remove escapes for %
-            placeholder = placeholder.replace("\\%", "%");
-        } else if (RECURSIVE_PATTERN.equals(pattern)) { // Remove escapes for { and }
-            placeholder = placeholder.replaceAll("\\\\([{}])", "$1");
-        }
-        return placeholder;
+        return PlaceholderTemplate.unescape(matcher.pattern(), matcher.group(2));
     }
 
     @Override
@@ -204,31 +249,25 @@ public class PlaceholderServiceImpl implements PlaceholderService {
         return output instanceof CharSequence ? (CharSequence) output : String.valueOf(output != null ? output : result);
     }
 
-    private List<PlaceholderLookupResult> resolve(String placeholder, Set<Object> context) {
-        // Recursive
-        placeholder = getReplacement(RECURSIVE_PATTERN, placeholder, context);
+    private List<PlaceholderLookupResult> resolve(PlaceholderTemplate.Node node, Set<Object> context) {
+        String[] alternatives = node.alternatives();
+        if (alternatives == null) {
+            // Recursive
+            StringBuilder builder = new StringBuilder();
+            render(node.key(), context, builder);
+            alternatives = PlaceholderTemplate.ALTERNATIVE_SEPARATOR.split(builder);
+        }
 
-        List<PlaceholderLookupResult> results = new ArrayList<>();
-        for (String part : placeholder.split("(?<!\\\\)\\|")) {
-            results.add(lookupPlaceholder(part, context));
+        List<PlaceholderLookupResult> results = new ArrayList<>(alternatives.length);
+        for (String alternative : alternatives) {
+            results.add(lookupPlaceholder(alternative, context));
         }
 
         return results;
     }
 
-    private String updateContent(List<PlaceholderLookupResult> results, String placeholder, Matcher matcher, String input) {
-        Object representation = getResultRepresentation(results, placeholder, matcher);
-
-        CharSequence output = getResultAsCharSequence(representation);
-        return Pattern.compile(
-                matcher.group(1) + placeholder + matcher.group(3),
-                Pattern.LITERAL
-        )
-                .matcher(input)
-                .replaceFirst(Matcher.quoteReplacement(output.toString()));
-    }
-
-    private Object getResultRepresentation(List<PlaceholderLookupResult> results, String placeholder, Matcher matcher) {
+    private Object getResultRepresentation(List<PlaceholderLookupResult> results, PlaceholderTemplate.Node node) {
+        String placeholder = node.placeholder();
         Map<String, AtomicInteger> preventInfiniteLoop = new HashMap<>();
 
         Object best = null;
@@ -286,13 +325,13 @@ public class PlaceholderServiceImpl implements PlaceholderService {
 
         return best != null
                ? best
-               : matcher.group(1) + placeholder + matcher.group(3);
+               : node.original();
     }
 
-    private static class ClassProviderLoader implements CacheLoader<Class<?>, Set<PlaceholderProvider>> {
+    private static class ClassProviderLoader implements CacheLoader<Class<?>, PlaceholderProviderIndex> {
 
-        private Set<PlaceholderProvider> loadProviders(Class<?> clazz, PlaceholderPrefix prefix) {
-            Set<PlaceholderProvider> providers = new LinkedHashSet<>();
+        private Set<AnnotationPlaceholderProvider> loadProviders(Class<?> clazz, PlaceholderPrefix prefix) {
+            Set<AnnotationPlaceholderProvider> providers = new LinkedHashSet<>();
 
             Class<?> currentClass = clazz;
             while (currentClass != null) {
@@ -348,8 +387,8 @@ public class PlaceholderServiceImpl implements PlaceholderService {
         }
 
         @Override
-        public @Nullable Set<PlaceholderProvider> load(@NotNull Class<?> key) {
-            return loadProviders(key, null);
+        public @Nullable PlaceholderProviderIndex load(@NotNull Class<?> key) {
+            return new PlaceholderProviderIndex(loadProviders(key, null));
         }
     }
 }
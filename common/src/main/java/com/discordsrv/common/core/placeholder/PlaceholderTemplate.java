@@ -0,0 +1,180 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2025 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.core.placeholder;
+
+import com.discordsrv.api.placeholder.PlaceholderService;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A format string parsed into literal text and placeholders, so that it only has to be parsed once.
+ * Placeholders are found with {@link PlaceholderService#PATTERN}, recursive placeholders within them with {@link PlaceholderService#RECURSIVE_PATTERN}.
+ */
+public class PlaceholderTemplate {
+
+    /**
+     * The separator for placeholder alternatives ({@code %first|second%}).
+     */
+    public static final Pattern ALTERNATIVE_SEPARATOR = Pattern.compile("(?<!\\\\)\\|");
+
+    public static PlaceholderTemplate compile(@NotNull String input) {
+        return compile(PlaceholderService.PATTERN, input);
+    }
+
+    public static PlaceholderTemplate compile(@NotNull Pattern pattern, @NotNull String input) {
+        Matcher matcher = pattern.matcher(input);
+
+        List<Segment> segments = new ArrayList<>();
+        int lastEnd = 0;
+        while (matcher.find()) {
+            if (matcher.start() > lastEnd) {
+                segments.add(new Literal(input.substring(lastEnd, matcher.start())));
+            }
+
+            segments.add(Node.of(matcher.group(1), unescape(pattern, matcher.group(2)), matcher.group(3)));
+            lastEnd = matcher.end();
+        }
+        if (lastEnd < input.length()) {
+            segments.add(new Literal(input.substring(lastEnd)));
+        }
+
+        return new PlaceholderTemplate(segments);
+    }
+
+    public static String unescape(Pattern pattern, String placeholder) {
+        if (PlaceholderService.PATTERN.equals(pattern)) { // Remove escapes for %
+            return placeholder.replace("\\%", "%");
+        } else if (PlaceholderService.RECURSIVE_PATTERN.equals(pattern)) { // Remove escapes for { and }
+            return placeholder.replaceAll("\\\\([{}])", "$1");
+        }
+        return placeholder;
+    }
+
+    private final List<Segment> segments;
+    private final boolean literal;
+
+    private PlaceholderTemplate(List<Segment> segments) {
+        this.segments = Collections.unmodifiableList(segments);
+
+        boolean literal = true;
+        for (Segment segment : segments) {
+            if (segment instanceof Node) {
+                literal = false;
+                break;
+            }
+        }
+        this.literal = literal;
+    }
+
+    public List<Segment> segments() {
+        return segments;
+    }
+
+    /**
+     * If this template doesn't contain any placeholders.
+     * @return {@code true} if this template only consists of literal text
+     */
+    public boolean isLiteral() {
+        return literal;
+    }
+
+    public interface Segment {}
+
+    public static class Literal implements Segment {
+
+        private final String text;
+
+        public Literal(String text) {
+            this.text = text;
+        }
+
+        public String text() {
+            return text;
+        }
+    }
+
+    public static class Node implements Segment {
+
+        public static Node of(String opening, String placeholder, String closing) {
+            PlaceholderTemplate key = compile(PlaceholderService.RECURSIVE_PATTERN, placeholder);
+            String[] alternatives = key.isLiteral() ? ALTERNATIVE_SEPARATOR.split(placeholder) : null;
+            return new Node(opening, placeholder, closing, key, alternatives);
+        }
+
+        private final String opening;
+        private final String placeholder;
+        private final String closing;
+        private final PlaceholderTemplate key;
+        private final String[] alternatives;
+
+        private Node(String opening, String placeholder, String closing, PlaceholderTemplate key, String[] alternatives) {
+            this.opening = opening;
+            this.placeholder = placeholder;
+            this.closing = closing;
+            this.key = key;
+            this.alternatives = alternatives;
+        }
+
+        public String opening() {
+            return opening;
+        }
+
+        /**
+         * The placeholder without the opening and closing characters, recursive placeholders have not been replaced.
+         * @return the placeholder
+         */
+        public String placeholder() {
+            return placeholder;
+        }
+
+        public String closing() {
+            return closing;
+        }
+
+        /**
+         * The placeholder as a template of recursive placeholders.
+         * @return the template for the placeholder
+         */
+        public PlaceholderTemplate key() {
+            return key;
+        }
+
+        /**
+         * The alternatives for this placeholder, only available if the placeholder doesn't contain recursive placeholders.
+         * @return the alternatives or {@code null} if they need to be determined after replacing recursive placeholders
+         */
+        public String @Nullable [] alternatives() {
+            return alternatives;
+        }
+
+        /**
+         * The original representation of this placeholder, used when the placeholder cannot be resolved.
+         * @return the placeholder with its opening and closing characters
+         */
+        public String original() {
+            return opening + placeholder + closing;
+        }
+    }
+}
@@ -23,12 +23,14 @@ import com.discordsrv.api.placeholder.annotation.Placeholder;
 import com.discordsrv.api.placeholder.annotation.PlaceholderPrefix;
 import com.discordsrv.api.placeholder.annotation.PlaceholderRemainder;
 import com.discordsrv.api.placeholder.provider.PlaceholderProvider;
-import com.discordsrv.common.core.placeholder.provider.util.PlaceholderMethodUtil;
+import com.discordsrv.common.core.placeholder.provider.util.PlaceholderAccessor;
 import org.jetbrains.annotations.NotNull;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
-import java.util.HashSet;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 import java.util.Set;
 
 public class AnnotationPlaceholderProvider implements PlaceholderProvider {
@@ -39,8 +41,7 @@ public class AnnotationPlaceholderProvider implements PlaceholderProvider {
     private final String checkString;
 
     private final Class<?> type;
-    private final Method method;
-    private final Field field;
+    private final PlaceholderAccessor accessor;
 
     public AnnotationPlaceholderProvider(Placeholder annotation, PlaceholderPrefix prefixAnnotation, PlaceholderRemainder remainderAnnotation, Class<?> type, Method method) {
         this(annotation, prefixAnnotation, remainderAnnotation, type, method, null);
@@ -57,8 +58,39 @@ public class AnnotationPlaceholderProvider implements PlaceholderProvider {
         this.checkString = annotationPlaceholder + (remainderAnnotation != null && !remainderAnnotation.supportsNoValue() ? ":" : "");
 
         this.type = type;
-        this.method = method;
-        this.field = field;
+        this.accessor = field != null ? PlaceholderAccessor.forField(field) : PlaceholderAccessor.forMethod(method);
+    }
+
+    /**
+     * The placeholder this provider provides, including the prefix.
+     * @return the placeholder
+     */
+    public String placeholder() {
+        return annotationPlaceholder;
+    }
+
+    /**
+     * The string placeholders are checked against, with {@link #isStartsWith()} or equality.
+     * @return the check string
+     */
+    public String checkString() {
+        return checkString;
+    }
+
+    /**
+     * If this provider matches placeholders starting with {@link #checkString()}, instead of only exact matches.
+     * @return {@code true} if this provider provides placeholders with a remainder or relookups
+     */
+    public boolean isStartsWith() {
+        return startsWith;
+    }
+
+    /**
+     * If results from this provider may be remembered by a {@link com.discordsrv.api.placeholder.PlaceholderRenderScope}.
+     * @return {@link Placeholder#cacheable()}
+     */
+    public boolean isCacheable() {
+        return annotation.cacheable();
     }
 
     @Override
@@ -88,12 +120,7 @@ public class AnnotationPlaceholderProvider implements PlaceholderProvider {
 
         Object result;
         try {
-            if (field != null) {
-                result = field.get(instance);
-            } else {
-                assert method != null;
-                result = PlaceholderMethodUtil.lookup(method, instance, context, remainder);
-            }
+            result = accessor.access(instance, context, remainder);
         } catch (Throwable t) {
             return PlaceholderLookupResult.lookupFailed(t);
         }
@@ -105,12 +132,60 @@ public class AnnotationPlaceholderProvider implements PlaceholderProvider {
         String reLookup = annotation.relookup();
         Object rawResult;
         if (!reLookup.isEmpty() && !remainder.isEmpty() && (rawResult = lookupResult.getValue()) != null) {
-            Set<Object> newContext = new HashSet<>(context);
-            newContext.add(rawResult);
+            Set<Object> newContext = context.contains(rawResult) ? context : new ExtendedContext(context, rawResult);
             String newPlaceholder = reLookup + remainder;
             return PlaceholderLookupResult.newLookup(newPlaceholder, newContext);
         }
 
         return lookupResult;
     }
+
+    /**
+     * Read-only view of a lookup context with one additional object, the lookup copies the context anyway.
+     */
+    private static class ExtendedContext extends AbstractSet<Object> {
+
+        private final Set<Object> context;
+        private final Object additional;
+
+        private ExtendedContext(Set<Object> context, Object additional) {
+            this.context = context;
+            this.additional = additional;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return additional.equals(o) || context.contains(o);
+        }
+
+        @Override
+        public @NotNull Iterator<Object> iterator() {
+            Iterator<Object> contextIterator = context.iterator();
+            return new Iterator<Object>() {
+                private boolean additionalReturned = false;
+
+                @Override
+                public boolean hasNext() {
+                    return !additionalReturned || contextIterator.hasNext();
+                }
+
+                @Override
+                public Object next() {
+                    if (!additionalReturned) {
+                        additionalReturned = true;
+                        return additional;
+                    }
+                    if (!contextIterator.hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return contextIterator.next();
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return context.size() + 1;
+        }
+    }
 }
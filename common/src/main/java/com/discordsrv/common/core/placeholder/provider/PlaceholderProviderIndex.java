@@ -0,0 +1,148 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2025 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.core.placeholder.provider;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+/**
+ * An index of the {@link AnnotationPlaceholderProvider}s of a single class, keyed by the placeholders they provide.
+ * Finding the candidates for a placeholder walks a trie of the placeholders, taking time proportional to the length of the placeholder,
+ * regardless of how many providers the class has. Candidates are returned in the order the providers were added in.
+ */
+public class PlaceholderProviderIndex {
+
+    private final List<AnnotationPlaceholderProvider> providers;
+    private final TrieNode root;
+
+    public PlaceholderProviderIndex(@NotNull Collection<AnnotationPlaceholderProvider> providers) {
+        this.providers = Collections.unmodifiableList(new ArrayList<>(providers));
+
+        MutableNode root = new MutableNode();
+        int ordinal = 0;
+        for (AnnotationPlaceholderProvider provider : this.providers) {
+            int currentOrdinal = ordinal++;
+            if (provider.placeholder().isEmpty()) {
+                // Never matches anything
+                continue;
+            }
+
+            String checkString = provider.checkString();
+            MutableNode node = root;
+            for (int i = 0; i < checkString.length(); i++) {
+                node = node.children.computeIfAbsent(checkString.charAt(i), key -> new MutableNode());
+            }
+            node.entries.add(new Entry(currentOrdinal, provider));
+        }
+        this.root = root.freeze();
+    }
+
+    public List<AnnotationPlaceholderProvider> providers() {
+        return providers;
+    }
+
+    /**
+     * Gets the providers that may provide the given placeholder.
+     * @param placeholder the placeholder
+     * @return the providers that might provide the placeholder, in the order they were added in
+     */
+    public List<AnnotationPlaceholderProvider> candidates(@NotNull String placeholder) {
+        List<Entry> entries = null;
+
+        TrieNode node = root;
+        int length = placeholder.length();
+        for (int i = 0; ; i++) {
+            for (Entry entry : node.entries) {
+                // Prefix providers match anything starting with the check string, the rest only match exactly
+                if (entry.provider.isStartsWith() || i == length) {
+                    if (entries == null) {
+                        entries = new ArrayList<>(2);
+                    }
+                    entries.add(entry);
+                }
+            }
+
+            if (i == length || (node = node.child(placeholder.charAt(i))) == null) {
+                break;
+            }
+        }
+
+        if (entries == null) {
+            return Collections.emptyList();
+        }
+        if (entries.size() > 1) {
+            entries.sort(Comparator.comparingInt(entry -> entry.ordinal));
+        }
+
+        List<AnnotationPlaceholderProvider> candidates = new ArrayList<>(entries.size());
+        for (Entry entry : entries) {
+            candidates.add(entry.provider);
+        }
+        return candidates;
+    }
+
+    private static class Entry {
+
+        private final int ordinal;
+        private final AnnotationPlaceholderProvider provider;
+
+        private Entry(int ordinal, AnnotationPlaceholderProvider provider) {
+            this.ordinal = ordinal;
+            this.provider = provider;
+        }
+    }
+
+    private static class MutableNode {
+
+        private final Map<Character, MutableNode> children = new TreeMap<>();
+        private final List<Entry> entries = new ArrayList<>(1);
+
+        private TrieNode freeze() {
+            char[] keys = new char[children.size()];
+            TrieNode[] nodes = new TrieNode[children.size()];
+
+            int i = 0;
+            for (Map.Entry<Character, MutableNode> child : children.entrySet()) {
+                keys[i] = child.getKey();
+                nodes[i] = child.getValue().freeze();
+                i++;
+            }
+            return new TrieNode(keys, nodes, entries.toArray(new Entry[0]));
+        }
+    }
+
+    private static class TrieNode {
+
+        private final char[] keys;
+        private final TrieNode[] children;
+        private final Entry[] entries;
+
+        private TrieNode(char[] keys, TrieNode[] children, Entry[] entries) {
+            this.keys = keys;
+            this.children = children;
+            this.entries = entries;
+        }
+
+        private TrieNode child(char key) {
+            int index = Arrays.binarySearch(keys, key);
+            return index >= 0 ? children[index] : null;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2025 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.core.placeholder.provider.util;
+
+import com.discordsrv.api.placeholder.PlaceholderLookupResult;
+import com.discordsrv.api.placeholder.annotation.PlaceholderRemainder;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.util.Set;
+
+/**
+ * Pre-bound accessor for a placeholder field or method, resolved once when the provider is created.
+ * Method parameters are bound through a plan computed from the method signature, so lookups do not need to inspect
+ * parameter annotations or go through {@link Method#invoke(Object, Object...)}.
+ */
+public final class PlaceholderAccessor {
+
+    private static final MethodType FIELD_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType METHOD_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    public static PlaceholderAccessor forField(Field field) {
+        MethodHandle handle = null;
+        try {
+            handle = LOOKUP.unreflectGetter(field);
+            if (Modifier.isStatic(field.getModifiers())) {
+                handle = MethodHandles.dropArguments(handle, 0, Object.class);
+            }
+            handle = handle.asType(FIELD_TYPE);
+        } catch (IllegalAccessException ignored) {
+            // Fall back to reflection, which will report the access failure on lookup
+        }
+        return new PlaceholderAccessor(field, null, handle, new ParameterBinding[0], false);
+    }
+
+    public static PlaceholderAccessor forMethod(Method method) {
+        Parameter[] parameters = method.getParameters();
+        ParameterBinding[] bindings = new ParameterBinding[parameters.length];
+        boolean remainder = false;
+        for (int i = 0; i < parameters.length; i++) {
+            Parameter parameter = parameters[i];
+            PlaceholderRemainder remainderAnnotation = parameter.getAnnotation(PlaceholderRemainder.class);
+            bindings[i] = new ParameterBinding(parameter.getType(), remainderAnnotation);
+            remainder |= remainderAnnotation != null;
+        }
+
+        MethodHandle handle = null;
+        try {
+            handle = LOOKUP.unreflect(method);
+            if (Modifier.isStatic(method.getModifiers())) {
+                handle = MethodHandles.dropArguments(handle, 0, Object.class);
+            }
+            handle = handle.asSpreader(Object[].class, parameters.length).asType(METHOD_TYPE);
+        } catch (IllegalAccessException ignored) {
+            // Fall back to reflection, which will report the access failure on lookup
+        }
+        return new PlaceholderAccessor(null, method, handle, bindings, remainder);
+    }
+
+    private final Field field;
+    private final Method method;
+    private final MethodHandle handle;
+    private final ParameterBinding[] bindings;
+    private final boolean hasRemainder;
+
+    private PlaceholderAccessor(Field field, Method method, MethodHandle handle, ParameterBinding[] bindings, boolean hasRemainder) {
+        this.field = field;
+        this.method = method;
+        this.handle = handle;
+        this.bindings = bindings;
+        this.hasRemainder = hasRemainder;
+    }
+
+    /**
+     * Gets the value of the field or invokes the method, binding the parameters from the remainder and context.
+     * @param instance the instance to access, {@code null} for static members
+     * @param context the lookup context
+     * @param remainder the remainder of the placeholder
+     * @return the result, {@code null} if a parameter could not be bound
+     * or {@link PlaceholderLookupResult#UNKNOWN_PLACEHOLDER} if a required remainder is missing
+     * @throws Throwable if accessing the field or method fails
+     */
+    public Object access(Object instance, Set<Object> context, String remainder) throws Throwable {
+        if (field != null) {
+            return handle != null ? (Object) handle.invokeExact(instance) : field.get(instance);
+        }
+
+        Object[] parameterValues = new Object[bindings.length];
+        int unbound = bindings.length;
+
+        if (hasRemainder) {
+            String remainderValue = getParameterValueFromRemainder(remainder);
+            for (int i = 0; i < bindings.length; i++) {
+                ParameterBinding binding = bindings[i];
+                if (!binding.remainder) {
+                    continue;
+                }
+
+                unbound--;
+                if (!binding.remainderString) {
+                    continue;
+                }
+
+                String parameterValue = remainderValue;
+                if (parameterValue == null) {
+                    if (!binding.supportsNoValue) {
+                        return PlaceholderLookupResult.UNKNOWN_PLACEHOLDER;
+                    }
+                    parameterValue = "";
+                }
+                parameterValues[i] = parameterValue;
+            }
+        }
+
+        if (unbound > 0) {
+            boolean[] bound = new boolean[bindings.length];
+            for (Object o : context) {
+                Class<?> objectType = o.getClass();
+                for (int i = 0; i < bindings.length; i++) {
+                    ParameterBinding binding = bindings[i];
+                    if (binding.remainder || bound[i] || !binding.type.isAssignableFrom(objectType)) {
+                        continue;
+                    }
+
+                    bound[i] = true;
+                    parameterValues[i] = o;
+                    unbound--;
+                }
+                if (unbound == 0) {
+                    break;
+                }
+            }
+            if (unbound > 0) {
+                return null;
+            }
+        }
+
+        return handle != null
+               ? (Object) handle.invokeExact(instance, parameterValues)
+               : method.invoke(instance, parameterValues);
+    }
+
+    private static @Nullable String getParameterValueFromRemainder(String remainder) {
+        if (!remainder.startsWith(":")) {
+            // Missing semicolon, empty value
+            return null;
+        }
+
+        String parameterValue = remainder.substring(1);
+        if (parameterValue.startsWith("'") && parameterValue.endsWith("'")) {
+            parameterValue = parameterValue.substring(1, parameterValue.length() - 1);
+        }
+        return parameterValue;
+    }
+
+    private static class ParameterBinding {
+
+        private final Class<?> type;
+        private final boolean remainder;
+        private final boolean remainderString;
+        private final boolean supportsNoValue;
+
+        private ParameterBinding(Class<?> type, PlaceholderRemainder remainderAnnotation) {
+            this.type = type;
+            this.remainder = remainderAnnotation != null;
+            this.remainderString = remainder && type.isAssignableFrom(String.class);
+            this.supportsNoValue = remainder && remainderAnnotation.supportsNoValue();
+        }
+    }
+}
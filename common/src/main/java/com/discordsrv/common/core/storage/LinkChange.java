@@ -0,0 +1,81 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2025 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.core.storage;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * A single linked account creation or removal, to be applied to a {@link Storage}.
+ */
+public class LinkChange {
+
+    public static LinkChange link(@NotNull UUID player, long userId) {
+        return new LinkChange(true, player, userId);
+    }
+
+    public static LinkChange unlink(@NotNull UUID player, long userId) {
+        return new LinkChange(false, player, userId);
+    }
+
+    private final boolean link;
+    private final UUID player;
+    private final long userId;
+
+    private LinkChange(boolean link, UUID player, long userId) {
+        this.link = link;
+        this.player = player;
+        this.userId = userId;
+    }
+
+    /**
+     * @return {@code true} if this change creates a link, {@code false} if it removes one
+     */
+    public boolean isLink() {
+        return link;
+    }
+
+    public UUID player() {
+        return player;
+    }
+
+    public long userId() {
+        return userId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        LinkChange that = (LinkChange) o;
+        return link == that.link && userId == that.userId && Objects.equals(player, that.player);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(link, player, userId);
+    }
+
+    @Override
+    public String toString() {
+        return "LinkChange{" + (link ? "link" : "unlink") + ",player=" + player + ",userId=" + Long.toUnsignedString(userId) + "}";
+    }
+}
@@ -24,11 +24,19 @@ import org.jetbrains.annotations.Blocking;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.UUID;
+import java.time.Duration;
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 @Blocking
 public interface Storage {
 
+    /**
+     * How long link changes are kept in the change log, see {@link #readLinkChanges(long, Consumer)}.
+     */
+    Duration LINK_CHANGE_RETENTION = Duration.ofDays(1);
+
     void initialize();
     void close();
 
@@ -38,16 +46,104 @@ public interface Storage {
     @Nullable
     UUID getPlayerUUID(long userId);
 
+    /**
+     * Gets the Discord user ids of the given players, players that aren't linked are not included in the result.
+     */
+    @NotNull
+    default Map<UUID, Long> getUserIds(@NotNull Collection<UUID> players) {
+        Map<UUID, Long> userIds = new HashMap<>(players.size());
+        for (UUID player : players) {
+            Long userId = getUserId(player);
+            if (userId != null) {
+                userIds.put(player, userId);
+            }
+        }
+        return userIds;
+    }
+
+    /**
+     * Gets the Player UUIDs of the given Discord users, users that aren't linked are not included in the result.
+     */
+    @NotNull
+    default Map<Long, UUID> getPlayerUUIDs(@NotNull Collection<Long> userIds) {
+        Map<Long, UUID> players = new HashMap<>(userIds.size());
+        for (Long userId : userIds) {
+            UUID player = getPlayerUUID(userId);
+            if (player != null) {
+                players.put(userId, player);
+            }
+        }
+        return players;
+    }
+
+    /**
+     * Reads linked accounts in the order they were created, starting after the given position.
+     * @param after the position returned by a previous call, or {@code 0} to read all linked accounts
+     * @param consumer the consumer for the Player UUIDs and Discord user ids
+     * @return the position to continue reading from later, to only read linked accounts created since
+     */
+    long readLinks(long after, @NotNull BiConsumer<UUID, Long> consumer);
+
+    /**
+     * Gets the current position of the link change log, which is shared by all servers using the same storage.
+     * @return the position to read changes after with {@link #readLinkChanges(long, Consumer)},
+     * or {@code -1} if this storage doesn't keep a change log
+     */
+    default long getLinkChangePosition() {
+        return -1;
+    }
+
+    /**
+     * Reads link and unlink changes made by any server using the same storage after the given position, in order.
+     * Changes older than {@link #LINK_CHANGE_RETENTION} may no longer be available.
+     * @param after the position from {@link #getLinkChangePosition()} or a previous call
+     * @param consumer the consumer for the changes
+     * @return the position to continue reading from later
+     */
+    default long readLinkChanges(long after, @NotNull Consumer<LinkChange> consumer) {
+        return after;
+    }
+
     void createLink(@NotNull UUID player, long userId);
     void removeLink(@NotNull UUID player, long userId);
 
+    /**
+     * Applies the given changes in order, in a single transaction if the storage supports it.
+     * Unlike {@link #createLink(UUID, long)} and {@link #removeLink(UUID, long)} applying a change that is already in effect is not an error,
+     * so the same changes can safely be applied again.
+     */
+    default void applyLinkChanges(@NotNull List<LinkChange> changes) {
+        for (LinkChange change : changes) {
+            UUID player = change.player();
+            long userId = change.userId();
+            if (change.isLink()) {
+                if (!Objects.equals(getUserId(player), userId)) {
+                    createLink(player, userId);
+                }
+            } else if (getUserId(player) != null) {
+                removeLink(player, userId);
+            }
+        }
+    }
+
     /**
      * Inserts the given code for the given player, removing any existing code if any, with a {@link LinkStore#LINKING_CODE_EXPIRY_TIME} expiry.
      */
     void storeLinkingCode(@NotNull UUID player, String username, String code);
+    /**
+     * Gets the player and username for the given code, if the code hasn't expired.
+     */
     Pair<UUID, String> getLinkingCode(String code);
     void removeLinkingCode(@NotNull UUID player);
 
+    /**
+     * Removes expired linking codes, storages that don't expire linking codes don't need to implement this.
+     * @return the amount of codes removed
+     */
+    default int removeExpiredLinkingCodes() {
+        return 0;
+    }
+
     int getLinkedAccountCount();
 
 }
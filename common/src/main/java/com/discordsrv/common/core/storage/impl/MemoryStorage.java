@@ -28,6 +28,7 @@ import org.jetbrains.annotations.Nullable;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
 
 public class MemoryStorage implements Storage {
 
@@ -56,6 +57,15 @@ public class MemoryStorage implements Storage {
         return linkedAccounts.getKey(userId);
     }
 
+    @Override
+    public long readLinks(long after, @NotNull BiConsumer<UUID, Long> consumer) {
+        if (after == 0) {
+            linkedAccounts.forEach(consumer);
+        }
+        // Links can only change through this instance, nothing to read later
+        return 1;
+    }
+
     @Override
     public void createLink(@NotNull UUID player, long userId) {
         linkedAccounts.put(player, userId);
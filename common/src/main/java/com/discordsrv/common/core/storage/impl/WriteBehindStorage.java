@@ -0,0 +1,411 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2025 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.core.storage.impl;
+
+import com.discordsrv.common.DiscordSRV;
+import com.discordsrv.common.core.logging.Logger;
+import com.discordsrv.common.core.logging.NamedLogger;
+import com.discordsrv.common.core.scheduler.Scheduler;
+import com.discordsrv.common.core.storage.LinkChange;
+import com.discordsrv.common.core.storage.Storage;
+import com.discordsrv.common.exception.StorageException;
+import com.discordsrv.common.helper.Timeout;
+import org.apache.commons.lang3.tuple.Pair;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ScheduledFuture;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * A {@link Storage} that applies linked account changes in memory and to a local journal immediately,
+ * writing them to the underlying storage in batches in the background.
+ * Changes that could not be written are replayed from the journal when the storage is initialized again.
+ */
+public class WriteBehindStorage implements Storage {
+
+    private static final String JOURNAL_FILE_NAME = "linked-accounts.journal";
+    private static final long UNLINKED_USER = -1L;
+    private static final UUID UNLINKED_UUID = new UUID(0, 0);
+
+    private final Scheduler scheduler;
+    private final Logger logger;
+    private final Storage storage;
+    private final Path journalPath;
+    private final Duration flushInterval;
+    private final Timeout failureLogTimeout = new Timeout(Duration.ofMinutes(1));
+
+    // Guarded by "pending"
+    private final List<LinkChange> pending = new ArrayList<>();
+    private final Map<UUID, Long> playerToUser = new HashMap<>();
+    private final Map<Long, UUID> userToPlayer = new HashMap<>();
+    private FileChannel journal;
+
+    private final Object flushLock = new Object();
+    private ScheduledFuture<?> flushFuture;
+
+    public WriteBehindStorage(DiscordSRV discordSRV, Storage storage, Duration flushInterval) {
+        this(
+                storage,
+                discordSRV.dataDirectory().resolve(JOURNAL_FILE_NAME),
+                flushInterval,
+                discordSRV.scheduler(),
+                new NamedLogger(discordSRV, "STORAGE")
+        );
+    }
+
+    public WriteBehindStorage(Storage storage, Path journalPath, Duration flushInterval, Scheduler scheduler, Logger logger) {
+        this.scheduler = scheduler;
+        this.logger = logger;
+        this.storage = storage;
+        this.journalPath = journalPath;
+        this.flushInterval = flushInterval;
+    }
+
+    @Override
+    public void initialize() {
+        storage.initialize();
+
+        List<LinkChange> journaled;
+        synchronized (pending) {
+            try {
+                journaled = readJournal();
+                for (LinkChange change : journaled) {
+                    pending.add(change);
+                    applyToOverlay(change);
+                }
+                // Rewritten without anything that couldn't be read, so new changes aren't appended to a partial line
+                compactJournal(journaled);
+            } catch (IOException e) {
+                throw new StorageException(e);
+            }
+        }
+
+        if (!journaled.isEmpty()) {
+            logger.info("Writing " + journaled.size() + " linked account change(s) from the journal to storage");
+            flushQuietly();
+        }
+
+        flushFuture = scheduler.runAtFixedRate(
+                () -> scheduler.run(this::flushQuietly),
+                flushInterval
+        );
+    }
+
+    @Override
+    public void close() {
+        if (flushFuture != null) {
+            flushFuture.cancel(false);
+        }
+
+        flushQuietly();
+        synchronized (pending) {
+            if (!pending.isEmpty()) {
+                logger.warning(pending.size() + " linked account change(s) could not be written to storage, they will be retried on the next startup");
+            }
+            try {
+                if (journal != null) {
+                    journal.close();
+                }
+            } catch (IOException e) {
+                logger.error("Failed to close linked account journal", e);
+            }
+        }
+
+        storage.close();
+    }
+
+    private List<LinkChange> readJournal() throws IOException {
+        if (!Files.exists(journalPath)) {
+            return Collections.emptyList();
+        }
+
+        String content = new String(Files.readAllBytes(journalPath), StandardCharsets.UTF_8);
+        List<LinkChange> changes = new ArrayList<>();
+        int lineStart = 0;
+        int lineEnd;
+        // Only complete lines, a line cut off by a crash could still parse (with a shorter user id)
+        while ((lineEnd = content.indexOf('\n', lineStart)) != -1) {
+            String line = content.substring(lineStart, lineEnd);
+            lineStart = lineEnd + 1;
+
+            String[] parts = line.split(" ");
+            if (parts.length != 3) {
+                continue;
+            }
+
+            try {
+                UUID player = UUID.fromString(parts[1]);
+                long userId = Long.parseUnsignedLong(parts[2]);
+                switch (parts[0]) {
+                    case "+":
+                        changes.add(LinkChange.link(player, userId));
+                        break;
+                    case "-":
+                        changes.add(LinkChange.unlink(player, userId));
+                        break;
+                }
+            } catch (IllegalArgumentException ignored) {}
+        }
+        return changes;
+    }
+
+    private FileChannel openJournal() throws IOException {
+        return FileChannel.open(journalPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private void writeJournal(FileChannel channel, List<LinkChange> changes) throws IOException {
+        StringBuilder builder = new StringBuilder();
+        for (LinkChange change : changes) {
+            builder.append(change.isLink() ? '+' : '-').append(' ')
+                    .append(change.player()).append(' ')
+                    .append(Long.toUnsignedString(change.userId())).append('\n');
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(builder.toString().getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        channel.force(false);
+    }
+
+    /**
+     * Replaces the journal with one containing only the given changes.
+     * The new journal is written to a temporary file first and moved over the old one,
+     * so the old journal stays intact if writing fails part way through.
+     */
+    private void compactJournal(List<LinkChange> changes) throws IOException {
+        Path tempPath = journalPath.resolveSibling(journalPath.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(
+                tempPath,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING
+        )) {
+            writeJournal(channel, changes);
+        }
+
+        if (journal != null) {
+            journal.close();
+        }
+        try {
+            Files.move(tempPath, journalPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            journal = openJournal();
+        }
+    }
+
+    private void applyToOverlay(LinkChange change) {
+        if (change.isLink()) {
+            playerToUser.put(change.player(), change.userId());
+            userToPlayer.put(change.userId(), change.player());
+        } else {
+            playerToUser.put(change.player(), UNLINKED_USER);
+            userToPlayer.put(change.userId(), UNLINKED_UUID);
+        }
+    }
+
+    /**
+     * Writes pending changes to the underlying storage.
+     * @throws StorageException if writing the changes fails, the changes will be retried
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            List<LinkChange> batch;
+            synchronized (pending) {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                batch = new ArrayList<>(pending);
+            }
+
+            storage.applyLinkChanges(batch);
+
+            synchronized (pending) {
+                pending.subList(0, batch.size()).clear();
+
+                playerToUser.clear();
+                userToPlayer.clear();
+                pending.forEach(this::applyToOverlay);
+
+                try {
+                    compactJournal(pending);
+                } catch (IOException e) {
+                    // Already written changes are safe to apply again
+                    logger.error("Failed to compact linked account journal", e);
+                }
+            }
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Throwable t) {
+            if (failureLogTimeout.checkAndUpdate()) {
+                logger.warning("Failed to write linked account changes to storage, retrying later", t);
+            } else {
+                logger.debug("Failed to write linked account changes to storage", t);
+            }
+        }
+    }
+
+    @Override
+    public void applyLinkChanges(@NotNull List<LinkChange> changes) {
+        synchronized (pending) {
+            try {
+                writeJournal(journal, changes);
+            } catch (IOException e) {
+                throw new StorageException(e);
+            }
+            for (LinkChange change : changes) {
+                pending.add(change);
+                applyToOverlay(change);
+            }
+        }
+    }
+
+    @Override
+    public long readLinks(long after, @NotNull BiConsumer<UUID, Long> consumer) {
+        // Pending removals would otherwise still be read
+        flushQuietly();
+        return storage.readLinks(after, consumer);
+    }
+
+    @Override
+    public long getLinkChangePosition() {
+        return storage.getLinkChangePosition();
+    }
+
+    @Override
+    public long readLinkChanges(long after, @NotNull Consumer<LinkChange> consumer) {
+        // Changes made through this storage are only logged once they're flushed
+        return storage.readLinkChanges(after, consumer);
+    }
+
+    @Override
+    public void createLink(@NotNull UUID player, long userId) {
+        applyLinkChanges(Collections.singletonList(LinkChange.link(player, userId)));
+    }
+
+    @Override
+    public void removeLink(@NotNull UUID player, long userId) {
+        applyLinkChanges(Collections.singletonList(LinkChange.unlink(player, userId)));
+    }
+
+    @Override
+    public @Nullable Long getUserId(@NotNull UUID player) {
+        synchronized (pending) {
+            Long userId = playerToUser.get(player);
+            if (userId != null) {
+                return userId == UNLINKED_USER ? null : userId;
+            }
+        }
+        return storage.getUserId(player);
+    }
+
+    @Override
+    public @Nullable UUID getPlayerUUID(long userId) {
+        synchronized (pending) {
+            UUID player = userToPlayer.get(userId);
+            if (player != null) {
+                return player == UNLINKED_UUID ? null : player;
+            }
+        }
+        return storage.getPlayerUUID(userId);
+    }
+
+    @Override
+    public @NotNull Map<UUID, Long> getUserIds(@NotNull Collection<UUID> players) {
+        Map<UUID, Long> userIds = new HashMap<>(players.size());
+        List<UUID> remaining = new ArrayList<>(players.size());
+        synchronized (pending) {
+            for (UUID player : players) {
+                Long userId = playerToUser.get(player);
+                if (userId == null) {
+                    remaining.add(player);
+                } else if (userId != UNLINKED_USER) {
+                    userIds.put(player, userId);
+                }
+            }
+        }
+        if (!remaining.isEmpty()) {
+            userIds.putAll(storage.getUserIds(remaining));
+        }
+        return userIds;
+    }
+
+    @Override
+    public @NotNull Map<Long, UUID> getPlayerUUIDs(@NotNull Collection<Long> userIds) {
+        Map<Long, UUID> players = new HashMap<>(userIds.size());
+        List<Long> remaining = new ArrayList<>(userIds.size());
+        synchronized (pending) {
+            for (Long userId : userIds) {
+                UUID player = userToPlayer.get(userId);
+                if (player == null) {
+                    remaining.add(userId);
+                } else if (player != UNLINKED_UUID) {
+                    players.put(userId, player);
+                }
+            }
+        }
+        if (!remaining.isEmpty()) {
+            players.putAll(storage.getPlayerUUIDs(remaining));
+        }
+        return players;
+    }
+
+    @Override
+    public void storeLinkingCode(@NotNull UUID player, String username, String code) {
+        storage.storeLinkingCode(player, username, code);
+    }
+
+    @Override
+    public Pair<UUID, String> getLinkingCode(String code) {
+        return storage.getLinkingCode(code);
+    }
+
+    @Override
+    public void removeLinkingCode(@NotNull UUID player) {
+        storage.removeLinkingCode(player);
+    }
+
+    @Override
+    public int removeExpiredLinkingCodes() {
+        return storage.removeExpiredLinkingCodes();
+    }
+
+    @Override
+    public int getLinkedAccountCount() {
+        // Count what has been written
+        flushQuietly();
+        return storage.getLinkedAccountCount();
+    }
+}
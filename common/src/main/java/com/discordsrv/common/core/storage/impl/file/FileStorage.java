@@ -0,0 +1,536 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2025 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.core.storage.impl.file;
+
+import com.discordsrv.common.DiscordSRV;
+import com.discordsrv.common.core.logging.Logger;
+import com.discordsrv.common.core.logging.NamedLogger;
+import com.discordsrv.common.core.scheduler.Scheduler;
+import com.discordsrv.common.core.storage.LinkChange;
+import com.discordsrv.common.core.storage.Storage;
+import com.discordsrv.common.exception.StorageException;
+import com.discordsrv.common.feature.linking.LinkStore;
+import com.discordsrv.common.feature.linking.impl.LinkIndex;
+import org.apache.commons.lang3.tuple.Pair;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.BiConsumer;
+import java.util.zip.CRC32;
+
+/**
+ * A {@link Storage} that keeps linked accounts in a local append-only file of fixed-size records,
+ * with all linked accounts in memory for lookups.
+ * <p>
+ * Changes are written by a single writer thread, which writes all changes waiting at the time with one fsync.
+ * The file is rewritten with only the current links once most of the records are outdated.
+ * Linking codes are only kept in memory, as they expire after {@link LinkStore#LINKING_CODE_EXPIRY_TIME}.
+ */
+public class FileStorage implements Storage {
+
+    private static final String FILE_NAME = "linked-accounts.dat";
+    private static final int MAGIC = 0x44535256; // DSRV
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+
+    // flags (1), reserved (3), crc32 (4), user id (8), player uuid (16)
+    private static final int RECORD_SIZE = 32;
+    private static final byte FLAG_LINK = 1;
+    private static final byte FLAG_UNLINK = 2;
+
+    private static final int READ_BUFFER_RECORDS = 4096;
+    private static final int MINIMUM_COMPACTION_RECORDS = 1024;
+    private static final Write STOP = new Write(Collections.emptyList());
+
+    private final Logger logger;
+    private final Path path;
+    private final BlockingQueue<Write> writes = new LinkedBlockingQueue<>();
+    private final Map<String, LinkingCode> linkingCodes = new ConcurrentHashMap<>();
+
+    // Only modified by the writer thread after initialization
+    private LinkIndex index;
+    private FileChannel channel;
+    private long records;
+
+    private Thread writerThread;
+    // Guarded by "writes"
+    private boolean writerStopped;
+
+    public FileStorage(DiscordSRV discordSRV) {
+        this(discordSRV.dataDirectory().resolve(FILE_NAME), new NamedLogger(discordSRV, "STORAGE"));
+    }
+
+    public FileStorage(Path path, Logger logger) {
+        this.path = path;
+        this.logger = logger;
+    }
+
+    @Override
+    public void initialize() {
+        try {
+            load();
+            if (shouldCompact()) {
+                compact();
+            }
+        } catch (IOException e) {
+            throw new StorageException(e);
+        }
+
+        writerThread = new Thread(this::writeLoop, Scheduler.THREAD_NAME_PREFIX + "Storage Writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @Override
+    public void close() {
+        synchronized (writes) {
+            // Everything queued before this is still written
+            writerStopped = true;
+            writes.add(STOP);
+        }
+        if (writerThread != null) {
+            try {
+                writerThread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                logger.error("Failed to close " + FILE_NAME, e);
+            }
+        }
+    }
+
+    //
+    // File
+    //
+
+    private void load() throws IOException {
+        boolean exists = Files.exists(path);
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        long size = channel.size();
+        if (!exists || size < HEADER_SIZE) {
+            channel.truncate(0);
+            writeFully(channel, header(), 0);
+            channel.force(true);
+            index = new LinkIndex();
+            records = 0;
+            return;
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        readFully(header, 0);
+        if (header.getInt(0) != MAGIC) {
+            throw new StorageException(path + " is not a linked accounts file");
+        }
+        int version = header.getInt(4);
+        if (version != VERSION) {
+            throw new StorageException("Unsupported " + FILE_NAME + " version: " + version);
+        }
+
+        // Replay all records, later records override earlier ones
+        Map<UUID, Long> playerToUser = new HashMap<>();
+        Map<Long, UUID> userToPlayer = new HashMap<>();
+
+        ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_RECORDS * RECORD_SIZE);
+        long position = HEADER_SIZE;
+        long readRecords = 0;
+        long corruptedRecords = 0;
+        while (size - position >= RECORD_SIZE) {
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), (size - position) / RECORD_SIZE * RECORD_SIZE));
+            readFully(buffer, position);
+            buffer.flip();
+
+            while (buffer.remaining() >= RECORD_SIZE) {
+                int start = buffer.position();
+                buffer.position(start + RECORD_SIZE);
+                position += RECORD_SIZE;
+                readRecords++;
+
+                byte flags = buffer.get(start);
+                if (!isValid(buffer, start) || (flags != FLAG_LINK && flags != FLAG_UNLINK)) {
+                    // Records are fixed size, the following records are still intact
+                    corruptedRecords++;
+                    continue;
+                }
+
+                long userId = buffer.getLong(start + 8);
+                UUID player = new UUID(buffer.getLong(start + 16), buffer.getLong(start + 24));
+
+                if (flags == FLAG_LINK) {
+                    Long previousUser = playerToUser.put(player, userId);
+                    if (previousUser != null) {
+                        userToPlayer.remove(previousUser);
+                    }
+                    UUID previousPlayer = userToPlayer.put(userId, player);
+                    if (previousPlayer != null && !previousPlayer.equals(player)) {
+                        playerToUser.remove(previousPlayer);
+                    }
+                } else {
+                    Long previousUser = playerToUser.remove(player);
+                    if (previousUser != null) {
+                        userToPlayer.remove(previousUser);
+                    }
+                }
+            }
+        }
+
+        if (corruptedRecords > 0) {
+            // Keep a copy, the corrupted records are dropped the next time the file is compacted
+            Path copy = path.resolveSibling(FILE_NAME + ".corrupt-" + System.currentTimeMillis());
+            Files.copy(path, copy);
+            logger.error(FILE_NAME + " contains " + corruptedRecords + " corrupted record(s) out of " + readRecords + ", "
+                                 + "they are ignored. A copy of the file was saved as " + copy.getFileName());
+        }
+        if (position < size) {
+            logger.warning("Ignoring an incomplete record at the end of " + FILE_NAME);
+            channel.truncate(position);
+            channel.force(true);
+        }
+
+        long[] userIds = new long[playerToUser.size()];
+        UUID[] players = new UUID[playerToUser.size()];
+        int i = 0;
+        for (Map.Entry<UUID, Long> entry : playerToUser.entrySet()) {
+            players[i] = entry.getKey();
+            userIds[i++] = entry.getValue();
+        }
+        index = LinkIndex.of(userIds, players, i);
+        records = readRecords;
+    }
+
+    private boolean shouldCompact() {
+        return records >= MINIMUM_COMPACTION_RECORDS && records > 2L * index.size();
+    }
+
+    private void compact() throws IOException {
+        Path temporary = path.resolveSibling(FILE_NAME + ".tmp");
+        long written;
+        try (FileChannel output = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            writeFully(output, header(), 0);
+
+            ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_RECORDS * RECORD_SIZE);
+            long[] position = {HEADER_SIZE};
+            try {
+                index.forEach((player, userId) -> {
+                    if (!buffer.hasRemaining()) {
+                        position[0] += flush(output, buffer, position[0]);
+                    }
+                    encode(buffer, LinkChange.link(player, userId));
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            position[0] += flush(output, buffer, position[0]);
+            output.force(true);
+            written = (position[0] - HEADER_SIZE) / RECORD_SIZE;
+        }
+
+        channel.close();
+        try {
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            // The old file if the move failed
+            channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+
+        logger.debug("Compacted " + FILE_NAME + " from " + records + " to " + written + " records");
+        records = written;
+    }
+
+    private int flush(FileChannel output, ByteBuffer buffer, long position) {
+        buffer.flip();
+        int length = buffer.remaining();
+        try {
+            writeFully(output, buffer, position);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.clear();
+        return length;
+    }
+
+    private static ByteBuffer header() {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).flip();
+        return header;
+    }
+
+    private static void encode(ByteBuffer buffer, LinkChange change) {
+        int start = buffer.position();
+        UUID player = change.player();
+        buffer.put(change.isLink() ? FLAG_LINK : FLAG_UNLINK)
+                .put((byte) 0).put((byte) 0).put((byte) 0)
+                .putInt(0)
+                .putLong(change.userId())
+                .putLong(player.getMostSignificantBits())
+                .putLong(player.getLeastSignificantBits());
+        buffer.putInt(start + 4, checksum(buffer, start));
+    }
+
+    private static boolean isValid(ByteBuffer buffer, int start) {
+        return buffer.getInt(start + 4) == checksum(buffer, start);
+    }
+
+    private static int checksum(ByteBuffer buffer, int start) {
+        // Everything except the checksum itself
+        CRC32 crc = new CRC32();
+        byte[] array = buffer.array();
+        int offset = buffer.arrayOffset() + start;
+        crc.update(array, offset, 4);
+        crc.update(array, offset + 8, RECORD_SIZE - 8);
+        return (int) crc.getValue();
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                break;
+            }
+            position += read;
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    //
+    // Writer
+    //
+
+    private void writeLoop() {
+        List<Write> batch = new ArrayList<>();
+        boolean stop = false;
+        while (!stop) {
+            try {
+                batch.add(writes.take());
+            } catch (InterruptedException e) {
+                break;
+            }
+            writes.drainTo(batch);
+
+            stop = batch.remove(STOP);
+            writeBatch(batch);
+            batch.clear();
+        }
+    }
+
+    private void writeBatch(List<Write> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        int changes = 0;
+        for (Write write : batch) {
+            changes += write.changes.size();
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(changes * RECORD_SIZE);
+        for (Write write : batch) {
+            for (LinkChange change : write.changes) {
+                encode(buffer, change);
+            }
+        }
+        buffer.flip();
+
+        try {
+            writeFully(channel, buffer, HEADER_SIZE + records * RECORD_SIZE);
+            channel.force(false);
+        } catch (Throwable t) {
+            // The next batch is written over anything that may have been written
+            for (Write write : batch) {
+                write.future.completeExceptionally(t);
+            }
+            return;
+        }
+        records += changes;
+
+        // Only visible once written
+        for (Write write : batch) {
+            for (LinkChange change : write.changes) {
+                if (change.isLink()) {
+                    index.put(change.player(), change.userId());
+                } else {
+                    index.remove(change.player());
+                }
+            }
+            write.future.complete(null);
+        }
+
+        if (shouldCompact()) {
+            try {
+                compact();
+            } catch (Throwable t) {
+                logger.error("Failed to compact " + FILE_NAME, t);
+            }
+        }
+    }
+
+    private void write(List<LinkChange> changes) {
+        Write write = new Write(changes);
+        synchronized (writes) {
+            if (writerStopped) {
+                // Nothing would complete the write
+                throw new StorageException(FILE_NAME + " is closed");
+            }
+            writes.add(write);
+        }
+        try {
+            write.future.get();
+        } catch (ExecutionException e) {
+            throw new StorageException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StorageException(e);
+        }
+    }
+
+    //
+    // Storage
+    //
+
+    @Override
+    public @Nullable Long getUserId(@NotNull UUID player) {
+        return index.getUserId(player);
+    }
+
+    @Override
+    public @Nullable UUID getPlayerUUID(long userId) {
+        return index.getPlayerUUID(userId);
+    }
+
+    @Override
+    public long readLinks(long after, @NotNull BiConsumer<UUID, Long> consumer) {
+        if (after == 0) {
+            index.forEach(consumer);
+        }
+        // Links can only change through this instance, nothing to read later
+        return 1;
+    }
+
+    @Override
+    public void createLink(@NotNull UUID player, long userId) {
+        write(Collections.singletonList(LinkChange.link(player, userId)));
+    }
+
+    @Override
+    public void removeLink(@NotNull UUID player, long userId) {
+        if (index.getUserId(player) == null) {
+            return;
+        }
+        write(Collections.singletonList(LinkChange.unlink(player, userId)));
+    }
+
+    @Override
+    public void applyLinkChanges(@NotNull List<LinkChange> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        write(new ArrayList<>(changes));
+    }
+
+    @Override
+    public void storeLinkingCode(@NotNull UUID player, String username, String code) {
+        removeLinkingCode(player);
+
+        long time = System.currentTimeMillis();
+        linkingCodes.compute(code, (key, existing) -> {
+            if (existing != null && existing.expiry > time) {
+                throw new StorageException("Linking code already in use");
+            }
+            return new LinkingCode(player, username, time + LinkStore.LINKING_CODE_EXPIRY_TIME.toMillis());
+        });
+    }
+
+    @Override
+    public Pair<UUID, String> getLinkingCode(String code) {
+        LinkingCode linkingCode = linkingCodes.get(code);
+        if (linkingCode == null || linkingCode.expiry <= System.currentTimeMillis()) {
+            return null;
+        }
+        return Pair.of(linkingCode.player, linkingCode.username);
+    }
+
+    @Override
+    public void removeLinkingCode(@NotNull UUID player) {
+        linkingCodes.values().removeIf(linkingCode -> linkingCode.player.equals(player));
+    }
+
+    @Override
+    public int removeExpiredLinkingCodes() {
+        long time = System.currentTimeMillis();
+        int removed = 0;
+        Iterator<LinkingCode> iterator = linkingCodes.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().expiry <= time) {
+                iterator.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    @Override
+    public int getLinkedAccountCount() {
+        return index.size();
+    }
+
+    private static class Write {
+
+        private final List<LinkChange> changes;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        private Write(List<LinkChange> changes) {
+            this.changes = changes;
+        }
+    }
+
+    private static class LinkingCode {
+
+        private final UUID player;
+        private final String username;
+        private final long expiry;
+
+        private LinkingCode(UUID player, String username, long expiry) {
+            this.player = player;
+            this.username = username;
+            this.expiry = expiry;
+        }
+    }
+}
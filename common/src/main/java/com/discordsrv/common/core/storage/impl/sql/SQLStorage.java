@@ -19,25 +19,54 @@
 package com.discordsrv.common.core.storage.impl.sql;
 
 import com.discordsrv.common.DiscordSRV;
+import com.discordsrv.common.core.storage.LinkChange;
 import com.discordsrv.common.core.storage.Storage;
 import com.discordsrv.common.exception.StorageException;
 import com.discordsrv.common.feature.linking.LinkStore;
 import com.discordsrv.common.util.function.CheckedConsumer;
 import com.discordsrv.common.util.function.CheckedFunction;
+import com.discordsrv.common.util.function.CheckedRunnable;
 import org.apache.commons.lang3.tuple.Pair;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.sql.*;
-import java.util.Calendar;
-import java.util.UUID;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 public abstract class SQLStorage implements Storage {
 
     protected static final String LINKED_ACCOUNTS_TABLE_NAME = "linked_accounts";
     protected static final String LINKING_CODES_TABLE_NAME = "linking_codes";
+    protected static final String LINKED_ACCOUNT_CHANGES_TABLE_NAME = "linked_account_changes";
+
+    /**
+     * The maximum amount of parameters in one {@code in (...)} clause, batches are split into chunks of at most this size.
+     */
+    private static final int MAX_BATCH_SIZE = 128;
+
+    /**
+     * How often old entries are removed from the change log.
+     */
+    private static final long CHANGE_LOG_CLEANUP_INTERVAL = TimeUnit.MINUTES.toMillis(10);
+
+    /**
+     * The maximum amount of expired linking codes to delete at once.
+     */
+    private static final int EXPIRED_CODE_BATCH_SIZE = 500;
 
     protected final DiscordSRV discordSRV;
+    private volatile Statements statements;
+
+    // Identifies changes made through this instance in the change log
+    private final String origin = UUID.randomUUID().toString();
+    private volatile long lastChangeLogCleanup;
+
+    // Held while the shared connection is used, when connections aren't closed after use
+    private final ReentrantLock sharedConnectionLock = new ReentrantLock();
 
     public SQLStorage(DiscordSRV discordSRV) {
         this.discordSRV = discordSRV;
@@ -61,7 +90,13 @@ public abstract class SQLStorage implements Storage {
                     return connectionFunction.apply(connection);
                 }
             } else {
-                return connectionFunction.apply(getConnection());
+                // Every caller gets the same connection, don't let transactions and statements interleave
+                sharedConnectionLock.lock();
+                try {
+                    return connectionFunction.apply(getConnection());
+                } finally {
+                    sharedConnectionLock.unlock();
+                }
             }
         } catch (Throwable e) {
             throw new StorageException(e);
@@ -74,6 +109,20 @@ public abstract class SQLStorage implements Storage {
         }
     }
 
+    private void transaction(Connection connection, CheckedRunnable runnable) throws Throwable {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            runnable.run();
+            connection.commit();
+        } catch (Throwable t) {
+            connection.rollback();
+            throw t;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
     protected String tablePrefix() {
         String tablePrefix = discordSRV.connectionConfig().storage.sqlTablePrefix;
         if (!tablePrefix.matches("[\\w_-]*")) {
@@ -83,6 +132,18 @@ public abstract class SQLStorage implements Storage {
         return tablePrefix;
     }
 
+    /**
+     * Gets the statement texts for the current table prefix, only rebuilt when the prefix changes.
+     */
+    private Statements statements() {
+        String tablePrefix = discordSRV.connectionConfig().storage.sqlTablePrefix;
+        Statements statements = this.statements;
+        if (statements == null || !statements.tablePrefix.equals(tablePrefix)) {
+            this.statements = statements = new Statements(tablePrefix());
+        }
+        return statements;
+    }
+
     @Override
     public void initialize() {
         useConnection((CheckedConsumer<Connection>) connection -> createTables(
@@ -94,7 +155,7 @@ public abstract class SQLStorage implements Storage {
     @Override
     public @Nullable Long getUserId(@NotNull UUID player) {
         return useConnection(connection -> {
-            try (PreparedStatement statement = connection.prepareStatement("select USER_ID from " + tablePrefix() + LINKED_ACCOUNTS_TABLE_NAME + " where PLAYER_UUID = ?;")) {
+            try (PreparedStatement statement = connection.prepareStatement(statements().selectUserId)) {
                 statement.setString(1, player.toString());
                 try (ResultSet resultSet = statement.executeQuery()) {
                     if (resultSet.next()) {
@@ -109,7 +170,7 @@ public abstract class SQLStorage implements Storage {
     @Override
     public @Nullable UUID getPlayerUUID(long userId) {
         return useConnection(connection -> {
-            try (PreparedStatement statement = connection.prepareStatement("select PLAYER_UUID from " + tablePrefix() + LINKED_ACCOUNTS_TABLE_NAME + " where USER_ID = ?;")) {
+            try (PreparedStatement statement = connection.prepareStatement(statements().selectPlayerUUID)) {
                 statement.setLong(1, userId);
                 try (ResultSet resultSet = statement.executeQuery()) {
                     if (resultSet.next()) {
@@ -126,32 +187,234 @@ public abstract class SQLStorage implements Storage {
     }
 
     @Override
-    public void createLink(@NotNull UUID player, long userId) {
+    public @NotNull Map<UUID, Long> getUserIds(@NotNull Collection<UUID> players) {
+        if (players.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        List<UUID> playerList = new ArrayList<>(players);
+        Map<UUID, Long> userIds = new HashMap<>(playerList.size());
         useConnection(connection -> {
-            try (PreparedStatement statement = connection.prepareStatement("insert into " + tablePrefix() + LINKED_ACCOUNTS_TABLE_NAME + " (PLAYER_UUID, USER_ID) values (?, ?);")) {
-                statement.setString(1, player.toString());
-                statement.setLong(2, userId);
+            Statements statements = statements();
+            for (int from = 0; from < playerList.size(); from += MAX_BATCH_SIZE) {
+                List<UUID> chunk = playerList.subList(from, Math.min(playerList.size(), from + MAX_BATCH_SIZE));
+                int size = Statements.batchSize(chunk.size());
 
-                exceptEffectedRows(statement.executeUpdate(), 1);
+                try (PreparedStatement statement = connection.prepareStatement(statements.selectUserIds(size))) {
+                    for (int i = 0; i < size; i++) {
+                        // Unused parameters are filled with the last value, to keep the amount of distinct statements low
+                        statement.setString(i + 1, chunk.get(Math.min(i, chunk.size() - 1)).toString());
+                    }
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        while (resultSet.next()) {
+                            userIds.put(UUID.fromString(resultSet.getString("PLAYER_UUID")), resultSet.getLong("USER_ID"));
+                        }
+                    }
+                }
             }
         });
+        return userIds;
     }
 
     @Override
-    public void removeLink(@NotNull UUID player, long userId) {
+    public @NotNull Map<Long, UUID> getPlayerUUIDs(@NotNull Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        List<Long> userIdList = new ArrayList<>(userIds);
+        Map<Long, UUID> players = new HashMap<>(userIdList.size());
         useConnection(connection -> {
-            try (PreparedStatement statement = connection.prepareStatement("delete from " + tablePrefix() + LINKED_ACCOUNTS_TABLE_NAME + " where PLAYER_UUID = ?;")) {
-                statement.setString(1, player.toString());
-                exceptEffectedRows(statement.executeUpdate(), 1);
+            Statements statements = statements();
+            for (int from = 0; from < userIdList.size(); from += MAX_BATCH_SIZE) {
+                List<Long> chunk = userIdList.subList(from, Math.min(userIdList.size(), from + MAX_BATCH_SIZE));
+                int size = Statements.batchSize(chunk.size());
+
+                try (PreparedStatement statement = connection.prepareStatement(statements.selectPlayerUUIDs(size))) {
+                    for (int i = 0; i < size; i++) {
+                        // Unused parameters are filled with the last value, to keep the amount of distinct statements low
+                        statement.setLong(i + 1, chunk.get(Math.min(i, chunk.size() - 1)));
+                    }
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        while (resultSet.next()) {
+                            String value = resultSet.getString("PLAYER_UUID");
+                            if (value != null) {
+                                players.put(resultSet.getLong("USER_ID"), UUID.fromString(value));
+                            }
+                        }
+                    }
+                }
+            }
+        });
+        return players;
+    }
+
+    @Override
+    public long readLinks(long after, @NotNull BiConsumer<UUID, Long> consumer) {
+        return useConnection(connection -> {
+            long position = after;
+            try (PreparedStatement statement = connection.prepareStatement(statements().selectLinksAfter)) {
+                statement.setFetchSize(1000);
+                statement.setLong(1, after);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        position = resultSet.getLong("ID");
+                        String player = resultSet.getString("PLAYER_UUID");
+                        if (player != null) {
+                            consumer.accept(UUID.fromString(player), resultSet.getLong("USER_ID"));
+                        }
+                    }
+                }
+            }
+            return position;
+        });
+    }
+
+    @Override
+    public long getLinkChangePosition() {
+        return useConnection(connection -> {
+            try (Statement statement = connection.createStatement()) {
+                try (ResultSet resultSet = statement.executeQuery(statements().selectLatestChange)) {
+                    if (resultSet.next()) {
+                        return resultSet.getLong(1);
+                    }
+                }
+            }
+            return 0L;
+        });
+    }
+
+    @Override
+    public long readLinkChanges(long after, @NotNull Consumer<LinkChange> consumer) {
+        return useConnection(connection -> {
+            Statements statements = statements();
+
+            long time = getTimeMS();
+            if (time - lastChangeLogCleanup > CHANGE_LOG_CLEANUP_INTERVAL) {
+                lastChangeLogCleanup = time;
+                try (PreparedStatement statement = connection.prepareStatement(statements.deleteOldChanges)) {
+                    statement.setLong(1, time - LINK_CHANGE_RETENTION.toMillis());
+                    statement.executeUpdate();
+                }
+            }
+
+            long position = after;
+            try (PreparedStatement statement = connection.prepareStatement(statements.selectChangesAfter)) {
+                statement.setLong(1, after);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        position = resultSet.getLong("ID");
+                        if (origin.equals(resultSet.getString("ORIGIN"))) {
+                            // Already applied by this server
+                            continue;
+                        }
+
+                        UUID player = UUID.fromString(resultSet.getString("PLAYER_UUID"));
+                        long userId = resultSet.getLong("USER_ID");
+                        consumer.accept(resultSet.getBoolean("LINKED") ? LinkChange.link(player, userId) : LinkChange.unlink(player, userId));
+                    }
+                }
             }
+            return position;
+        });
+    }
+
+    @Override
+    public void createLink(@NotNull UUID player, long userId) {
+        useConnection(connection -> {
+            transaction(connection, () -> {
+                Statements statements = statements();
+                try (PreparedStatement statement = connection.prepareStatement(statements.insertLink)) {
+                    statement.setString(1, player.toString());
+                    statement.setLong(2, userId);
+
+                    exceptEffectedRows(statement.executeUpdate(), 1);
+                }
+                logChanges(connection, statements, Collections.singletonList(LinkChange.link(player, userId)));
+            });
+        });
+    }
+
+    @Override
+    public void removeLink(@NotNull UUID player, long userId) {
+        useConnection(connection -> {
+            transaction(connection, () -> {
+                Statements statements = statements();
+                try (PreparedStatement statement = connection.prepareStatement(statements.deleteLink)) {
+                    statement.setString(1, player.toString());
+                    exceptEffectedRows(statement.executeUpdate(), 1);
+                }
+                logChanges(connection, statements, Collections.singletonList(LinkChange.unlink(player, userId)));
+            });
+        });
+    }
+
+    @Override
+    public void applyLinkChanges(@NotNull List<LinkChange> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        useConnection(connection -> {
+            transaction(connection, () -> {
+                Statements statements = statements();
+                int from = 0;
+                while (from < changes.size()) {
+                    // Consecutive changes of the same kind are sent as one batch, without changing the order of links and unlinks
+                    boolean link = changes.get(from).isLink();
+                    int to = from;
+                    while (to < changes.size() && changes.get(to).isLink() == link) {
+                        to++;
+                    }
+
+                    Set<LinkChange> run = new LinkedHashSet<>(changes.subList(from, to));
+                    if (link) {
+                        // Delete first, so links that are already in place don't violate the unique constraint
+                        executeBatch(connection, statements.deleteLinkPair, run, true);
+                        executeBatch(connection, statements.insertLink, run, true);
+                    } else {
+                        executeBatch(connection, statements.deleteLink, run, false);
+                    }
+                    from = to;
+                }
+                logChanges(connection, statements, changes);
+            });
         });
     }
 
+    private void logChanges(Connection connection, Statements statements, List<LinkChange> changes) throws SQLException {
+        long time = getTimeMS();
+        try (PreparedStatement statement = connection.prepareStatement(statements.insertChange)) {
+            for (LinkChange change : changes) {
+                statement.setString(1, change.player().toString());
+                statement.setLong(2, change.userId());
+                statement.setBoolean(3, change.isLink());
+                statement.setString(4, origin);
+                statement.setLong(5, time);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    private void executeBatch(Connection connection, String sql, Collection<LinkChange> changes, boolean withUserId) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (LinkChange change : changes) {
+                statement.setString(1, change.player().toString());
+                if (withUserId) {
+                    statement.setLong(2, change.userId());
+                }
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
     @Override
     public int getLinkedAccountCount() {
         return useConnection(connection -> {
             try (Statement statement = connection.createStatement()) {
-                try (ResultSet resultSet = statement.executeQuery("select count(*) from " + tablePrefix() + LINKED_ACCOUNTS_TABLE_NAME + ";")) {
+                try (ResultSet resultSet = statement.executeQuery(statements().countLinks)) {
                     if (resultSet.next()) {
                         return resultSet.getInt(1);
                     }
@@ -169,8 +432,9 @@ public abstract class SQLStorage implements Storage {
     public Pair<UUID, String> getLinkingCode(String code) {
         return useConnection(connection -> {
             // Get the uuid for the code
-            try (PreparedStatement statement = connection.prepareStatement("select PLAYERUUID, PLAYERUSERNAME from " + tablePrefix() + LINKING_CODES_TABLE_NAME + " where CODE = ? LIMIT 1;")) {
+            try (PreparedStatement statement = connection.prepareStatement(statements().selectLinkingCode)) {
                 statement.setString(1, code);
+                statement.setLong(2, getTimeMS());
                 try (ResultSet resultSet = statement.executeQuery()) {
                     if (resultSet.next()) {
                         UUID uuid = UUID.fromString(resultSet.getString("PLAYERUUID"));
@@ -186,24 +450,66 @@ public abstract class SQLStorage implements Storage {
     @Override
     public void removeLinkingCode(@NotNull UUID player) {
         useConnection(connection -> {
-            try (PreparedStatement statement = connection.prepareStatement("delete from " + tablePrefix() + LINKING_CODES_TABLE_NAME + " WHERE PLAYERUUID = ?;")) {
+            try (PreparedStatement statement = connection.prepareStatement(statements().deleteLinkingCode)) {
                 statement.setString(1, player.toString());
                 statement.executeUpdate();
             }
         });
     }
 
+    @Override
+    public int removeExpiredLinkingCodes() {
+        return useConnection(connection -> {
+            Statements statements = statements();
+            long time = getTimeMS();
+
+            int removed = 0;
+            while (true) {
+                List<String> players = new ArrayList<>(EXPIRED_CODE_BATCH_SIZE);
+                try (PreparedStatement statement = connection.prepareStatement(statements.selectExpiredLinkingCodes)) {
+                    statement.setLong(1, time);
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        while (resultSet.next()) {
+                            players.add(resultSet.getString("PLAYERUUID"));
+                        }
+                    }
+                }
+                if (players.isEmpty()) {
+                    break;
+                }
+
+                try (PreparedStatement statement = connection.prepareStatement(statements.deleteExpiredLinkingCode)) {
+                    for (String player : players) {
+                        // The player may have gotten a new code in the meantime
+                        statement.setString(1, player);
+                        statement.setLong(2, time);
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                }
+                removed += players.size();
+
+                if (players.size() < EXPIRED_CODE_BATCH_SIZE) {
+                    break;
+                }
+            }
+            return removed;
+        });
+    }
+
     @Override
     public void storeLinkingCode(@NotNull UUID player, @NotNull String username, String code) {
         useConnection(connection -> {
+            Statements statements = statements();
+
             // Remove existing code
-            try (PreparedStatement statement = connection.prepareStatement("delete from " + tablePrefix() + LINKING_CODES_TABLE_NAME + " where PLAYERUUID = ?;")) {
+            try (PreparedStatement statement = connection.prepareStatement(statements.deleteLinkingCode)) {
                 statement.setString(1, player.toString());
                 statement.executeUpdate();
             }
 
             // Insert new code
-            try (PreparedStatement statement = connection.prepareStatement("insert into " + tablePrefix() + LINKING_CODES_TABLE_NAME + " (PLAYERUUID, PLAYERUSERNAME, CODE, EXPIRY) VALUES (?, ?, ?, ?);")) {
+            try (PreparedStatement statement = connection.prepareStatement(statements.insertLinkingCode)) {
                 statement.setString(1, player.toString());
                 statement.setString(2, username);
                 statement.setString(3, code);
@@ -212,4 +518,93 @@ public abstract class SQLStorage implements Storage {
             }
         });
     }
+
+    /**
+     * The statement texts for one table prefix.
+     */
+    private static class Statements {
+
+        private final String tablePrefix;
+
+        private final String selectUserId;
+        private final String selectPlayerUUID;
+        private final String selectLinksAfter;
+        private final String insertLink;
+        private final String deleteLink;
+        private final String deleteLinkPair;
+        private final String countLinks;
+
+        private final String insertChange;
+        private final String selectChangesAfter;
+        private final String selectLatestChange;
+        private final String deleteOldChanges;
+
+        private final String selectLinkingCode;
+        private final String deleteLinkingCode;
+        private final String insertLinkingCode;
+        private final String selectExpiredLinkingCodes;
+        private final String deleteExpiredLinkingCode;
+
+        // Indexed by the log2 of the batch size
+        private final String[] selectUserIds = new String[Integer.numberOfTrailingZeros(MAX_BATCH_SIZE) + 1];
+        private final String[] selectPlayerUUIDs = new String[selectUserIds.length];
+
+        private Statements(String tablePrefix) {
+            this.tablePrefix = tablePrefix;
+
+            String linkedAccounts = tablePrefix + LINKED_ACCOUNTS_TABLE_NAME;
+            this.selectUserId = "select USER_ID from " + linkedAccounts + " where PLAYER_UUID = ?;";
+            this.selectPlayerUUID = "select PLAYER_UUID from " + linkedAccounts + " where USER_ID = ?;";
+            this.selectLinksAfter = "select ID, PLAYER_UUID, USER_ID from " + linkedAccounts + " where ID > ? order by ID;";
+            this.insertLink = "insert into " + linkedAccounts + " (PLAYER_UUID, USER_ID) values (?, ?);";
+            this.deleteLink = "delete from " + linkedAccounts + " where PLAYER_UUID = ?;";
+            this.deleteLinkPair = "delete from " + linkedAccounts + " where PLAYER_UUID = ? and USER_ID = ?;";
+            this.countLinks = "select count(*) from " + linkedAccounts + ";";
+
+            String linkedAccountChanges = tablePrefix + LINKED_ACCOUNT_CHANGES_TABLE_NAME;
+            this.insertChange = "insert into " + linkedAccountChanges + " (PLAYER_UUID, USER_ID, LINKED, ORIGIN, TIME) values (?, ?, ?, ?, ?);";
+            this.selectChangesAfter = "select ID, PLAYER_UUID, USER_ID, LINKED, ORIGIN from " + linkedAccountChanges + " where ID > ? order by ID;";
+            this.selectLatestChange = "select max(ID) from " + linkedAccountChanges + ";";
+            this.deleteOldChanges = "delete from " + linkedAccountChanges + " where TIME < ?;";
+
+            String linkingCodes = tablePrefix + LINKING_CODES_TABLE_NAME;
+            this.selectLinkingCode = "select PLAYERUUID, PLAYERUSERNAME from " + linkingCodes + " where CODE = ? and EXPIRY > ? LIMIT 1;";
+            this.deleteLinkingCode = "delete from " + linkingCodes + " where PLAYERUUID = ?;";
+            this.insertLinkingCode = "insert into " + linkingCodes + " (PLAYERUUID, PLAYERUSERNAME, CODE, EXPIRY) VALUES (?, ?, ?, ?);";
+            this.selectExpiredLinkingCodes = "select PLAYERUUID from " + linkingCodes + " where EXPIRY <= ? LIMIT " + EXPIRED_CODE_BATCH_SIZE + ";";
+            this.deleteExpiredLinkingCode = "delete from " + linkingCodes + " where PLAYERUUID = ? and EXPIRY <= ?;";
+
+            for (int i = 0; i < selectUserIds.length; i++) {
+                String parameters = parameters(1 << i);
+                selectUserIds[i] = "select PLAYER_UUID, USER_ID from " + linkedAccounts + " where PLAYER_UUID in (" + parameters + ");";
+                selectPlayerUUIDs[i] = "select PLAYER_UUID, USER_ID from " + linkedAccounts + " where USER_ID in (" + parameters + ");";
+            }
+        }
+
+        /**
+         * Rounds the given amount of values up to the next power of two.
+         */
+        private static int batchSize(int values) {
+            return values <= 1 ? 1 : Integer.highestOneBit(values - 1) << 1;
+        }
+
+        private static String parameters(int amount) {
+            StringBuilder builder = new StringBuilder(amount * 3);
+            for (int i = 0; i < amount; i++) {
+                if (i != 0) {
+                    builder.append(", ");
+                }
+                builder.append('?');
+            }
+            return builder.toString();
+        }
+
+        private String selectUserIds(int batchSize) {
+            return selectUserIds[Integer.numberOfTrailingZeros(batchSize)];
+        }
+
+        private String selectPlayerUUIDs(int batchSize) {
+            return selectPlayerUUIDs[Integer.numberOfTrailingZeros(batchSize)];
+        }
+    }
 }
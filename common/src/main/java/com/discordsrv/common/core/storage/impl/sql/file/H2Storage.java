@@ -124,5 +124,17 @@ public class H2Storage extends SQLStorage {
         try (Statement statement = connection.createStatement()) {
             statement.execute("alter table " + tablePrefix + LINKING_CODES_TABLE_NAME + " add column if not exists PLAYERUSERNAME varchar(32);");
         }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(
+                    "create table if not exists " + tablePrefix + LINKED_ACCOUNT_CHANGES_TABLE_NAME + " ("
+                            + "ID bigint not null auto_increment,"
+                            + "PLAYER_UUID varchar(36),"
+                            + "USER_ID bigint,"
+                            + "LINKED boolean,"
+                            + "ORIGIN varchar(36),"
+                            + "TIME bigint,"
+                            + "constraint LINKED_ACCOUNT_CHANGES_PK primary key (ID)"
+                            + ");");
+        }
     }
 }
@@ -0,0 +1,389 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2025 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.discord.api;
+
+import com.discordsrv.api.discord.entity.channel.DiscordGuildMessageChannel;
+import com.discordsrv.api.discord.entity.message.ReceivedDiscordMessage;
+import com.discordsrv.api.discord.entity.message.SendableDiscordMessage;
+import com.discordsrv.api.task.Task;
+import com.discordsrv.common.DiscordSRV;
+import com.discordsrv.common.discord.api.entity.channel.AbstractDiscordGuildMessageChannel;
+import okhttp3.Response;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Bounded outbound queues for messages relayed to Discord channels by DiscordSRV, one message in flight per lane.
+ * Messages sent by the bot use one lane per channel, webhook messages use one lane per webhook in the channel's pool,
+ * so pooled webhooks send in parallel while messages from the same author stay in order.
+ * Messages sent through the API are not queued.
+ * Higher priority messages are sent first, messages with the same priority are sent in order.
+ * When the queue for a channel is full, the oldest message with the lowest priority (that is not higher than the new message's) is dropped.
+ * The remaining rate limit budget for creating messages is read from Discord's response headers
+ * (per channel for the bot, per webhook for webhooks), so sending is paused until the rate limit resets instead of piling requests up in JDA's requester.
+ */
+public class ChannelSendQueues {
+
+    /**
+     * The maximum amount of messages waiting to be sent per channel.
+     */
+    private static final int MAXIMUM_QUEUED = 100;
+
+    public enum Priority {
+        /**
+         * Console output.
+         */
+        HIGH,
+        /**
+         * Chat.
+         */
+        NORMAL,
+        /**
+         * Join, leave, death and other notifications.
+         */
+        LOW
+    }
+
+    private final DiscordSRV discordSRV;
+    private final Map<String, ChannelQueue> queues = new ConcurrentHashMap<>();
+    private final Map<Long, RateLimit> rateLimits = new ConcurrentHashMap<>();
+
+    public ChannelSendQueues(DiscordSRV discordSRV) {
+        this.discordSRV = discordSRV;
+    }
+
+    /**
+     * Sends a message to the given channel through its queue, with the given priority.
+     * @param channel the channel
+     * @param message the message
+     * @param priority the priority
+     * @return a future completed with the sent message
+     */
+    public Task<ReceivedDiscordMessage> sendMessage(
+            DiscordGuildMessageChannel channel,
+            SendableDiscordMessage message,
+            Priority priority
+    ) {
+        if (channel instanceof AbstractDiscordGuildMessageChannel) {
+            return ((AbstractDiscordGuildMessageChannel<?>) channel).sendMessage(message, priority);
+        }
+        return channel.sendMessage(message);
+    }
+
+    /**
+     * Queues sending to a lane.
+     * @param lane the lane the request is sent in, requests in the same lane are sent one at a time
+     * @param priority the priority of the request
+     * @param rateLimitId provides the channel or webhook id whose rate limit applies to the request, or {@code null} if not known yet
+     * @param send starts the request
+     * @return a future completed with the result of the request
+     * @param <T> the result type
+     */
+    public <T> Task<T> enqueue(String lane, Priority priority, Supplier<Long> rateLimitId, Supplier<Task<T>> send) {
+        Entry<T> entry = new Entry<>(priority, rateLimitId, send);
+
+        ChannelQueue queue;
+        Entry<?> dropped = null;
+        while (true) {
+            queue = queues.computeIfAbsent(lane, ChannelQueue::new);
+            synchronized (queue) {
+                if (queue.removed) {
+                    // Drained and removed after we got it, get the new queue for the lane
+                    continue;
+                }
+
+                if (queue.size() >= MAXIMUM_QUEUED) {
+                    dropped = queue.dropFor(priority);
+                    if (dropped == null) {
+                        queue.rejected++;
+                        return Task.failed(new RejectedExecutionException("Send queue " + lane + " is full"));
+                    }
+                    queue.dropped++;
+                }
+
+                queue.entries.get(priority).add(entry);
+                queue.maximumQueued = Math.max(queue.maximumQueued, queue.size());
+                break;
+            }
+        }
+        if (dropped != null) {
+            dropped.task.completeExceptionally(
+                    new RejectedExecutionException("Dropped from send queue " + lane));
+        }
+
+        drain(queue);
+        return entry.task;
+    }
+
+    private void drain(ChannelQueue queue) {
+        Entry<?> entry;
+        synchronized (queue) {
+            if (queue.inFlight || queue.waiting) {
+                return;
+            }
+
+            entry = queue.peek();
+            if (entry == null) {
+                // Nothing left to send, remove the lane until it's used again
+                queue.removed = true;
+                queues.remove(queue.lane, queue);
+                return;
+            }
+
+            Long rateLimitId = entry.rateLimitId.get();
+            if (rateLimitId != null) {
+                queue.lastRateLimitId = rateLimitId;
+            }
+
+            long wait = rateLimitId != null ? waitTime(rateLimitId) : 0;
+            if (wait > 0) {
+                // Out of budget, wait for the rate limit to reset instead of queueing into JDA
+                queue.waiting = true;
+                discordSRV.scheduler().runLater(() -> {
+                    synchronized (queue) {
+                        queue.waiting = false;
+                    }
+                    drain(queue);
+                }, Duration.ofMillis(wait));
+                return;
+            }
+
+            queue.poll();
+            queue.inFlight = true;
+        }
+
+        entry.start().whenComplete((__, t) -> {
+            long latency = System.currentTimeMillis() - entry.queuedAt;
+            synchronized (queue) {
+                queue.inFlight = false;
+                queue.sent++;
+                queue.totalLatency += latency;
+                queue.lastLatency = latency;
+            }
+            drain(queue);
+        });
+    }
+
+    private long waitTime(long rateLimitId) {
+        RateLimit rateLimit = rateLimits.get(rateLimitId);
+        if (rateLimit == null || rateLimit.remaining > 0) {
+            return 0;
+        }
+        return Math.max(0, rateLimit.resetAt - System.currentTimeMillis());
+    }
+
+    private void removeExpiredRateLimits(long currentTime) {
+        rateLimits.values().removeIf(rateLimit -> rateLimit.resetAt <= currentTime);
+    }
+
+    /**
+     * Reads the rate limit budget from the response to a message create or webhook execute request, if present.
+     * Other routes have their own rate limits, which don't apply to sending messages.
+     * @param response the response from Discord
+     */
+    public void updateRateLimit(Response response) {
+        String remaining = response.header("X-RateLimit-Remaining");
+        String resetAfter = response.header("X-RateLimit-Reset-After");
+        if (remaining == null || resetAfter == null || !"POST".equals(response.request().method())) {
+            return;
+        }
+
+        Long rateLimitId = null;
+        List<String> segments = response.request().url().pathSegments();
+        for (int i = 0; i < segments.size() - 1; i++) {
+            String segment = segments.get(i);
+            try {
+                if (segment.equals("channels")) {
+                    // POST /channels/{channel.id}/messages
+                    if (segments.size() == i + 3 && segments.get(i + 2).equals("messages")) {
+                        rateLimitId = Long.parseUnsignedLong(segments.get(i + 1));
+                    }
+                    break;
+                } else if (segment.equals("webhooks")) {
+                    // POST /webhooks/{webhook.id}/{webhook.token}
+                    if (segments.size() == i + 3) {
+                        rateLimitId = Long.parseUnsignedLong(segments.get(i + 1));
+                    }
+                    break;
+                }
+            } catch (NumberFormatException ignored) {
+                return;
+            }
+        }
+        if (rateLimitId == null) {
+            return;
+        }
+
+        long currentTime = System.currentTimeMillis();
+        try {
+            RateLimit rateLimit = new RateLimit(
+                    Integer.parseInt(remaining),
+                    currentTime + (long) (Double.parseDouble(resetAfter) * 1000)
+            );
+            rateLimits.put(rateLimitId, rateLimit);
+        } catch (NumberFormatException ignored) {}
+
+        // The budget of channels and webhooks that are no longer sent to is not needed once it has reset
+        removeExpiredRateLimits(currentTime);
+    }
+
+    /**
+     * Gets the current state of the queues, for debugging.
+     * @return queue depths, latency and rate limit budget per lane
+     */
+    public Map<String, Object> metrics() {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (ChannelQueue queue : queues.values()) {
+            Map<String, Object> channelValues = new LinkedHashMap<>();
+            long rateLimitId;
+            synchronized (queue) {
+                for (Map.Entry<Priority, Deque<Entry<?>>> entry : queue.entries.entrySet()) {
+                    channelValues.put("queued." + entry.getKey().name().toLowerCase(Locale.ROOT), entry.getValue().size());
+                }
+                channelValues.put("maximumQueued", queue.maximumQueued);
+                channelValues.put("inFlight", queue.inFlight);
+                channelValues.put("waitingForRateLimit", queue.waiting);
+                channelValues.put("sent", queue.sent);
+                channelValues.put("dropped", queue.dropped);
+                channelValues.put("rejected", queue.rejected);
+                channelValues.put("averageLatencyMs", queue.sent > 0 ? queue.totalLatency / queue.sent : 0);
+                channelValues.put("lastLatencyMs", queue.lastLatency);
+                rateLimitId = queue.lastRateLimitId;
+            }
+
+            RateLimit rateLimit = rateLimitId != 0 ? rateLimits.get(rateLimitId) : null;
+            if (rateLimit != null) {
+                channelValues.put("rateLimitId", Long.toUnsignedString(rateLimitId));
+                channelValues.put("rateLimitRemaining", rateLimit.remaining);
+                channelValues.put("rateLimitResetAfterMs", Math.max(0, rateLimit.resetAt - System.currentTimeMillis()));
+            }
+            values.put(queue.lane, channelValues);
+        }
+        return values;
+    }
+
+    private static class RateLimit {
+
+        private final int remaining;
+        private final long resetAt;
+
+        private RateLimit(int remaining, long resetAt) {
+            this.remaining = remaining;
+            this.resetAt = resetAt;
+        }
+    }
+
+    private static class ChannelQueue {
+
+        private final String lane;
+
+        // Guarded by the queue itself
+        private final Map<Priority, Deque<Entry<?>>> entries = new EnumMap<>(Priority.class);
+        private boolean inFlight;
+        private boolean waiting;
+        private boolean removed;
+        private int maximumQueued;
+        private long sent;
+        private long dropped;
+        private long rejected;
+        private long totalLatency;
+        private long lastLatency;
+        private long lastRateLimitId;
+
+        private ChannelQueue(String lane) {
+            this.lane = lane;
+            for (Priority priority : Priority.values()) {
+                entries.put(priority, new ArrayDeque<>());
+            }
+        }
+
+        private int size() {
+            int size = 0;
+            for (Deque<Entry<?>> deque : entries.values()) {
+                size += deque.size();
+            }
+            return size;
+        }
+
+        private Entry<?> peek() {
+            for (Deque<Entry<?>> deque : entries.values()) {
+                Entry<?> entry = deque.peekFirst();
+                if (entry != null) {
+                    return entry;
+                }
+            }
+            return null;
+        }
+
+        private void poll() {
+            for (Deque<Entry<?>> deque : entries.values()) {
+                if (deque.pollFirst() != null) {
+                    return;
+                }
+            }
+        }
+
+        private Entry<?> dropFor(Priority priority) {
+            // Drop the oldest message of the lowest priority, that isn't higher than the message being added
+            Priority[] priorities = Priority.values();
+            for (int i = priorities.length - 1; i >= priority.ordinal(); i--) {
+                Entry<?> entry = entries.get(priorities[i]).pollFirst();
+                if (entry != null) {
+                    return entry;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static class Entry<T> {
+
+        private final Priority priority;
+        private final Supplier<Long> rateLimitId;
+        private final Supplier<Task<T>> send;
+        private final Task<T> task = new Task<>();
+        private final long queuedAt = System.currentTimeMillis();
+
+        private Entry(Priority priority, Supplier<Long> rateLimitId, Supplier<Task<T>> send) {
+            this.priority = priority;
+            this.rateLimitId = rateLimitId;
+            this.send = send;
+        }
+
+        private Task<T> start() {
+            Task<T> future;
+            try {
+                future = send.get();
+            } catch (Throwable t) {
+                future = Task.failed(t);
+            }
+            return future.whenComplete((result, t) -> {
+                if (t != null) {
+                    task.completeExceptionally(t);
+                } else {
+                    task.complete(result);
+                }
+            });
+        }
+    }
+}
@@ -35,6 +35,8 @@ import com.discordsrv.common.config.main.channels.base.BaseChannelConfig;
 import com.discordsrv.common.config.main.channels.base.IChannelConfig;
 import com.discordsrv.common.config.main.generic.DestinationConfig;
 import com.discordsrv.common.config.main.generic.ThreadConfig;
+import com.discordsrv.common.core.logging.Logger;
+import com.discordsrv.common.core.logging.NamedLogger;
 import com.discordsrv.common.discord.api.entity.DiscordUserImpl;
 import com.discordsrv.common.discord.api.entity.channel.*;
 import com.discordsrv.common.discord.api.entity.guild.DiscordCustomEmojiImpl;
@@ -43,6 +45,7 @@ import com.discordsrv.common.discord.api.entity.guild.DiscordGuildMemberImpl;
 import com.discordsrv.common.discord.api.entity.guild.DiscordRoleImpl;
 import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
 import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Expiry;
 import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.entities.*;
@@ -50,6 +53,7 @@ import net.dv8tion.jda.api.entities.channel.Channel;
 import net.dv8tion.jda.api.entities.channel.attribute.IWebhookContainer;
 import net.dv8tion.jda.api.entities.channel.concrete.*;
 import net.dv8tion.jda.api.entities.channel.middleman.GuildChannel;
+import net.dv8tion.jda.api.entities.channel.middleman.GuildMessageChannel;
 import net.dv8tion.jda.api.entities.channel.middleman.MessageChannel;
 import net.dv8tion.jda.api.entities.emoji.CustomEmoji;
 import net.dv8tion.jda.api.exceptions.ErrorResponseException;
@@ -58,8 +62,7 @@ import net.dv8tion.jda.api.requests.RestAction;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.Objects;
-import java.util.Optional;
+import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
@@ -69,25 +72,117 @@ import java.util.function.Supplier;
 public class DiscordAPIImpl implements DiscordAPI {
 
     private final DiscordSRV discordSRV;
+    private final Logger logger;
     private final DiscordCommandRegistry commandRegistry;
-    private final AsyncLoadingCache<Long, WebhookClient<Message>> cachedClients;
+    private final AsyncLoadingCache<Long, WebhookPool> cachedClients;
+    private final Cache<Long, Long> webhookMessages;
+    private final DiscordMutationQueue mutationQueue;
+    private final ChannelSendQueues sendQueues;
 
     public DiscordAPIImpl(DiscordSRV discordSRV) {
         this.discordSRV = discordSRV;
+        this.logger = new NamedLogger(discordSRV, "DISCORD_API");
         this.commandRegistry = new DiscordCommandRegistry(discordSRV);
         this.cachedClients = discordSRV.caffeineBuilder()
                 .expireAfter(new WebhookCacheExpiry())
                 .buildAsync(new WebhookCacheLoader());
+        this.webhookMessages = discordSRV.caffeineBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(1, TimeUnit.DAYS)
+                .build();
+        this.mutationQueue = new DiscordMutationQueue(this);
+        this.sendQueues = new ChannelSendQueues(discordSRV);
     }
 
-    public Task<WebhookClient<Message>> queryWebhookClient(long channelId) {
+    public DiscordMutationQueue mutationQueue() {
+        return mutationQueue;
+    }
+
+    public ChannelSendQueues sendQueues() {
+        return sendQueues;
+    }
+
+    public Task<WebhookPool> queryWebhookPool(long channelId) {
         return Task.of(cachedClients.get(channelId));
     }
 
-    public AsyncLoadingCache<Long, WebhookClient<Message>> getCachedClients() {
+    public Task<WebhookClient<Message>> queryWebhookClient(long channelId) {
+        return queryWebhookPool(channelId).thenApply(pool -> pool.clients().get(0));
+    }
+
+    /**
+     * Gets the webhook that sent the given message.
+     * @param webhookChannelId the id of the channel the webhooks belong to
+     * @param channel the channel the message is in
+     * @param messageId the id of the message
+     * @return the webhook client that owns the message, or the first webhook if the owner could not be determined
+     */
+    public Task<WebhookClient<Message>> queryWebhookClientForMessage(long webhookChannelId, GuildMessageChannel channel, long messageId) {
+        return queryWebhookPool(webhookChannelId).then(pool -> {
+            if (pool.size() == 1) {
+                return Task.completed(pool.clients().get(0));
+            }
+
+            Long webhookId = webhookMessages.getIfPresent(messageId);
+            if (webhookId != null) {
+                WebhookClient<Message> client = pool.byId(webhookId);
+                if (client != null) {
+                    return Task.completed(client);
+                }
+            }
+
+            // Not sent recently, the author of a webhook message is the webhook
+            return toTask(() -> channel.retrieveMessageById(messageId))
+                    .thenApply(message -> message.getAuthor().getIdLong())
+                    .mapException(t -> 0L)
+                    .thenApply(authorId -> {
+                        WebhookClient<Message> client = pool.byId(authorId);
+                        return client != null ? client : pool.clients().get(0);
+                    });
+        });
+    }
+
+    /**
+     * Remembers which webhook sent a message, for editing and deleting it later.
+     * @param messageId the id of the message
+     * @param webhookId the id of the webhook
+     */
+    public void recordWebhookMessage(long messageId, long webhookId) {
+        webhookMessages.put(messageId, webhookId);
+    }
+
+    public AsyncLoadingCache<Long, WebhookPool> getCachedClients() {
         return cachedClients;
     }
 
+    /**
+     * Gets the webhook pool for the given channel, if it has been loaded successfully.
+     * @param channelId the channel id
+     * @return the webhook pool or {@code null}
+     */
+    public @Nullable WebhookPool getLoadedWebhookPool(long channelId) {
+        CompletableFuture<WebhookPool> future = cachedClients.getIfPresent(channelId);
+        if (future == null || !future.isDone() || future.isCompletedExceptionally()) {
+            return null;
+        }
+        return future.join();
+    }
+
+    /**
+     * Discards the loaded webhook pools, so they are loaded again with the current configuration when next used.
+     */
+    public void invalidateWebhookPools() {
+        cachedClients.synchronous().invalidateAll();
+    }
+
+    /**
+     * The configured amount of webhooks per channel.
+     * @return the pool size, between 1 and 10
+     */
+    public int webhookPoolSize() {
+        return Math.max(1, Math.min(10, discordSRV.config().webhooks.webhooksPerChannel));
+    }
+
     public <T> Task<T> toTask(Supplier<RestAction<T>> jdaRestActionSupplier) {
         try {
             RestAction<T> restAction = jdaRestActionSupplier.get();
@@ -344,13 +439,17 @@ public class DiscordAPIImpl implements DiscordAPI {
         return commandRegistry;
     }
 
-    private class WebhookCacheLoader implements AsyncCacheLoader<Long, WebhookClient<Message>> {
+    private static String webhookName(int index) {
+        return index == 0 ? "DSRV" : "DSRV " + (index + 1);
+    }
+
+    private class WebhookCacheLoader implements AsyncCacheLoader<Long, WebhookPool> {
 
         @Override
-        public @NotNull CompletableFuture<WebhookClient<Message>> asyncLoad(@NotNull Long channelId, @NotNull Executor executor) {
+        public @NotNull CompletableFuture<WebhookPool> asyncLoad(@NotNull Long channelId, @NotNull Executor executor) {
             JDA jda = discordSRV.jda();
             if (jda == null) {
-                CompletableFuture<WebhookClient<Message>> future = new CompletableFuture<>();
+                CompletableFuture<WebhookPool> future = new CompletableFuture<>();
                 future.completeExceptionally(new NotReadyException());
                 return future;
             }
@@ -358,43 +457,60 @@ public class DiscordAPIImpl implements DiscordAPI {
             GuildChannel channel = jda.getGuildChannelById(channelId);
             IWebhookContainer webhookContainer = channel instanceof IWebhookContainer ? (IWebhookContainer) channel : null;
             if (webhookContainer == null) {
-                CompletableFuture<WebhookClient<Message>> future = new CompletableFuture<>();
+                CompletableFuture<WebhookPool> future = new CompletableFuture<>();
                 future.completeExceptionally(new IllegalArgumentException("Channel could not be found"));
                 return future;
             }
 
-            return toTask(webhookContainer.retrieveWebhooks()).thenApply(webhooks -> {
-                Webhook hook = null;
+            int poolSize = webhookPoolSize();
+            return toTask(webhookContainer.retrieveWebhooks()).then(webhooks -> {
+                Map<String, Webhook> existing = new HashMap<>();
                 for (Webhook webhook : webhooks) {
                     User user = webhook.getOwnerAsUser();
-                    if (user == null
-                            || !user.getId().equals(jda.getSelfUser().getId())
-                            || !webhook.getName().equals("DSRV")) {
+                    if (user == null || !user.getId().equals(jda.getSelfUser().getId())) {
                         continue;
                     }
 
-                    hook = webhook;
-                    break;
+                    existing.putIfAbsent(webhook.getName(), webhook);
                 }
 
-                return hook;
-            }).then(webhook -> {
-                if (webhook != null) {
-                    return Task.completed(webhook);
+                // Reuse webhooks by name, create the missing ones
+                List<Task<Webhook>> pool = new ArrayList<>(poolSize);
+                for (int i = 0; i < poolSize; i++) {
+                    String name = webhookName(i);
+                    Webhook webhook = existing.get(name);
+                    Task<Webhook> webhookFuture = webhook != null ? Task.completed(webhook) : toTask(webhookContainer.createWebhook(name));
+                    pool.add(webhookFuture.mapException(t -> {
+                        logger.debug("Failed to create webhook \"" + name + "\" in " + channel, t);
+                        return null;
+                    }));
                 }
-
-                return toTask(webhookContainer.createWebhook("DSRV"));
-            }).thenApply(webhook -> (WebhookClient<Message>)
-                    WebhookClient.createClient(
+                return Task.allOf(pool);
+            }).thenApply(webhooks -> {
+                List<WebhookClient<Message>> clients = new ArrayList<>(webhooks.size());
+                for (Webhook webhook : webhooks) {
+                    if (webhook == null) {
+                        continue;
+                    }
+                    clients.add(WebhookClient.createClient(
                             webhook.getJDA(),
                             webhook.getId(),
                             Objects.requireNonNull(webhook.getToken())
-                    )
-            ).getFuture();
+                    ));
+                }
+                if (clients.isEmpty()) {
+                    throw new IllegalStateException("No webhooks could be created in " + channel);
+                }
+                if (clients.size() < poolSize) {
+                    logger.warning("Only " + clients.size() + " of " + poolSize + " webhooks could be created in " + channel
+                                           + ", check the channel's webhook limit and permissions");
+                }
+                return new WebhookPool(clients);
+            }).getFuture();
         }
     }
 
-    private class WebhookCacheExpiry implements Expiry<Long, WebhookClient<Message>> {
+    private class WebhookCacheExpiry implements Expiry<Long, WebhookPool> {
 
         private boolean isConfiguredChannel(Long channelId) {
             for (BaseChannelConfig config : discordSRV.config().channels.values()) {
@@ -420,17 +536,17 @@ public class DiscordAPIImpl implements DiscordAPI {
         }
 
         @Override
-        public long expireAfterCreate(@NotNull Long channelId, @NotNull WebhookClient webhookClient, long currentTime) {
+        public long expireAfterCreate(@NotNull Long channelId, @NotNull WebhookPool webhookPool, long currentTime) {
             return expireAfterWrite(channelId);
         }
 
         @Override
-        public long expireAfterUpdate(@NotNull Long channelId, @NotNull WebhookClient webhookClient, long currentTime, long currentDuration) {
+        public long expireAfterUpdate(@NotNull Long channelId, @NotNull WebhookPool webhookPool, long currentTime, long currentDuration) {
             return expireAfterWrite(channelId);
         }
 
         @Override
-        public long expireAfterRead(@NotNull Long channelId, @NotNull WebhookClient webhookClient, long currentTime, long currentDuration) {
+        public long expireAfterRead(@NotNull Long channelId, @NotNull WebhookPool webhookPool, long currentTime, long currentDuration) {
             return isConfiguredChannel(channelId) ? Long.MAX_VALUE : TimeUnit.MINUTES.toNanos(10);
         }
     }
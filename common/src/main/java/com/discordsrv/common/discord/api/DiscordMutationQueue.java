@@ -0,0 +1,346 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2025 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.discord.api;
+
+import com.discordsrv.api.task.Task;
+import com.discordsrv.common.DiscordSRV;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.entities.Role;
+import net.dv8tion.jda.api.requests.RestAction;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Queue for Discord REST mutations made in the background, like synchronizing roles, nicknames and bans.
+ * Only a few queued mutations are sent at a time, so they don't fill up JDA's rate limit buckets ahead of
+ * messages and console relay, which are sent directly.
+ * Role additions and removals for the same member that are waiting in the queue are merged into one request,
+ * only one role change per member is in progress at a time.
+ */
+public class DiscordMutationQueue {
+
+    /**
+     * The amount of queued mutations that may be in progress at the same time.
+     */
+    private static final int MAXIMUM_IN_FLIGHT = 2;
+
+    public enum Priority {
+        /**
+         * Sent as soon as possible, ignoring the in flight limit.
+         */
+        HIGH,
+        NORMAL,
+        LOW
+    }
+
+    private final DiscordAPIImpl discordAPI;
+
+    // Guarded by "queues"
+    private final Map<Priority, Deque<Mutation>> queues = new EnumMap<>(Priority.class);
+    private final Map<String, RoleMutation> pendingRoleMutations = new HashMap<>();
+    private final Set<String> inFlightRoleMutations = new HashSet<>();
+    private int inFlight = 0;
+    private int maximumQueued = 0;
+    private boolean draining = false;
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong mergedRoleChanges = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    public DiscordMutationQueue(DiscordAPIImpl discordAPI) {
+        this.discordAPI = discordAPI;
+        for (Priority priority : Priority.values()) {
+            queues.put(priority, new ArrayDeque<>());
+        }
+    }
+
+    /**
+     * Queues a mutation.
+     * @param priority the priority of the mutation
+     * @param jdaRestActionSupplier the supplier for the JDA rest action, called when the mutation is sent
+     * @return a future completed with the result of the rest action
+     * @param <T> the result type
+     */
+    public <T> Task<T> submit(Priority priority, Supplier<RestAction<T>> jdaRestActionSupplier) {
+        GenericMutation<T> mutation = new GenericMutation<>(priority, jdaRestActionSupplier);
+        enqueue(mutation);
+        return mutation.task;
+    }
+
+    /**
+     * Queues adding or removing a role for a member, merging it into a role change waiting for the same member if there is one.
+     * @param priority the priority of the change, if it is merged the priority of the change it is merged into is used
+     * @param member the member
+     * @param role the role to add or remove
+     * @param add {@code true} to add the role, {@code false} to remove it
+     * @return a future completed once the role change (including any other merged changes) has been made
+     */
+    public Task<Void> modifyRole(Priority priority, Member member, Role role, boolean add) {
+        Guild guild = member.getGuild();
+        String key = guild.getId() + ":" + member.getId();
+
+        RoleMutation mutation;
+        synchronized (queues) {
+            mutation = pendingRoleMutations.get(key);
+            if (mutation != null) {
+                mergedRoleChanges.incrementAndGet();
+                mutation.put(role, add);
+                return mutation.task;
+            }
+
+            mutation = new RoleMutation(priority, key, guild, member.getIdLong());
+            mutation.put(role, add);
+            pendingRoleMutations.put(key, mutation);
+        }
+
+        enqueue(mutation);
+        return mutation.task;
+    }
+
+    private void enqueue(Mutation mutation) {
+        submitted.incrementAndGet();
+        synchronized (queues) {
+            queues.get(mutation.priority).add(mutation);
+            maximumQueued = Math.max(maximumQueued, queued());
+        }
+        drain();
+    }
+
+    private void drain() {
+        synchronized (queues) {
+            if (draining) {
+                // Mutations that complete immediately (for example when JDA throws before sending) would otherwise
+                // start the next one on the same stack, the drain that is already running picks up the freed slot
+                return;
+            }
+            draining = true;
+        }
+
+        boolean done = false;
+        try {
+            while (!done) {
+                done = startNext();
+            }
+        } finally {
+            if (!done) {
+                synchronized (queues) {
+                    draining = false;
+                }
+            }
+        }
+    }
+
+    /**
+     * Starts the next mutation, if there is one that may be started.
+     * @return {@code true} if nothing was started, in which case draining has stopped
+     */
+    private boolean startNext() {
+        Mutation mutation = null;
+        synchronized (queues) {
+            for (Map.Entry<Priority, Deque<Mutation>> entry : queues.entrySet()) {
+                if (entry.getKey() != Priority.HIGH && inFlight >= MAXIMUM_IN_FLIGHT) {
+                    break;
+                }
+
+                mutation = poll(entry.getValue());
+                if (mutation != null) {
+                    break;
+                }
+            }
+            if (mutation == null) {
+                draining = false;
+                return true;
+            }
+
+            if (mutation instanceof RoleMutation) {
+                // No longer accepting changes
+                String key = ((RoleMutation) mutation).key;
+                pendingRoleMutations.remove(key, mutation);
+                inFlightRoleMutations.add(key);
+            }
+            inFlight++;
+        }
+
+        start(mutation);
+        return false;
+    }
+
+    private Mutation poll(Deque<Mutation> queue) {
+        Iterator<Mutation> iterator = queue.iterator();
+        while (iterator.hasNext()) {
+            Mutation mutation = iterator.next();
+            if (mutation instanceof RoleMutation && inFlightRoleMutations.contains(((RoleMutation) mutation).key)) {
+                // Waits for the previous role change of the same member
+                continue;
+            }
+
+            iterator.remove();
+            return mutation;
+        }
+        return null;
+    }
+
+    private void start(Mutation mutation) {
+        mutation.start().whenComplete((__, t) -> {
+            if (t != null) {
+                failed.incrementAndGet();
+            }
+            synchronized (queues) {
+                inFlight--;
+                if (mutation instanceof RoleMutation) {
+                    inFlightRoleMutations.remove(((RoleMutation) mutation).key);
+                }
+            }
+            drain();
+        });
+    }
+
+    private int queued() {
+        int queued = 0;
+        for (Deque<Mutation> queue : queues.values()) {
+            queued += queue.size();
+        }
+        return queued;
+    }
+
+    /**
+     * Gets the current state of the queue, for debugging.
+     * @return queue depths per priority and counters
+     */
+    public Map<String, Object> metrics() {
+        Map<String, Object> values = new LinkedHashMap<>();
+        synchronized (queues) {
+            for (Map.Entry<Priority, Deque<Mutation>> entry : queues.entrySet()) {
+                values.put("queued." + entry.getKey().name().toLowerCase(Locale.ROOT), entry.getValue().size());
+            }
+            values.put("maximumQueued", maximumQueued);
+            values.put("inFlight", inFlight);
+        }
+        values.put("submitted", submitted.get());
+        values.put("mergedRoleChanges", mergedRoleChanges.get());
+        values.put("failed", failed.get());
+        return values;
+    }
+
+    private abstract static class Mutation {
+
+        protected final Priority priority;
+
+        protected Mutation(Priority priority) {
+            this.priority = priority;
+        }
+
+        protected abstract Task<?> start();
+    }
+
+    private class GenericMutation<T> extends Mutation {
+
+        private final Supplier<RestAction<T>> jdaRestActionSupplier;
+        private final Task<T> task = new Task<>();
+
+        private GenericMutation(Priority priority, Supplier<RestAction<T>> jdaRestActionSupplier) {
+            super(priority);
+            this.jdaRestActionSupplier = jdaRestActionSupplier;
+        }
+
+        @Override
+        protected Task<?> start() {
+            return discordAPI.toTask(jdaRestActionSupplier).whenComplete((result, t) -> {
+                if (t != null) {
+                    task.completeExceptionally(t);
+                } else {
+                    task.complete(result);
+                }
+            });
+        }
+    }
+
+    private class RoleMutation extends Mutation {
+
+        private final String key;
+        private final Guild guild;
+        private final long memberId;
+        private final Task<Void> task = new Task<>();
+
+        // Guarded by "queues" until started
+        private final Map<Long, Role> rolesToAdd = new LinkedHashMap<>();
+        private final Map<Long, Role> rolesToRemove = new LinkedHashMap<>();
+
+        private RoleMutation(Priority priority, String key, Guild guild, long memberId) {
+            super(priority);
+            this.key = key;
+            this.guild = guild;
+            this.memberId = memberId;
+        }
+
+        private void put(Role role, boolean add) {
+            // The latest change for a role wins
+            long roleId = role.getIdLong();
+            if (add) {
+                rolesToRemove.remove(roleId);
+                rolesToAdd.put(roleId, role);
+            } else {
+                rolesToAdd.remove(roleId);
+                rolesToRemove.put(roleId, role);
+            }
+        }
+
+        @Override
+        protected Task<?> start() {
+            List<Role> toAdd;
+            List<Role> toRemove;
+            synchronized (queues) {
+                toAdd = new ArrayList<>(rolesToAdd.values());
+                toRemove = new ArrayList<>(rolesToRemove.values());
+            }
+
+            // The member may have been waiting in the queue for a while, the role list must be current
+            Member cachedMember = guild.getMemberById(memberId);
+            Task<Member> memberFuture = cachedMember != null
+                    ? Task.completed(cachedMember)
+                    : discordAPI.toTask(() -> guild.retrieveMemberById(memberId));
+
+            return memberFuture.then(member -> {
+                List<Role> roles = member.getRoles();
+                toAdd.removeIf(roles::contains);
+                toRemove.removeIf(role -> !roles.contains(role));
+
+                if (toAdd.isEmpty() && toRemove.isEmpty()) {
+                    return Task.<Void>completed(null);
+                }
+                if (toAdd.size() + toRemove.size() == 1) {
+                    // Doesn't send the rest of the member's roles
+                    return toAdd.isEmpty()
+                           ? discordAPI.toTask(() -> guild.removeRoleFromMember(member, toRemove.get(0)))
+                           : discordAPI.toTask(() -> guild.addRoleToMember(member, toAdd.get(0)));
+                }
+                return discordAPI.toTask(() -> guild.modifyMemberRoles(member, toAdd, toRemove));
+            }).whenComplete((result, t) -> {
+                if (t != null) {
+                    task.completeExceptionally(t);
+                } else {
+                    task.complete(null);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2025 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.discord.api;
+
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.WebhookClient;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The webhooks used for sending messages to a channel.
+ * Messages with the same webhook username always go through the same webhook, so messages from the same author stay in order.
+ */
+public class WebhookPool {
+
+    private final List<WebhookClient<Message>> clients;
+
+    public WebhookPool(@NotNull List<WebhookClient<Message>> clients) {
+        if (clients.isEmpty()) {
+            throw new IllegalArgumentException("At least one webhook is required");
+        }
+        this.clients = Collections.unmodifiableList(clients);
+    }
+
+    public List<WebhookClient<Message>> clients() {
+        return clients;
+    }
+
+    public int size() {
+        return clients.size();
+    }
+
+    /**
+     * The webhook to use for messages with the given webhook username.
+     * @param webhookUsername the webhook username of the message
+     * @return the webhook client
+     */
+    public WebhookClient<Message> forAuthor(@Nullable String webhookUsername) {
+        return clients.get(slot(webhookUsername, clients.size()));
+    }
+
+    /**
+     * The index of the webhook to use for messages with the given webhook username, in a pool of the given size.
+     * @param webhookUsername the webhook username of the message
+     * @param poolSize the amount of webhooks in the pool
+     * @return the index of the webhook
+     */
+    public static int slot(@Nullable String webhookUsername, int poolSize) {
+        if (poolSize <= 1 || webhookUsername == null) {
+            return 0;
+        }
+        return Math.floorMod(webhookUsername.hashCode(), poolSize);
+    }
+
+    /**
+     * Gets the webhook in this pool with the given id.
+     * @param webhookId the id of the webhook
+     * @return the webhook client or {@code null} if the webhook is not part of this pool
+     */
+    public @Nullable WebhookClient<Message> byId(long webhookId) {
+        for (WebhookClient<Message> client : clients) {
+            if (client.getIdLong() == webhookId) {
+                return client;
+            }
+        }
+        return null;
+    }
+
+    public boolean contains(long webhookId) {
+        return byId(webhookId) != null;
+    }
+}
@@ -24,6 +24,8 @@ import com.discordsrv.api.discord.entity.message.ReceivedDiscordMessage;
 import com.discordsrv.api.discord.entity.message.SendableDiscordMessage;
 import com.discordsrv.api.task.Task;
 import com.discordsrv.common.DiscordSRV;
+import com.discordsrv.common.discord.api.ChannelSendQueues;
+import com.discordsrv.common.discord.api.WebhookPool;
 import com.discordsrv.common.discord.api.entity.message.ReceivedDiscordMessageImpl;
 import com.discordsrv.common.discord.api.entity.message.util.SendableDiscordMessageUtil;
 import net.dv8tion.jda.api.entities.Message;
@@ -51,8 +53,24 @@ public abstract class AbstractDiscordGuildMessageChannel<T extends GuildMessageC
         this.guild = discordSRV.discordAPI().getGuild(channel.getGuild());
     }
 
+    /**
+     * The id of the channel whose webhooks are used to send messages to this channel.
+     * @return the channel id
+     */
+    protected long webhookChannelId() {
+        return getId();
+    }
+
+    public Task<WebhookPool> queryWebhookPool() {
+        return discordSRV.discordAPI().queryWebhookPool(webhookChannelId());
+    }
+
     public Task<WebhookClient<Message>> queryWebhookClient() {
-        return discordSRV.discordAPI().queryWebhookClient(getId());
+        return discordSRV.discordAPI().queryWebhookClient(webhookChannelId());
+    }
+
+    protected Task<WebhookClient<Message>> queryWebhookClient(long messageId) {
+        return discordSRV.discordAPI().queryWebhookClientForMessage(webhookChannelId(), channel, messageId);
     }
 
     @Override
@@ -80,6 +98,36 @@ public abstract class AbstractDiscordGuildMessageChannel<T extends GuildMessageC
         return sendInternal(message);
     }
 
+    /**
+     * Sends a message through this channel's send queue, used for messages relayed by DiscordSRV itself.
+     * @param message the message
+     * @param priority the priority of the message in the queue
+     * @return a future completed with the sent message
+     */
+    public @NotNull Task<ReceivedDiscordMessage> sendMessage(@NotNull SendableDiscordMessage message, ChannelSendQueues.Priority priority) {
+        ChannelSendQueues sendQueues = discordSRV.discordAPI().sendQueues();
+        if (!message.isWebhookMessage()) {
+            return sendQueues.enqueue("channel:" + getId(), priority, this::getId, () -> sendInternal(message));
+        }
+
+        // One lane per webhook in the pool, picked the same way as the pool picks the webhook for the author
+        long webhookChannelId = webhookChannelId();
+        String webhookUsername = message.getWebhookUsername();
+        // Use the size of the loaded pool, it may have fewer webhooks than configured
+        WebhookPool loadedPool = discordSRV.discordAPI().getLoadedWebhookPool(webhookChannelId);
+        int poolSize = loadedPool != null ? loadedPool.size() : discordSRV.discordAPI().webhookPoolSize();
+        int slot = WebhookPool.slot(webhookUsername, poolSize);
+        return sendQueues.enqueue(
+                "webhook:" + webhookChannelId + ":" + slot,
+                priority,
+                () -> {
+                    WebhookPool pool = discordSRV.discordAPI().getLoadedWebhookPool(webhookChannelId);
+                    return pool != null ? pool.forAuthor(webhookUsername).getIdLong() : null;
+                },
+                () -> sendInternal(message)
+        );
+    }
+
     protected <R> WebhookMessageCreateAction<R> mapAction(WebhookMessageCreateAction<R> action) {
         return action;
     }
@@ -90,8 +138,8 @@ public abstract class AbstractDiscordGuildMessageChannel<T extends GuildMessageC
 
         Task<R> createRequest;
         if (message.isWebhookMessage()) {
-            createRequest = queryWebhookClient()
-                    .thenApply(client -> (R) mapAction(client.sendMessage(createData))
+            createRequest = queryWebhookPool()
+                    .thenApply(pool -> (R) mapAction(pool.forAuthor(message.getWebhookUsername()).sendMessage(createData))
                             .setUsername(message.getWebhookUsername())
                             .setAvatarUrl(message.getWebhookAvatarUrl())
                     );
@@ -107,7 +155,12 @@ public abstract class AbstractDiscordGuildMessageChannel<T extends GuildMessageC
 
         return createRequest
                 .then(restAction -> discordSRV.discordAPI().toTask(restAction))
-                .thenApply(msg -> ReceivedDiscordMessageImpl.fromJDA(discordSRV, msg));
+                .thenApply(msg -> {
+                    if (msg.isWebhookMessage()) {
+                        discordSRV.discordAPI().recordWebhookMessage(msg.getIdLong(), msg.getAuthor().getIdLong());
+                    }
+                    return ReceivedDiscordMessageImpl.fromJDA(discordSRV, msg);
+                });
     }
 
     @Override
@@ -131,7 +184,7 @@ public abstract class AbstractDiscordGuildMessageChannel<T extends GuildMessageC
 
         Task<R> editRequest;
         if (message.isWebhookMessage()) {
-            editRequest = queryWebhookClient().thenApply(client -> (R) mapAction(client.editMessageById(id, editData)));
+            editRequest = queryWebhookClient(id).thenApply(client -> (R) mapAction(client.editMessageById(id, editData)));
         } else {
             editRequest = Task.completed(((R) channel.editMessageById(id, editData)));
         }
@@ -149,7 +202,7 @@ public abstract class AbstractDiscordGuildMessageChannel<T extends GuildMessageC
     public Task<Void> deleteMessageById(long id, boolean webhookMessage) {
         Task<Void> future;
         if (webhookMessage) {
-            future = queryWebhookClient()
+            future = queryWebhookClient(id)
                     .then(client -> discordSRV.discordAPI().toTask(() -> mapAction(client.deleteMessageById(id))));
         } else {
             future = discordSRV.discordAPI().toTask(() -> channel.deleteMessageById(id));
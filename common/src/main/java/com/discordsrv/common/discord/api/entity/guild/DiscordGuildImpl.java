@@ -67,6 +67,38 @@ public class DiscordGuildImpl implements DiscordGuild {
                 .thenApply(member -> new DiscordGuildMemberImpl(discordSRV, member));
     }
 
+    @Override
+    public @NotNull Task<List<DiscordGuildMember>> retrieveMembersByIds(@NotNull Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Task.completed(Collections.emptyList());
+        }
+
+        long[] idArray = new long[ids.size()];
+        int i = 0;
+        for (Long id : ids) {
+            idArray[i++] = id;
+        }
+
+        // Requested over the gateway, split into chunks by JDA
+        Task<List<Member>> future = new Task<>();
+        try {
+            guild.retrieveMembersByIds(false, idArray)
+                    .onSuccess(future::complete)
+                    .onError(future::completeExceptionally);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            // Missing the server members intent
+            return Task.failed(e);
+        }
+
+        return future.thenApply(members -> {
+            List<DiscordGuildMember> guildMembers = new ArrayList<>(members.size());
+            for (Member member : members) {
+                guildMembers.add(discordSRV.discordAPI().getGuildMember(member));
+            }
+            return guildMembers;
+        });
+    }
+
     @Override
     public @Nullable DiscordGuildMember getMemberById(long id) {
         Member member = guild.getMemberById(id);
@@ -32,6 +32,7 @@ import com.discordsrv.api.discord.exception.RestErrorResponseException;
 import com.discordsrv.api.placeholder.annotation.PlaceholderPrefix;
 import com.discordsrv.api.task.Task;
 import com.discordsrv.common.DiscordSRV;
+import com.discordsrv.common.discord.api.WebhookPool;
 import net.dv8tion.jda.api.entities.*;
 import net.dv8tion.jda.api.requests.ErrorResponse;
 import org.jetbrains.annotations.NotNull;
@@ -60,16 +61,15 @@ public class ReceivedDiscordMessageImpl implements ReceivedDiscordMessage {
 
         boolean self = false;
         if (webhookMessage) {
-            CompletableFuture<WebhookClient<Message>> clientFuture = discordSRV.discordAPI()
+            CompletableFuture<WebhookPool> poolFuture = discordSRV.discordAPI()
                     .getCachedClients()
                     .getIfPresent(channel instanceof DiscordThreadChannel
                                   ? ((DiscordThreadChannel) channel).getParentChannel().getId()
                                   : channel.getId()
                     );
 
-            if (clientFuture != null) {
-                long clientId = clientFuture.join().getIdLong();
-                self = clientId == user.getId();
+            if (poolFuture != null) {
+                self = poolFuture.join().contains(user.getId());
             }
         } else {
             self = user.isSelf();
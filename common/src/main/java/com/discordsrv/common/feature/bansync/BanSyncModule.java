@@ -34,6 +34,7 @@ import com.discordsrv.common.abstraction.sync.enums.SyncDirection;
 import com.discordsrv.common.abstraction.sync.result.GenericSyncResults;
 import com.discordsrv.common.abstraction.sync.result.ISyncResult;
 import com.discordsrv.common.config.main.BanSyncConfig;
+import com.discordsrv.common.discord.api.DiscordMutationQueue;
 import com.discordsrv.common.feature.bansync.enums.BanSyncCause;
 import com.discordsrv.common.feature.bansync.enums.BanSyncResult;
 import com.discordsrv.common.helper.Someone;
@@ -264,14 +265,16 @@ public class BanSyncModule extends AbstractSyncModule<DiscordSRV, BanSyncConfig,
 
         UserSnowflake snowflake = UserSnowflake.fromId(userId);
         if (newState != null) {
-            return discordSRV.discordAPI().toTask(
-                    guild.ban(snowflake, config.discordMessageHoursToDelete, TimeUnit.HOURS)
+            return discordSRV.discordAPI().mutationQueue().submit(
+                    DiscordMutationQueue.Priority.NORMAL,
+                    () -> guild.ban(snowflake, config.discordMessageHoursToDelete, TimeUnit.HOURS)
                             .reason(discordSRV.placeholderService().replacePlaceholders(config.discordBanReasonFormat, newState))
                     )
                     .thenApply(v -> GenericSyncResults.ADD_DISCORD);
         } else {
-            return discordSRV.discordAPI().toTask(
-                    guild.unban(snowflake)
+            return discordSRV.discordAPI().mutationQueue().submit(
+                    DiscordMutationQueue.Priority.NORMAL,
+                    () -> guild.unban(snowflake)
                             .reason(discordSRV.placeholderService().replacePlaceholders(config.discordUnbanReasonFormat))
                     )
                     .thenApply(v -> GenericSyncResults.REMOVE_DISCORD);
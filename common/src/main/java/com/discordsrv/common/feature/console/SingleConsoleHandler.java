@@ -37,6 +37,7 @@ import com.discordsrv.common.config.main.ConsoleConfig;
 import com.discordsrv.common.config.main.generic.DestinationConfig;
 import com.discordsrv.common.config.main.generic.GameCommandExecutionConditionConfig;
 import com.discordsrv.common.core.logging.Logger;
+import com.discordsrv.common.discord.api.ChannelSendQueues;
 import com.discordsrv.common.feature.console.entry.LogEntry;
 import com.discordsrv.common.feature.console.entry.LogMessage;
 import com.discordsrv.common.feature.console.message.ConsoleMessage;
@@ -641,7 +642,8 @@ public class SingleConsoleHandler {
                             latestChannelId.set(channel.getId());
                         }
 
-                        return channel.sendMessage(sendableMessage);
+                        return discordSRV.discordAPI().sendQueues()
+                                .sendMessage(channel, sendableMessage, ChannelSendQueues.Priority.HIGH);
                     }).thenApply(msg -> {
                         if (!lastEdit && msg != null && messageCache != null) {
                             synchronized (mostRecentMessageId) {
@@ -89,6 +89,8 @@ public class DebugReport {
         }
 
         addFile("connections.json", 40, this::activeLimitedConnectionsConfig);
+        addFile("discord-mutations.json", 30, this::discordMutations);
+        addFile("discord-send-queues.json", 30, this::discordSendQueues);
     }
 
     public Paste upload(PasteService service) throws Throwable {
@@ -262,6 +264,14 @@ public class DebugReport {
         return new KeyValueDebugFile(values, true);
     }
 
+    private DebugFile discordMutations() {
+        return new KeyValueDebugFile(discordSRV.discordAPI().mutationQueue().metrics());
+    }
+
+    private DebugFile discordSendQueues() {
+        return new KeyValueDebugFile(discordSRV.discordAPI().sendQueues().metrics(), true);
+    }
+
     private DebugFile.Named readFile(int order, Path file, String overwriteFileName) {
         String fileName = overwriteFileName != null ? overwriteFileName : file.getFileName().toString();
         if (!Files.exists(file)) {
@@ -18,6 +18,8 @@
 
 package com.discordsrv.common.feature.groupsync;
 
+import com.discordsrv.api.discord.entity.guild.DiscordGuild;
+import com.discordsrv.api.discord.entity.guild.DiscordGuildMember;
 import com.discordsrv.api.discord.entity.guild.DiscordRole;
 import com.discordsrv.api.discord.exception.RestErrorResponseException;
 import com.discordsrv.api.eventbus.Subscribe;
@@ -28,9 +30,11 @@ import com.discordsrv.api.task.Task;
 import com.discordsrv.common.DiscordSRV;
 import com.discordsrv.common.abstraction.sync.AbstractSyncModule;
 import com.discordsrv.common.abstraction.sync.SyncFail;
+import com.discordsrv.common.abstraction.sync.SyncStates;
 import com.discordsrv.common.abstraction.sync.result.GenericSyncResults;
 import com.discordsrv.common.abstraction.sync.result.ISyncResult;
 import com.discordsrv.common.config.main.GroupSyncConfig;
+import com.discordsrv.common.discord.api.DiscordMutationQueue;
 import com.discordsrv.common.feature.debug.DebugGenerateEvent;
 import com.discordsrv.common.feature.debug.file.TextDebugFile;
 import com.discordsrv.common.feature.groupsync.enums.GroupSyncCause;
@@ -40,6 +44,7 @@ import com.github.benmanes.caffeine.cache.Cache;
 import net.dv8tion.jda.api.requests.ErrorResponse;
 import org.jetbrains.annotations.Nullable;
 
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Future;
@@ -89,6 +94,16 @@ public class GroupSyncModule extends AbstractSyncModule<DiscordSRV, GroupSyncCon
         return discordSRV.config().groupSync.getEntries();
     }
 
+    @Override
+    protected boolean isIncrementalResyncSupported() {
+        return getPermissionProvider() instanceof ReportsGroupChanges;
+    }
+
+    @Override
+    protected Duration debounceWindow() {
+        return Duration.ofMillis(discordSRV.config().groupSync.debounceMilliseconds);
+    }
+
     @Override
     protected @Nullable ISyncResult doesStateMatch(Boolean one, Boolean two) {
         if (one == two) {
@@ -222,6 +237,66 @@ public class GroupSyncModule extends AbstractSyncModule<DiscordSRV, GroupSyncCon
                 .thenApply(member -> member.hasRole(role));
     }
 
+    @Override
+    protected Task<SyncStates<GroupSyncConfig.Entry, Long, Boolean>> getDiscordBulk(List<GroupSyncConfig.Entry> configs, Set<Long> userIds) {
+        // Members are retrieved once per server, for all the roles in it
+        Map<DiscordGuild, List<GroupSyncConfig.Entry>> configsByGuild = new LinkedHashMap<>();
+        for (GroupSyncConfig.Entry config : configs) {
+            DiscordRole role = discordSRV.discordAPI().getRoleById(config.roleId);
+            if (role != null) {
+                configsByGuild.computeIfAbsent(role.getGuild(), key -> new ArrayList<>()).add(config);
+            }
+        }
+
+        SyncStates<GroupSyncConfig.Entry, Long, Boolean> states = new SyncStates<>();
+        List<Task<Void>> retrievals = new ArrayList<>(configsByGuild.size());
+        for (Map.Entry<DiscordGuild, List<GroupSyncConfig.Entry>> entry : configsByGuild.entrySet()) {
+            DiscordGuild guild = entry.getKey();
+            retrievals.add(guild.retrieveMembersByIds(userIds).thenApply(members -> {
+                Map<Long, DiscordGuildMember> membersById = new HashMap<>(members.size());
+                for (DiscordGuildMember member : members) {
+                    membersById.put(member.getUser().getId(), member);
+                }
+
+                for (GroupSyncConfig.Entry config : entry.getValue()) {
+                    DiscordRole role = guild.getRoleById(config.roleId);
+                    if (role == null || !guild.getSelfMember().canInteract(role)) {
+                        // Reported by getDiscord
+                        continue;
+                    }
+
+                    for (Long userId : userIds) {
+                        DiscordGuildMember member = membersById.get(userId);
+                        if (member != null) {
+                            states.complete(config, userId, member.hasRole(role));
+                        } else {
+                            states.fail(config, userId, GroupSyncResult.NOT_A_GUILD_MEMBER);
+                        }
+                    }
+                }
+                return (Void) null;
+            }).mapException(t -> {
+                logger().debug("Failed to retrieve members of " + guild + " in bulk", t);
+                return null;
+            }));
+        }
+
+        return Task.allOf(retrievals).thenApply(v -> states);
+    }
+
+    @Override
+    protected Task<SyncStates<GroupSyncConfig.Entry, UUID, Boolean>> getGameBulk(List<GroupSyncConfig.Entry> configs, List<UUID> playerUUIDs) {
+        SyncStates<GroupSyncConfig.Entry, UUID, Boolean> states = new SyncStates<>();
+        for (UUID playerUUID : playerUUIDs) {
+            // Entries for the same group and server context share one lookup
+            Map<String, Task<Boolean>> lookups = new HashMap<>();
+            for (GroupSyncConfig.Entry config : configs) {
+                states.put(config, playerUUID, lookups.computeIfAbsent(config.gameId(), key -> getGame(config, playerUUID)));
+            }
+        }
+        return Task.completed(states);
+    }
+
     @Override
     public Task<Boolean> getGame(GroupSyncConfig.Entry config, UUID playerUUID) {
         PermissionModule.Groups permissionProvider = getPermissionProvider();
@@ -257,9 +332,9 @@ public class GroupSyncModule extends AbstractSyncModule<DiscordSRV, GroupSyncCon
         }
 
         return role.getGuild().retrieveMemberById(userId)
-                .then(member -> stateToApply
-                                ? member.addRole(role).thenApply(v -> (ISyncResult) GenericSyncResults.ADD_DISCORD)
-                                : member.removeRole(role).thenApply(v -> GenericSyncResults.REMOVE_DISCORD)
+                .then(member -> discordSRV.discordAPI().mutationQueue()
+                        .modifyRole(DiscordMutationQueue.Priority.LOW, member.asJDA(), role.asJDA(), stateToApply)
+                        .thenApply(v -> (ISyncResult) (stateToApply ? GenericSyncResults.ADD_DISCORD : GenericSyncResults.REMOVE_DISCORD))
                 ).whenComplete((r, t) -> {
                     if (t != null) {
                         //noinspection DataFlowIssue
@@ -331,4 +406,9 @@ public class GroupSyncModule extends AbstractSyncModule<DiscordSRV, GroupSyncCon
             return permissionProvider.removeGroup(player, groupName);
         }
     }
+
+    /**
+     * A permission provider that reports all group changes through {@link #groupAdded} and {@link #groupRemoved}.
+     */
+    public interface ReportsGroupChanges {}
 }
@@ -78,4 +78,9 @@ public interface LinkProvider {
             Object... additionalContext
     );
     boolean isValidCode(@NotNull String code);
+
+    /**
+     * Stops any background tasks of this provider, called when the provider is replaced or DiscordSRV is shutting down.
+     */
+    default void close() {}
 }
@@ -21,6 +21,8 @@ package com.discordsrv.common.feature.linking.impl;
 import com.discordsrv.api.eventbus.Subscribe;
 import com.discordsrv.api.task.Task;
 import com.discordsrv.common.DiscordSRV;
+import com.discordsrv.common.abstraction.player.IPlayer;
+import com.discordsrv.common.core.storage.LinkChange;
 import com.discordsrv.common.events.player.PlayerConnectedEvent;
 import com.discordsrv.common.feature.linking.LinkProvider;
 import com.discordsrv.common.feature.linking.LinkStore;
@@ -42,6 +44,7 @@ public abstract class CachedLinkProvider implements LinkProvider {
 
     private static final long UNLINKED_USER = -1L;
     private static final UUID UNLINKED_UUID = new UUID(0, 0);
+    private static final long EXPIRY_MINUTES = 5;
 
     protected final DiscordSRV discordSRV;
     private final Cache<Long, UUID> userToPlayer;
@@ -50,12 +53,15 @@ public abstract class CachedLinkProvider implements LinkProvider {
 
     public CachedLinkProvider(DiscordSRV discordSRV) {
         this.discordSRV = discordSRV;
-        this.userToPlayer = discordSRV.caffeineBuilder().build();
+        this.userToPlayer = discordSRV.caffeineBuilder()
+                // Users are not tied to online players, this includes users that are not linked
+                .expireAfterWrite(EXPIRY_MINUTES, TimeUnit.MINUTES)
+                .build();
         this.playerToUser = discordSRV.caffeineBuilder()
                 .expireAfter(new Expiry<UUID, Long>() {
                     @Override
                     public long expireAfterCreate(@NotNull UUID key, @NotNull Long value, long currentTime) {
-                        return TimeUnit.MINUTES.toNanos(5);
+                        return TimeUnit.MINUTES.toNanos(EXPIRY_MINUTES);
                     }
 
                     @Override
@@ -166,6 +172,33 @@ public abstract class CachedLinkProvider implements LinkProvider {
         playerToUser.synchronous().invalidate(playerUUID);
     }
 
+    /**
+     * Clears the cache, online players are cached again.
+     */
+    protected void invalidateCache() {
+        playerToUser.synchronous().invalidateAll();
+        userToPlayer.invalidateAll();
+        for (IPlayer player : discordSRV.playerProvider().allPlayers()) {
+            playerToUser.get(player.uniqueId());
+        }
+    }
+
+    /**
+     * Updates cached entries for a link change made elsewhere, players and users that aren't cached are not added to the cache.
+     */
+    protected void updateCache(LinkChange change) {
+        UUID playerUUID = change.player();
+        long userId = change.userId();
+
+        if (playerToUser.getIfPresent(playerUUID) != null) {
+            // Replacing the value also removes the previously linked user from userToPlayer
+            playerToUser.put(playerUUID, CompletableFuture.completedFuture(change.isLink() ? userId : UNLINKED_USER));
+        }
+        if (userToPlayer.getIfPresent(userId) != null) {
+            userToPlayer.put(userId, change.isLink() ? playerUUID : UNLINKED_UUID);
+        }
+    }
+
     public static abstract class Store extends CachedLinkProvider implements LinkStore {
 
         public Store(DiscordSRV discordSRV) {
@@ -0,0 +1,378 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2025 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.feature.linking.impl;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+
+/**
+ * An in-memory index of all linked accounts, in both directions.
+ * Links are stored in parallel arrays (24 bytes per link) that are never reordered while links are added or removed,
+ * with an array of their indexes sorted by user id and an open addressing table of their indexes for Player UUIDs.
+ * Each user and player is in at most one link, adding a link replaces existing links for the same user or player.
+ */
+public class LinkIndex {
+
+    private static final int EMPTY = -1;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private long[] userIds;
+    private long[] mostSignificantBits;
+    private long[] leastSignificantBits;
+    private int size;
+
+    // Indexes into the arrays above, sorted by user id
+    private int[] order;
+
+    // Indexes into the arrays above, linear probing
+    private int[] table;
+
+    public LinkIndex() {
+        this(16);
+    }
+
+    private LinkIndex(int capacity) {
+        this.userIds = new long[capacity];
+        this.mostSignificantBits = new long[capacity];
+        this.leastSignificantBits = new long[capacity];
+        this.order = new int[capacity];
+        this.table = newTable(capacity);
+    }
+
+    /**
+     * Creates an index from the given links, in bulk.
+     * @param userIds the user ids
+     * @param players the player UUIDs, in the same order as the user ids
+     * @param size the amount of links in the arrays
+     * @return the index
+     */
+    public static LinkIndex of(long[] userIds, UUID[] players, int size) {
+        LinkIndex index = new LinkIndex(Math.max(16, size));
+        for (int i = 0; i < size; i++) {
+            index.userIds[i] = userIds[i];
+            index.mostSignificantBits[i] = players[i].getMostSignificantBits();
+            index.leastSignificantBits[i] = players[i].getLeastSignificantBits();
+        }
+        index.size = size;
+        index.sort(0, size - 1);
+        index.removeDuplicates();
+        return index;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Nullable
+    public Long getUserId(@NotNull UUID player) {
+        lock.readLock().lock();
+        try {
+            int index = findPlayer(player.getMostSignificantBits(), player.getLeastSignificantBits());
+            return index != EMPTY ? userIds[index] : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Nullable
+    public UUID getPlayerUUID(long userId) {
+        lock.readLock().lock();
+        try {
+            int position = findUser(userId);
+            if (position < 0) {
+                return null;
+            }
+            int index = order[position];
+            return new UUID(mostSignificantBits[index], leastSignificantBits[index]);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Calls the given consumer with every link, ordered by user id.
+     */
+    public void forEach(@NotNull BiConsumer<UUID, Long> consumer) {
+        lock.readLock().lock();
+        try {
+            for (int i = 0; i < size; i++) {
+                int index = order[i];
+                consumer.accept(new UUID(mostSignificantBits[index], leastSignificantBits[index]), userIds[index]);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void put(@NotNull UUID player, long userId) {
+        lock.writeLock().lock();
+        try {
+            long most = player.getMostSignificantBits();
+            long least = player.getLeastSignificantBits();
+
+            int existing = findPlayer(most, least);
+            if (existing != EMPTY) {
+                if (userIds[existing] == userId) {
+                    return;
+                }
+                removeAt(existing);
+            }
+
+            int position = findUser(userId);
+            if (position >= 0) {
+                // Replace the player for this user
+                int index = order[position];
+                removeFromTable(index);
+                mostSignificantBits[index] = most;
+                leastSignificantBits[index] = least;
+                insertIntoTable(index);
+                return;
+            }
+
+            position = -(position + 1);
+            if (size == userIds.length) {
+                int capacity = userIds.length * 2;
+                userIds = Arrays.copyOf(userIds, capacity);
+                mostSignificantBits = Arrays.copyOf(mostSignificantBits, capacity);
+                leastSignificantBits = Arrays.copyOf(leastSignificantBits, capacity);
+                order = Arrays.copyOf(order, capacity);
+                table = newTable(capacity);
+                rebuildTable();
+            }
+
+            // New links are added at the end, only the order shifts
+            int index = size++;
+            userIds[index] = userId;
+            mostSignificantBits[index] = most;
+            leastSignificantBits[index] = least;
+            insertIntoTable(index);
+
+            System.arraycopy(order, position, order, position + 1, index - position);
+            order[position] = index;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(@NotNull UUID player) {
+        lock.writeLock().lock();
+        try {
+            int index = findPlayer(player.getMostSignificantBits(), player.getLeastSignificantBits());
+            if (index != EMPTY) {
+                removeAt(index);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeAt(int index) {
+        removeFromTable(index);
+        int position = findUser(userIds[index]);
+        System.arraycopy(order, position + 1, order, position, size - position - 1);
+
+        int last = --size;
+        if (index == last) {
+            return;
+        }
+
+        // Move the last link into the gap, only its table slot and position in the order change
+        int lastSlot = tableSlotOf(last);
+        int lastPosition = findUser(userIds[last]);
+        userIds[index] = userIds[last];
+        mostSignificantBits[index] = mostSignificantBits[last];
+        leastSignificantBits[index] = leastSignificantBits[last];
+        table[lastSlot] = index;
+        order[lastPosition] = index;
+    }
+
+    /**
+     * Finds the position of the given user in {@link #order}.
+     * @return the position, or {@code -(insertion point) - 1} if the user has no link, like {@link Arrays#binarySearch(long[], long)}
+     */
+    private int findUser(long userId) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long middleUserId = userIds[order[middle]];
+            if (middleUserId < userId) {
+                low = middle + 1;
+            } else if (middleUserId > userId) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+
+    //
+    // Player UUID table
+    //
+
+    private static int[] newTable(int capacity) {
+        // At most half full
+        int[] table = new int[Integer.highestOneBit(Math.max(capacity, 8) - 1) << 2];
+        Arrays.fill(table, EMPTY);
+        return table;
+    }
+
+    private int slot(long most, long least) {
+        long hash = most ^ least;
+        int h = (int) (hash ^ (hash >>> 32));
+        h ^= (h >>> 16);
+        return h & (table.length - 1);
+    }
+
+    private int findPlayer(long most, long least) {
+        int mask = table.length - 1;
+        for (int slot = slot(most, least); ; slot = (slot + 1) & mask) {
+            int index = table[slot];
+            if (index == EMPTY) {
+                return EMPTY;
+            }
+            if (mostSignificantBits[index] == most && leastSignificantBits[index] == least) {
+                return index;
+            }
+        }
+    }
+
+    private void insertIntoTable(int index) {
+        int mask = table.length - 1;
+        int slot = slot(mostSignificantBits[index], leastSignificantBits[index]);
+        while (table[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = index;
+    }
+
+    private int tableSlotOf(int index) {
+        int mask = table.length - 1;
+        int slot = slot(mostSignificantBits[index], leastSignificantBits[index]);
+        while (table[slot] != index) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void removeFromTable(int index) {
+        int mask = table.length - 1;
+        int slot = tableSlotOf(index);
+
+        // Shift following entries back, so lookups don't stop at the gap
+        int gap = slot;
+        for (slot = (slot + 1) & mask; table[slot] != EMPTY; slot = (slot + 1) & mask) {
+            int ideal = slot(mostSignificantBits[table[slot]], leastSignificantBits[table[slot]]);
+            if (((slot - ideal) & mask) >= ((slot - gap) & mask)) {
+                table[gap] = table[slot];
+                gap = slot;
+            }
+        }
+        table[gap] = EMPTY;
+    }
+
+    private void rebuildTable() {
+        Arrays.fill(table, EMPTY);
+        for (int i = 0; i < size; i++) {
+            insertIntoTable(i);
+        }
+    }
+
+    //
+    // Bulk loading
+    //
+
+    private void sort(int low, int high) {
+        while (low < high) {
+            long pivot = userIds[(low + high) >>> 1];
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (userIds[i] < pivot) i++;
+                while (userIds[j] > pivot) j--;
+                if (i <= j) {
+                    swap(i++, j--);
+                }
+            }
+
+            // Recurse into the smaller half
+            if (j - low < high - i) {
+                sort(low, j);
+                low = i;
+            } else {
+                sort(i, high);
+                high = j;
+            }
+        }
+    }
+
+    private void swap(int a, int b) {
+        long userId = userIds[a];
+        userIds[a] = userIds[b];
+        userIds[b] = userId;
+        long most = mostSignificantBits[a];
+        mostSignificantBits[a] = mostSignificantBits[b];
+        mostSignificantBits[b] = most;
+        long least = leastSignificantBits[a];
+        leastSignificantBits[a] = leastSignificantBits[b];
+        leastSignificantBits[b] = least;
+    }
+
+    private void removeDuplicates() {
+        // Keep one link per user, then one link per player
+        int write = 0;
+        for (int read = 0; read < size; read++) {
+            if (write > 0 && userIds[write - 1] == userIds[read]) {
+                continue;
+            }
+            userIds[write] = userIds[read];
+            mostSignificantBits[write] = mostSignificantBits[read];
+            leastSignificantBits[write] = leastSignificantBits[read];
+            write++;
+        }
+        size = write;
+
+        Arrays.fill(table, EMPTY);
+        write = 0;
+        for (int read = 0; read < size; read++) {
+            userIds[write] = userIds[read];
+            mostSignificantBits[write] = mostSignificantBits[read];
+            leastSignificantBits[write] = leastSignificantBits[read];
+            if (findPlayer(mostSignificantBits[write], leastSignificantBits[write]) != EMPTY) {
+                continue;
+            }
+            order[write] = write;
+            insertIntoTable(write++);
+        }
+        size = write;
+    }
+}
@@ -23,7 +23,6 @@ import com.discordsrv.api.task.Task;
 import com.discordsrv.common.DiscordSRV;
 import com.discordsrv.common.core.logging.Logger;
 import com.discordsrv.common.core.logging.NamedLogger;
-import com.discordsrv.common.feature.linking.LinkStore;
 import com.discordsrv.common.feature.linking.LinkingModule;
 import com.discordsrv.common.feature.linking.requirelinking.RequiredLinkingModule;
 import com.discordsrv.common.feature.linking.requirelinking.requirement.type.MinecraftAuthRequirementType;
@@ -46,11 +45,11 @@ public class MinecraftAuthenticationLinker extends CachedLinkProvider {
     public static final String BASE_LINK_URL = DiscordSRV.WEBSITE + "/link";
 
     private final Logger logger;
-    private final LinkStore linkStore;
+    private final StorageLinker linkStore;
 
     public MinecraftAuthenticationLinker(DiscordSRV discordSRV) {
         super(discordSRV);
-        this.linkStore = new StorageLinker(discordSRV);
+        this.linkStore = new StorageLinker(discordSRV, false);
         this.logger = new NamedLogger(discordSRV, "MINECRAFTAUTH_LINKER");
     }
 
@@ -102,6 +101,11 @@ public class MinecraftAuthenticationLinker extends CachedLinkProvider {
         throw new IllegalStateException("Does not offer codes");
     }
 
+    @Override
+    public void close() {
+        linkStore.close();
+    }
+
     private Task<MinecraftComponent> getInstructions(
             String playerName,
             UUID playerUUID,
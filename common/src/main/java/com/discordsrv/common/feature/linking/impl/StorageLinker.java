@@ -21,54 +21,289 @@ package com.discordsrv.common.feature.linking.impl;
 import com.discordsrv.api.component.MinecraftComponent;
 import com.discordsrv.api.task.Task;
 import com.discordsrv.common.DiscordSRV;
+import com.discordsrv.common.config.main.linking.LinkedAccountConfig;
+import com.discordsrv.common.core.logging.Logger;
+import com.discordsrv.common.core.logging.NamedLogger;
+import com.discordsrv.common.core.storage.LinkChange;
+import com.discordsrv.common.core.storage.Storage;
+import com.discordsrv.common.exception.StorageException;
+import com.discordsrv.common.helper.LookupBatcher;
 import org.apache.commons.lang3.tuple.Pair;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.security.SecureRandom;
-import java.util.Locale;
-import java.util.Optional;
-import java.util.UUID;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ScheduledFuture;
 
 public class StorageLinker extends CachedLinkProvider.Store {
 
+    private static final Duration BATCH_WINDOW = Duration.ofMillis(5);
+    private static final Duration EXPIRED_CODE_REMOVAL_INTERVAL = Duration.ofMinutes(1);
+    private static final int CODE_GENERATION_ATTEMPTS = 5;
+
+    private final Logger logger;
+    private final LookupBatcher<UUID, Long> userIdLookups;
+    private final LookupBatcher<Long, UUID> playerUUIDLookups;
+
+    // Reading changes made by other servers from the storage's change log
+    private final Object changeLock = new Object();
+    private long changePosition = -1;
+    private long lastChangeCheck;
+    private volatile ScheduledFuture<?> changeCheck;
+    private volatile boolean closed;
+
+    // Codes generated by this server, the storage is only needed for codes from other servers
+    private final Map<String, PendingCode> pendingCodes = new HashMap<>();
+    private final Map<UUID, String> pendingCodesByPlayer = new HashMap<>();
+    private final ScheduledFuture<?> expiredCodeRemoval;
+
+    // Only used with linked-accounts.memory-index
+    private final boolean memoryIndex;
+    private final Object indexLock = new Object();
+    private volatile LinkIndex index;
+    private List<LinkChange> changesDuringLoad;
+
     public StorageLinker(DiscordSRV discordSRV) {
+        this(discordSRV, true);
+    }
+
+    /**
+     * Creates a storage linker.
+     * @param discordSRV the DiscordSRV instance
+     * @param allowMemoryIndex if linked-accounts.memory-index applies to this linker, {@code false} when it is used by another provider
+     */
+    public StorageLinker(DiscordSRV discordSRV, boolean allowMemoryIndex) {
         super(discordSRV);
+        this.logger = new NamedLogger(discordSRV, "STORAGE_LINKER");
+        this.userIdLookups = new LookupBatcher<>(discordSRV, BATCH_WINDOW, players -> discordSRV.storage().getUserIds(players));
+        this.playerUUIDLookups = new LookupBatcher<>(discordSRV, BATCH_WINDOW, userIds -> discordSRV.storage().getPlayerUUIDs(userIds));
+
+        this.expiredCodeRemoval = discordSRV.scheduler().runAtFixedRate(
+                () -> discordSRV.scheduler().run(this::removeExpiredCodes),
+                EXPIRED_CODE_REMOVAL_INTERVAL
+        );
+
+        LinkedAccountConfig config = discordSRV.config().linkedAccounts;
+        this.memoryIndex = allowMemoryIndex && config.memoryIndex.enabled;
+        int changeCheckInterval = config.changeCheckIntervalSeconds;
+        if (memoryIndex || changeCheckInterval > 0) {
+            discordSRV.scheduler().run(() -> {
+                if (closed) {
+                    return;
+                }
+                try {
+                    // Before loading the index, so changes made while loading are not missed
+                    changePosition = discordSRV.storage().getLinkChangePosition();
+                    lastChangeCheck = System.currentTimeMillis();
+                } catch (Throwable t) {
+                    logger.error("Failed to get the linked account change log position", t);
+                    return;
+                }
+                if (memoryIndex) {
+                    loadIndex();
+                }
+                if (changeCheckInterval > 0 && changePosition != -1) {
+                    changeCheck = discordSRV.scheduler().runAtFixedRate(
+                            () -> discordSRV.scheduler().run(this::checkChanges),
+                            Duration.ofSeconds(changeCheckInterval)
+                    );
+                    if (closed) {
+                        // Closed while starting
+                        changeCheck.cancel(false);
+                    }
+                }
+            });
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        expiredCodeRemoval.cancel(false);
+
+        ScheduledFuture<?> changeCheck = this.changeCheck;
+        if (changeCheck != null) {
+            changeCheck.cancel(false);
+        }
+    }
+
+    private void removeExpiredCodes() {
+        long time = System.currentTimeMillis();
+        synchronized (pendingCodes) {
+            pendingCodes.values().removeIf(pendingCode -> {
+                if (pendingCode.expiry > time) {
+                    return false;
+                }
+                pendingCodesByPlayer.remove(pendingCode.playerUUID);
+                return true;
+            });
+        }
+
+        try {
+            int removed = discordSRV.storage().removeExpiredLinkingCodes();
+            if (removed > 0) {
+                logger.debug("Removed " + removed + " expired linking codes");
+            }
+        } catch (Throwable t) {
+            logger.debug("Failed to remove expired linking codes", t);
+        }
+    }
+
+    private void checkChanges() {
+        synchronized (changeLock) {
+            long time = System.currentTimeMillis();
+            try {
+                if (time - lastChangeCheck > Storage.LINK_CHANGE_RETENTION.toMillis()) {
+                    // Changes since the last successful check may have been removed from the change log already
+                    logger.debug("Linked account changes were not checked for too long, clearing cache");
+                    changePosition = discordSRV.storage().getLinkChangePosition();
+                    lastChangeCheck = time;
+                    invalidateCache();
+                    if (memoryIndex) {
+                        loadIndex();
+                    }
+                    return;
+                }
+
+                changePosition = discordSRV.storage().readLinkChanges(changePosition, change -> {
+                    updateCache(change);
+                    updateIndex(change);
+                });
+                lastChangeCheck = time;
+            } catch (Throwable t) {
+                logger.debug("Failed to check for linked account changes", t);
+                return;
+            }
+
+            if (memoryIndex && index == null) {
+                // Retry a failed load
+                loadIndex();
+            }
+        }
+    }
+
+    private void loadIndex() {
+        synchronized (indexLock) {
+            if (changesDuringLoad != null) {
+                // Already loading
+                return;
+            }
+            changesDuringLoad = new ArrayList<>();
+        }
+
+        LinkIndex loadedIndex;
+        try {
+            long startTime = System.currentTimeMillis();
+            List<UUID> players = new ArrayList<>();
+            long[][] userIds = {new long[1024]};
+            discordSRV.storage().readLinks(0, (player, userId) -> {
+                int index = players.size();
+                if (index == userIds[0].length) {
+                    userIds[0] = Arrays.copyOf(userIds[0], index * 2);
+                }
+                userIds[0][index] = userId;
+                players.add(player);
+            });
+            loadedIndex = LinkIndex.of(userIds[0], players.toArray(new UUID[0]), players.size());
+            logger.debug("Loaded " + loadedIndex.size() + " linked accounts into memory in " + (System.currentTimeMillis() - startTime) + "ms");
+        } catch (Throwable t) {
+            logger.error("Failed to load linked accounts into memory", t);
+            synchronized (indexLock) {
+                changesDuringLoad = null;
+            }
+            return;
+        }
+
+        synchronized (indexLock) {
+            for (LinkChange change : changesDuringLoad) {
+                applyToIndex(loadedIndex, change);
+            }
+            changesDuringLoad = null;
+            index = loadedIndex;
+        }
+    }
+
+    private void updateIndex(LinkChange change) {
+        synchronized (indexLock) {
+            if (changesDuringLoad != null) {
+                changesDuringLoad.add(change);
+            }
+
+            LinkIndex index = this.index;
+            if (index != null) {
+                applyToIndex(index, change);
+            }
+        }
+    }
+
+    private void applyToIndex(LinkIndex index, LinkChange change) {
+        if (change.isLink()) {
+            index.put(change.player(), change.userId());
+        } else {
+            index.remove(change.player());
+        }
     }
 
     @Override
     public Task<Optional<Long>> queryUserId(@NotNull UUID playerUUID, boolean canCauseLink) {
-        return discordSRV.scheduler().supply(() -> {
-            Long value = discordSRV.storage().getUserId(playerUUID);
-            return Optional.ofNullable(value);
-        });
+        LinkIndex index = this.index;
+        if (index != null) {
+            return Task.completed(Optional.ofNullable(index.getUserId(playerUUID)));
+        }
+
+        // Lookups made at the same time (for example for all online players on startup) are done in batches
+        return userIdLookups.lookup(playerUUID).thenApply(Optional::ofNullable);
     }
 
     @Override
     public Task<Optional<UUID>> queryPlayerUUID(long userId, boolean canCauseLink) {
-        return discordSRV.scheduler().supply(() -> {
-            UUID value = discordSRV.storage().getPlayerUUID(userId);
-            return Optional.ofNullable(value);
-        });
+        LinkIndex index = this.index;
+        if (index != null) {
+            return Task.completed(Optional.ofNullable(index.getPlayerUUID(userId)));
+        }
+
+        return playerUUIDLookups.lookup(userId).thenApply(Optional::ofNullable);
     }
 
     @Override
     public Task<Void> link(@NotNull UUID playerUUID, long userId) {
-        return discordSRV.scheduler().execute(() -> discordSRV.storage().createLink(playerUUID, userId));
+        return discordSRV.scheduler().execute(() -> {
+            discordSRV.storage().createLink(playerUUID, userId);
+            updateIndex(LinkChange.link(playerUUID, userId));
+        });
     }
 
     @Override
     public Task<Void> unlink(@NotNull UUID playerUUID, long userId) {
-        return discordSRV.scheduler().execute(() -> discordSRV.storage().removeLink(playerUUID, userId));
+        return discordSRV.scheduler().execute(() -> {
+            discordSRV.storage().removeLink(playerUUID, userId);
+            updateIndex(LinkChange.unlink(playerUUID, userId));
+        });
     }
 
     @Override
     public Task<Pair<UUID, String>> getCodeLinking(long userId, @NotNull String code) {
+        synchronized (pendingCodes) {
+            PendingCode pendingCode = pendingCodes.get(code);
+            if (pendingCode != null && pendingCode.expiry > System.currentTimeMillis()) {
+                return Task.completed(Pair.of(pendingCode.playerUUID, pendingCode.username));
+            }
+        }
+
+        // Code from another server
         return discordSRV.scheduler().supply(() -> discordSRV.storage().getLinkingCode(code));
     }
 
     @Override
     public Task<Void> removeLinkingCode(@NotNull UUID playerUUID) {
+        synchronized (pendingCodes) {
+            String code = pendingCodesByPlayer.remove(playerUUID);
+            if (code != null) {
+                pendingCodes.remove(code);
+            }
+        }
         return discordSRV.scheduler().execute(() -> discordSRV.storage().removeLinkingCode(playerUUID));
     }
 
@@ -88,15 +323,8 @@ public class StorageLinker extends CachedLinkProvider.Store {
             Object... additionalContext
     ) {
         return discordSRV.scheduler().supply(() -> {
-            String code = null;
-            while (code == null || discordSRV.storage().getLinkingCode(code) != null) {
-                code = String.valueOf(secureRandom.nextInt(1000000));
-                while (code.length() != 6) {
-                    code = "0" + code;
-                }
-            }
+            String code = generateCode(playerUUID, username);
 
-            discordSRV.storage().storeLinkingCode(playerUUID, username, code);
             return discordSRV.messagesConfig(locale).minecraft.storageLinking.textBuilder()
                     .addContext(additionalContext)
                     .addPlaceholder("code", code)
@@ -107,8 +335,53 @@ public class StorageLinker extends CachedLinkProvider.Store {
         });
     }
 
+    private String generateCode(UUID playerUUID, String username) {
+        for (int attempt = 1; ; attempt++) {
+            long expiry = System.currentTimeMillis() + LINKING_CODE_EXPIRY_TIME.toMillis();
+            String code;
+            synchronized (pendingCodes) {
+                do {
+                    code = String.format("%06d", secureRandom.nextInt(1000000));
+                } while (pendingCodes.containsKey(code));
+
+                String previousCode = pendingCodesByPlayer.put(playerUUID, code);
+                if (previousCode != null) {
+                    pendingCodes.remove(previousCode);
+                }
+                pendingCodes.put(code, new PendingCode(playerUUID, username, expiry));
+            }
+
+            try {
+                // For other servers, fails if another server is already using the same code
+                discordSRV.storage().storeLinkingCode(playerUUID, username, code);
+                return code;
+            } catch (StorageException e) {
+                synchronized (pendingCodes) {
+                    pendingCodes.remove(code);
+                    pendingCodesByPlayer.remove(playerUUID, code);
+                }
+                if (attempt == CODE_GENERATION_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
     @Override
     public boolean isValidCode(@NotNull String code) {
         return code.matches("[0-9]{6}");
     }
+
+    private static class PendingCode {
+
+        private final UUID playerUUID;
+        private final String username;
+        private final long expiry;
+
+        private PendingCode(UUID playerUUID, String username, long expiry) {
+            this.playerUUID = playerUUID;
+            this.username = username;
+            this.expiry = expiry;
+        }
+    }
 }
@@ -0,0 +1,272 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2025 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.feature.messageforwarding.discord;
+
+import com.discordsrv.api.discord.entity.message.ReceivedDiscordMessage;
+import com.discordsrv.api.task.Task;
+import com.discordsrv.common.DiscordSRV;
+import com.discordsrv.common.config.main.AttachmentMirroringConfig;
+import com.discordsrv.common.core.logging.Logger;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Downloads attachments for mirroring into temporary files, limiting the amount of concurrent downloads
+ * and the total size of attachments being downloaded or re-uploaded at the same time.
+ */
+public class AttachmentDownloader {
+
+    private final DiscordSRV discordSRV;
+    private final Logger logger;
+    private final Path directory;
+
+    // Guarded by "queue"
+    private final Deque<PendingDownload> queue = new ArrayDeque<>();
+    private int activeDownloads = 0;
+    private long bytesInFlight = 0;
+
+    public AttachmentDownloader(DiscordSRV discordSRV, Logger logger) {
+        this.discordSRV = discordSRV;
+        this.logger = logger;
+        this.directory = discordSRV.dataDirectory().resolve("temp").resolve("attachments");
+    }
+
+    /**
+     * Deletes files left over from a previous run.
+     */
+    public void cleanup() {
+        if (!Files.exists(directory)) {
+            return;
+        }
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            logger.debug("Failed to clean up attachment directory", e);
+        }
+    }
+
+    /**
+     * Checks if the attachment would ever fit within the total size limit.
+     * @param attachment the attachment
+     * @return {@code true} if the attachment can be downloaded
+     */
+    public boolean canDownload(ReceivedDiscordMessage.Attachment attachment) {
+        return attachment.sizeBytes() <= maximumBytesInFlight();
+    }
+
+    /**
+     * Queues the attachment to be downloaded.
+     * @param attachment the attachment to download
+     * @return a task completed with the downloaded attachment, which must be {@link DownloadedAttachment#release() released}
+     */
+    public Task<DownloadedAttachment> download(ReceivedDiscordMessage.Attachment attachment) {
+        PendingDownload download = new PendingDownload(attachment);
+        if (!canDownload(attachment)) {
+            download.task.completeExceptionally(new IOException("Attachment is larger than the total size limit"));
+            return download.task;
+        }
+
+        synchronized (queue) {
+            queue.add(download);
+        }
+        startDownloads();
+        return download.task;
+    }
+
+    private AttachmentMirroringConfig config() {
+        return discordSRV.config().attachmentMirroring;
+    }
+
+    private long maximumBytesInFlight() {
+        return config().maximumTotalSizeKb * 1000L;
+    }
+
+    private void startDownloads() {
+        int maximumConcurrent = Math.max(1, config().maximumConcurrentDownloads);
+        long maximumBytes = maximumBytesInFlight();
+
+        while (true) {
+            PendingDownload download;
+            synchronized (queue) {
+                download = queue.peek();
+                if (download == null || activeDownloads >= maximumConcurrent
+                        || bytesInFlight + download.size > maximumBytes) {
+                    return;
+                }
+
+                queue.poll();
+                activeDownloads++;
+                bytesInFlight += download.size;
+            }
+            start(download);
+        }
+    }
+
+    private void release(long size) {
+        synchronized (queue) {
+            bytesInFlight -= size;
+        }
+        startDownloads();
+    }
+
+    private void start(PendingDownload download) {
+        ReceivedDiscordMessage.Attachment attachment = download.attachment;
+        Request request = new Request.Builder()
+                .url(attachment.url())
+                .get()
+                .addHeader("Accept", "*/*")
+                .build();
+
+        discordSRV.httpClient().newCall(request).enqueue(new Callback() {
+            @Override
+            public void onFailure(@NotNull Call call, @NotNull IOException e) {
+                finished(download, null, e);
+            }
+
+            @Override
+            public void onResponse(@NotNull Call call, @NotNull Response response) {
+                Path file = null;
+                try (Response closeable = response) {
+                    ResponseBody body = closeable.body();
+                    if (!closeable.isSuccessful() || body == null) {
+                        throw new IOException("Unexpected response: " + closeable.code());
+                    }
+
+                    Files.createDirectories(directory);
+                    file = Files.createTempFile(directory, "attachment", ".tmp");
+                    copy(body.byteStream(), file, download.size);
+                    finished(download, file, null);
+                } catch (IOException e) {
+                    deleteQuietly(file);
+                    finished(download, null, e);
+                }
+            }
+        });
+    }
+
+    private void copy(InputStream inputStream, Path file, long maximumBytes) throws IOException {
+        try (OutputStream outputStream = Files.newOutputStream(file)) {
+            byte[] buffer = new byte[8192];
+            long total = 0;
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                total += read;
+                if (total > maximumBytes) {
+                    // The size is reserved ahead of time, don't go past it
+                    throw new IOException("Attachment is larger than reported");
+                }
+                outputStream.write(buffer, 0, read);
+            }
+        }
+    }
+
+    private void finished(PendingDownload download, Path file, IOException exception) {
+        synchronized (queue) {
+            activeDownloads--;
+        }
+
+        if (exception != null) {
+            release(download.size);
+            download.task.completeExceptionally(exception);
+            return;
+        }
+
+        startDownloads();
+        download.task.complete(new DownloadedAttachment(download.attachment, file, download.size));
+    }
+
+    private void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.debug("Failed to delete attachment file", e);
+        }
+    }
+
+    private static class PendingDownload {
+
+        private final ReceivedDiscordMessage.Attachment attachment;
+        private final long size;
+        private final Task<DownloadedAttachment> task = new Task<>();
+
+        public PendingDownload(ReceivedDiscordMessage.Attachment attachment) {
+            this.attachment = attachment;
+            this.size = attachment.sizeBytes();
+        }
+    }
+
+    /**
+     * A downloaded attachment, shared between all the channels it is mirrored to.
+     * The file is deleted once every holder has released it.
+     */
+    public class DownloadedAttachment {
+
+        private final ReceivedDiscordMessage.Attachment attachment;
+        private final Path file;
+        private final long size;
+        private final AtomicInteger references = new AtomicInteger(1);
+
+        private DownloadedAttachment(ReceivedDiscordMessage.Attachment attachment, Path file, long size) {
+            this.attachment = attachment;
+            this.file = file;
+            this.size = size;
+        }
+
+        public ReceivedDiscordMessage.Attachment attachment() {
+            return attachment;
+        }
+
+        public InputStream openStream() throws IOException {
+            return Files.newInputStream(file);
+        }
+
+        public void retain() {
+            references.incrementAndGet();
+        }
+
+        public void release() {
+            if (references.decrementAndGet() != 0) {
+                return;
+            }
+
+            deleteQuietly(file);
+            AttachmentDownloader.this.release(size);
+        }
+    }
+}
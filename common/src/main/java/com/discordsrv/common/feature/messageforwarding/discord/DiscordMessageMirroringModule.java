@@ -38,6 +38,7 @@ import com.discordsrv.api.placeholder.format.PlainPlaceholderFormat;
 import com.discordsrv.api.placeholder.provider.SinglePlaceholder;
 import com.discordsrv.api.task.Task;
 import com.discordsrv.common.DiscordSRV;
+import com.discordsrv.common.config.main.MirroredMessagesConfig;
 import com.discordsrv.common.config.main.channels.MirroringConfig;
 import com.discordsrv.common.config.main.channels.base.BaseChannelConfig;
 import com.discordsrv.common.config.main.channels.base.IChannelConfig;
@@ -45,32 +46,56 @@ import com.discordsrv.common.config.main.generic.DiscordIgnoresConfig;
 import com.discordsrv.common.core.logging.NamedLogger;
 import com.discordsrv.common.core.module.type.AbstractModule;
 import com.discordsrv.common.util.DiscordPermissionUtil;
-import com.github.benmanes.caffeine.cache.Cache;
 import net.dv8tion.jda.api.Permission;
 import net.dv8tion.jda.api.entities.Message;
 import net.dv8tion.jda.api.entities.channel.middleman.GuildMessageChannel;
-import okhttp3.Request;
-import okhttp3.Response;
-import okhttp3.ResponseBody;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.time.Duration;
 import java.util.*;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 public class DiscordMessageMirroringModule extends AbstractModule<DiscordSRV> {
 
-    private final Cache<Long, Cache<Long, Sync>> mapping;
+    private static final String MAPPING_FILE_NAME = "mirrored-messages.dat";
+
+    private final AttachmentDownloader attachmentDownloader;
+    private final Map<Long, Task<?>> mirrorQueues = new ConcurrentHashMap<>();
+    private MirrorMappingStore mapping;
 
     public DiscordMessageMirroringModule(DiscordSRV discordSRV) {
         super(discordSRV, new NamedLogger(discordSRV, "DISCORD_MIRRORING"));
-        this.mapping = discordSRV.caffeineBuilder()
-                .expireAfterWrite(60, TimeUnit.MINUTES)
-                .expireAfterAccess(30, TimeUnit.MINUTES)
-                .build();
+        this.attachmentDownloader = new AttachmentDownloader(discordSRV, logger());
+    }
+
+    @Override
+    public void enable() {
+        attachmentDownloader.cleanup();
+
+        MirroredMessagesConfig config = discordSRV.config().mirroredMessages;
+        mapping = new MirrorMappingStore(
+                config.persist ? discordSRV.dataDirectory().resolve(MAPPING_FILE_NAME) : null,
+                Duration.ofHours(config.retentionHours),
+                logger()
+        );
+        try {
+            mapping.load();
+        } catch (IOException e) {
+            logger().error("Failed to load " + MAPPING_FILE_NAME + ", edits and deletions of earlier messages will not be mirrored", e);
+        }
+    }
+
+    @Override
+    public void disable() {
+        try {
+            mapping.close();
+        } catch (IOException e) {
+            logger().error("Failed to close " + MAPPING_FILE_NAME, e);
+        }
     }
 
     @Override
@@ -103,7 +128,8 @@ public class DiscordMessageMirroringModule extends AbstractModule<DiscordSRV> {
         ReceivedDiscordMessage message = event.getMessage();
 
         List<Task<MirrorOperation>> futures = new ArrayList<>();
-        Map<ReceivedDiscordMessage.Attachment, byte[]> attachments = new LinkedHashMap<>();
+        Set<ReceivedDiscordMessage.Attachment> attachments = new LinkedHashSet<>();
+        Map<ReceivedDiscordMessage.Attachment, Task<AttachmentDownloader.DownloadedAttachment>> downloads = new LinkedHashMap<>();
         DiscordMessageEmbed.Builder attachmentEmbed = DiscordMessageEmbed.builder().setDescription("Attachments");
 
         for (Map.Entry<GameChannel, BaseChannelConfig> entry : channels.entrySet()) {
@@ -128,27 +154,16 @@ public class DiscordMessageMirroringModule extends AbstractModule<DiscordSRV> {
             boolean embedAttachments = attachmentConfig.embedAttachments;
             if (maxSize >= 0 || embedAttachments) {
                 for (ReceivedDiscordMessage.Attachment attachment : message.getAttachments()) {
-                    if (attachments.containsKey(attachment)) {
+                    if (attachments.contains(attachment)) {
                         continue;
                     }
 
-                    if (maxSize == 0 || attachment.sizeBytes() <= maxSize) {
-                        Request request = new Request.Builder()
-                                .url(attachment.url())
-                                .get()
-                                .addHeader("Accept", "*/*")
-                                .build();
-
-                        byte[] bytes = null;
-                        try (Response response = discordSRV.httpClient().newCall(request).execute()) {
-                            ResponseBody body = response.body();
-                            if (body != null) {
-                                bytes = body.bytes();
-                            }
-                        } catch (IOException e) {
-                            logger().error("Failed to download attachment for mirroring", e);
-                        }
-                        attachments.put(attachment, bytes);
+                    if ((maxSize == 0 || attachment.sizeBytes() <= maxSize) && attachmentDownloader.canDownload(attachment)) {
+                        attachments.add(attachment);
+                        downloads.put(attachment, attachmentDownloader.download(attachment).mapException(t -> {
+                            logger().error("Failed to download attachment for mirroring", t);
+                            return null;
+                        }));
                         continue;
                     }
 
@@ -156,7 +171,7 @@ public class DiscordMessageMirroringModule extends AbstractModule<DiscordSRV> {
                         continue;
                     }
 
-                    attachments.put(attachment, null);
+                    attachments.add(attachment);
                     attachmentEmbed.addField(attachment.fileName(), "[link](" + attachment.url() + ")", true);
                 }
             }
@@ -168,95 +183,158 @@ public class DiscordMessageMirroringModule extends AbstractModule<DiscordSRV> {
                                 for (DiscordGuildMessageChannel messageChannel : messageChannels) {
                                     targets.add(new MirrorTarget(messageChannel, config));
                                 }
-                                return new MirrorOperation(message, config, targets);
+                                return new MirrorOperation(message, targets);
                             })
             );
         }
 
-        Task.allOf(futures).whenComplete((lists, v) -> {
-            Set<Long> channelIdsHandled = new HashSet<>();
-            for (MirrorOperation operation : lists) {
-                List<Task<MirroredMessage>> mirrorFutures = new ArrayList<>();
-
-                for (MirrorTarget target : operation.targets) {
-                    DiscordGuildMessageChannel mirrorChannel = target.targetChannel;
-                    long channelId = mirrorChannel.getId();
-                    if (channelId == event.getChannel().getId() || channelIdsHandled.contains(channelId)) {
-                        continue;
-                    }
-                    channelIdsHandled.add(channelId);
-
-                    GuildMessageChannel channel = (GuildMessageChannel) mirrorChannel.getAsJDAMessageChannel();
-
-                    MirroringConfig config = target.config;
-                    MirroringConfig.AttachmentConfig attachmentConfig = config.attachments;
-                    int attachmentMaxSize = attachmentConfig.maximumSizeKb * 1000;
-
-                    boolean embedAttachments = attachmentConfig.embedAttachments;
-                    boolean attachAttachments = attachmentMaxSize >= 0;
-                    boolean hasAttachments = !attachments.isEmpty() && (embedAttachments || attachAttachments);
-
-                    String missingPermissions = DiscordPermissionUtil.missingPermissionsString(
-                            channel,
-                            Permission.VIEW_CHANNEL,
-                            Permission.MANAGE_WEBHOOKS,
-                            embedAttachments ? Permission.MESSAGE_EMBED_LINKS : null,
-                            attachAttachments ? Permission.MESSAGE_ATTACH_FILES : null
-                    );
-                    if (missingPermissions != null) {
-                        logger().error("Failed to mirror message to " + describeChannel(mirrorChannel) + ": " + missingPermissions);
-                        continue;
+        // Downloads don't fail, failed downloads are null
+        Task<List<AttachmentDownloader.DownloadedAttachment>> downloadsTask = Task.allOf(downloads.values());
+
+        // Mirror in the order the messages were sent, even if an earlier message is still downloading attachments
+        chain(event.getChannel().getId(), () -> downloadsTask.then(downloaded -> {
+            Task<Void> task = Task.allOf(futures)
+                    .then(operations -> mirror(event, message, operations, attachments, downloaded, attachmentEmbed));
+            task.whenComplete((__, t) -> {
+                for (AttachmentDownloader.DownloadedAttachment attachment : downloaded) {
+                    if (attachment != null) {
+                        attachment.release();
                     }
+                }
+            });
+            return task;
+        })).whenFailed(t -> logger().error("Failed to mirror message", t));
+    }
 
-                    SendableDiscordMessage.Builder messageBuilder = convert(message, mirrorChannel, config);
-                    if (messageBuilder.isEmpty() && !hasAttachments) {
-                        logger().debug("Nothing to mirror to " + mirrorChannel + ", skipping");
-                        return;
-                    }
+    /**
+     * Runs the mirror operation after the previous one from the same channel has completed.
+     */
+    private <T> Task<T> chain(long channelId, Supplier<Task<T>> operation) {
+        Task<T> task = new Task<>();
+        Task<?> previous = mirrorQueues.put(channelId, task);
+
+        Task<?> ready = previous != null ? previous.mapException(t -> null) : Task.<Void>completed(null);
+        ready.then(__ -> operation.get()).whenComplete((result, t) -> {
+            mirrorQueues.remove(channelId, task);
+            if (t != null) {
+                task.completeExceptionally(t);
+            } else {
+                task.complete(result);
+            }
+        });
+        return task;
+    }
 
-                    if (embedAttachments && !attachmentEmbed.getFields().isEmpty()) {
-                        messageBuilder.addEmbed(attachmentEmbed.build());
-                    }
+    private Task<Void> mirror(
+            DiscordChatMessageReceiveEvent event,
+            ReceivedDiscordMessage message,
+            List<MirrorOperation> operations,
+            Set<ReceivedDiscordMessage.Attachment> attachments,
+            List<AttachmentDownloader.DownloadedAttachment> downloaded,
+            DiscordMessageEmbed.Builder attachmentEmbed
+    ) {
+        Set<Long> channelIdsHandled = new HashSet<>();
+        List<Task<?>> operationTasks = new ArrayList<>();
+        for (MirrorOperation operation : operations) {
+            List<Task<ReceivedDiscordMessage>> mirrorFutures = new ArrayList<>();
+
+            for (MirrorTarget target : operation.targets) {
+                DiscordGuildMessageChannel mirrorChannel = target.targetChannel;
+                long channelId = mirrorChannel.getId();
+                if (channelId == event.getChannel().getId() || channelIdsHandled.contains(channelId)) {
+                    continue;
+                }
+                channelIdsHandled.add(channelId);
 
-                    List<InputStream> streams = new ArrayList<>();
-                    if (attachAttachments) {
-                        attachments.forEach((attachment, bytes) -> {
-                            if (bytes != null && (attachmentMaxSize == 0 || attachment.sizeBytes() <= attachmentMaxSize)) {
-                                InputStream stream = new ByteArrayInputStream(bytes);
-                                streams.add(stream);
-                                messageBuilder.addAttachment(stream, attachment.fileName());
-                            }
-                        });
-                    }
+                GuildMessageChannel channel = (GuildMessageChannel) mirrorChannel.getAsJDAMessageChannel();
 
-                    Task<MirroredMessage> future =
-                            mirrorChannel.sendMessage(messageBuilder.build())
-                                    .thenApply(msg -> new MirroredMessage(msg, config));
-
-                    mirrorFutures.add(future);
-                    future.whenFailed(t -> {
-                        logger().error("Failed to mirror message to " + describeChannel(mirrorChannel), t);
-                        for (InputStream stream : streams) {
-                            try {
-                                stream.close();
-                            } catch (IOException ignored) {}
-                        }
-                    });
+                MirroringConfig config = target.config;
+                MirroringConfig.AttachmentConfig attachmentConfig = config.attachments;
+                int attachmentMaxSize = attachmentConfig.maximumSizeKb * 1000;
+
+                boolean embedAttachments = attachmentConfig.embedAttachments;
+                boolean attachAttachments = attachmentMaxSize >= 0;
+                boolean hasAttachments = !attachments.isEmpty() && (embedAttachments || attachAttachments);
+
+                String missingPermissions = DiscordPermissionUtil.missingPermissionsString(
+                        channel,
+                        Permission.VIEW_CHANNEL,
+                        Permission.MANAGE_WEBHOOKS,
+                        embedAttachments ? Permission.MESSAGE_EMBED_LINKS : null,
+                        attachAttachments ? Permission.MESSAGE_ATTACH_FILES : null
+                );
+                if (missingPermissions != null) {
+                    logger().error("Failed to mirror message to " + describeChannel(mirrorChannel) + ": " + missingPermissions);
+                    continue;
+                }
+
+                SendableDiscordMessage.Builder messageBuilder = convert(message, mirrorChannel, config);
+                if (messageBuilder.isEmpty() && !hasAttachments) {
+                    logger().debug("Nothing to mirror to " + mirrorChannel + ", skipping");
+                    return Task.allOf(operationTasks).thenApply(__ -> null);
                 }
 
-                Task.allOf(mirrorFutures).whenComplete((messages, t2) -> {
-                    MessageReference reference = getReference(operation.originalMessage, operation.configForOriginalMessage);
+                if (embedAttachments && !attachmentEmbed.getFields().isEmpty()) {
+                    messageBuilder.addEmbed(attachmentEmbed.build());
+                }
 
-                    Map<ReceivedDiscordMessage, MessageReference> references = new LinkedHashMap<>();
-                    references.put(message, reference);
-                    for (MirroredMessage mirroredMessage : messages) {
-                        references.put(mirroredMessage.message, getReference(mirroredMessage));
+                List<InputStream> streams = new ArrayList<>();
+                List<AttachmentDownloader.DownloadedAttachment> used = new ArrayList<>();
+                if (attachAttachments) {
+                    for (AttachmentDownloader.DownloadedAttachment downloadedAttachment : downloaded) {
+                        if (downloadedAttachment == null) {
+                            continue;
+                        }
+
+                        ReceivedDiscordMessage.Attachment attachment = downloadedAttachment.attachment();
+                        if (attachmentMaxSize != 0 && attachment.sizeBytes() > attachmentMaxSize) {
+                            continue;
+                        }
+
+                        try {
+                            InputStream stream = downloadedAttachment.openStream();
+                            streams.add(stream);
+                            messageBuilder.addAttachment(stream, attachment.fileName());
+                        } catch (IOException e) {
+                            logger().error("Failed to read downloaded attachment for mirroring", e);
+                            continue;
+                        }
+
+                        // Keep the file until this message is sent
+                        downloadedAttachment.retain();
+                        used.add(downloadedAttachment);
                     }
+                }
+
+                Task<ReceivedDiscordMessage> future = mirrorChannel.sendMessage(messageBuilder.build());
 
-                    putIntoCache(reference, references);
+                mirrorFutures.add(future);
+                future.whenFailed(t -> logger().error("Failed to mirror message to " + describeChannel(mirrorChannel), t));
+                future.whenComplete((msg, t) -> {
+                    for (InputStream stream : streams) {
+                        try {
+                            stream.close();
+                        } catch (IOException ignored) {}
+                    }
+                    for (AttachmentDownloader.DownloadedAttachment attachment : used) {
+                        attachment.release();
+                    }
                 });
             }
-        }).whenFailed(t -> logger().error("Failed to mirror message", t));
+
+            operationTasks.add(Task.allOf(mirrorFutures).whenComplete((messages, t2) -> {
+                MessageReference reference = getReference(operation.originalMessage);
+
+                List<MessageReference> references = new ArrayList<>();
+                references.add(reference);
+                for (ReceivedDiscordMessage mirroredMessage : messages) {
+                    references.add(getReference(mirroredMessage));
+                }
+
+                putIntoMapping(reference, references);
+            }));
+        }
+        return Task.allOf(operationTasks).thenApply(__ -> null);
     }
 
     private String describeChannel(DiscordGuildMessageChannel channel) {
@@ -269,13 +347,8 @@ public class DiscordMessageMirroringModule extends AbstractModule<DiscordSRV> {
 
     @Subscribe
     public void onDiscordMessageUpdate(DiscordMessageUpdateEvent event) {
-        Cache<Long, Sync> syncs = mapping.getIfPresent(event.getChannel().getId());
-        if (syncs == null) {
-            return;
-        }
-
         ReceivedDiscordMessage message = event.getMessage();
-        Sync sync = syncs.getIfPresent(message.getId());
+        Sync sync = getSync(message.getId());
         if (sync == null || sync.original == null || !sync.original.isMatching(message)) {
             return;
         }
@@ -286,7 +359,12 @@ public class DiscordMessageMirroringModule extends AbstractModule<DiscordSRV> {
                 continue;
             }
 
-            SendableDiscordMessage sendableMessage = convert(message, channel, reference.config).build();
+            MirroringConfig config = getConfig(channel);
+            if (config == null) {
+                continue;
+            }
+
+            SendableDiscordMessage sendableMessage = convert(message, channel, config).build();
             channel.editMessageById(reference.messageId, sendableMessage)
                     .whenFailed(t -> logger().error("Failed to update mirrored message in " + channel));
         }
@@ -294,12 +372,7 @@ public class DiscordMessageMirroringModule extends AbstractModule<DiscordSRV> {
 
     @Subscribe
     public void onDiscordMessageDelete(DiscordMessageDeleteEvent event) {
-        Cache<Long, Sync> syncs = mapping.getIfPresent(event.getChannel().getId());
-        if (syncs == null) {
-            return;
-        }
-
-        Sync sync = syncs.getIfPresent(event.getMessageId());
+        Sync sync = getSync(event.getMessageId());
         if (sync == null || sync.original == null || !sync.original.isMatching(event.getChannel())
                 || sync.original.messageId != event.getMessageId()) {
             return;
@@ -323,62 +396,46 @@ public class DiscordMessageMirroringModule extends AbstractModule<DiscordSRV> {
         GameChannel gameChannel = event.getOriginGameChannel();
         BaseChannelConfig gameChannelConfig = gameChannel != null ? discordSRV.channelConfig().get(gameChannel) : null;
 
-        Map<ReceivedDiscordMessage, MessageReference> references = new LinkedHashMap<>();
+        List<MessageReference> references = new ArrayList<>();
         for (ReceivedDiscordMessage message : messages) {
-            BaseChannelConfig channelConfig = gameChannelConfig;
-            if (channelConfig == null) {
-                DiscordMessageChannel channel = message.getChannel();
-
-                channelConfig = discordSRV.channelConfig()
-                        .resolve(channel)
-                        .values()
-                        .stream()
-                        .filter(config -> config instanceof IChannelConfig && ((IChannelConfig) config).destination().contains(channel))
-                        .findAny()
-                        .orElse(null);
-            }
-            if (channelConfig == null) {
+            if (gameChannelConfig == null && getConfig(message.getChannel()) == null) {
                 continue;
             }
 
-            MessageReference reference = getReference(message, channelConfig.mirroring);
-            references.put(message, reference);
+            references.add(getReference(message));
         }
 
-        putIntoCache(null, references);
+        putIntoMapping(null, references);
     }
 
-    @SuppressWarnings("DataFlowIssue") // Supplier always returns a non-null value
-    @NotNull
-    private Cache<Long, Sync> getCache(long channelId) {
-        return mapping.get(
-                channelId,
-                k -> discordSRV.caffeineBuilder()
-                        .expireAfterWrite(30, TimeUnit.MINUTES)
-                        .expireAfterAccess(10, TimeUnit.MINUTES)
-                        .build()
-        );
+    @Nullable
+    private MirroringConfig getConfig(DiscordMessageChannel channel) {
+        for (BaseChannelConfig config : discordSRV.channelConfig().resolve(channel).values()) {
+            if (config instanceof IChannelConfig && ((IChannelConfig) config).destination().contains(channel)) {
+                return config.mirroring;
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    private Sync getSync(long messageId) {
+        long[] group = mapping.get(messageId);
+        return group != null ? Sync.of(group, messageId) : null;
     }
 
-    private void putIntoCache(@Nullable MessageReference original, Map<ReceivedDiscordMessage, MessageReference> references) {
+    private void putIntoMapping(@Nullable MessageReference original, List<MessageReference> references) {
         if (original == null && references.size() <= 1) {
             return;
         }
 
-        for (Map.Entry<ReceivedDiscordMessage, MessageReference> entry : references.entrySet()) {
-            ReceivedDiscordMessage message = entry.getKey();
-            MessageReference reference = entry.getValue();
-
-            List<MessageReference> refs = new ArrayList<>();
-            for (MessageReference ref : references.values()) {
-                if (ref == reference) {
-                    continue;
-                }
-                refs.add(ref);
-            }
-
-            getCache(message.getChannel().getId()).put(message.getId(), new Sync(original, refs));
+        long[] group = new long[references.size() * MirrorMappingStore.REFERENCE_LENGTH];
+        for (int i = 0; i < references.size(); i++) {
+            MessageReference reference = references.get(i);
+            reference.encode(group, i * MirrorMappingStore.REFERENCE_LENGTH, reference == original);
         }
+
+        mapping.put(group);
     }
 
     /**
@@ -403,12 +460,9 @@ public class DiscordMessageMirroringModule extends AbstractModule<DiscordSRV> {
         if (replyMessage != null) {
             MessageReference matchingReference = null;
 
-            Cache<Long, Sync> syncs = mapping.getIfPresent(replyMessage.getChannel().getId());
-            if (syncs != null) {
-                Sync sync = syncs.getIfPresent(replyMessage.getId());
-                if (sync != null) {
-                    matchingReference = sync.getForChannel(destinationChannel);
-                }
+            Sync sync = getSync(replyMessage.getId());
+            if (sync != null) {
+                matchingReference = sync.getForChannel(destinationChannel);
             }
 
             String jumpUrl = matchingReference != null ? String.format(
@@ -448,37 +502,30 @@ public class DiscordMessageMirroringModule extends AbstractModule<DiscordSRV> {
         return builder;
     }
 
-    private MessageReference getReference(MirroredMessage message) {
-        return getReference(message.message, message.config);
-    }
-
-    private MessageReference getReference(ReceivedDiscordMessage message, MirroringConfig config) {
-        return getReference(message.getChannel(), message.getId(), message.isWebhookMessage(), config);
+    private MessageReference getReference(ReceivedDiscordMessage message) {
+        return getReference(message.getChannel(), message.getId(), message.isWebhookMessage());
     }
 
     private MessageReference getReference(
             DiscordMessageChannel channel,
             long messageId,
-            boolean webhookMessage,
-            MirroringConfig config
+            boolean webhookMessage
     ) {
         if (channel instanceof DiscordThreadChannel) {
             DiscordThreadChannel threadChannel = (DiscordThreadChannel) channel;
-            return new MessageReference(threadChannel, messageId, webhookMessage, config);
+            return new MessageReference(threadChannel, messageId, webhookMessage);
         } else {
-            return new MessageReference(channel, messageId, webhookMessage, config);
+            return new MessageReference(channel, messageId, webhookMessage);
         }
     }
 
     private static class MirrorOperation {
 
         private final ReceivedDiscordMessage originalMessage;
-        private final MirroringConfig configForOriginalMessage;
         private final List<MirrorTarget> targets;
 
-        public MirrorOperation(ReceivedDiscordMessage originalMessage, MirroringConfig configForOriginalMessage, List<MirrorTarget> targets) {
+        public MirrorOperation(ReceivedDiscordMessage originalMessage, List<MirrorTarget> targets) {
             this.originalMessage = originalMessage;
-            this.configForOriginalMessage = configForOriginalMessage;
             this.targets = targets;
         }
 
@@ -495,17 +542,6 @@ public class DiscordMessageMirroringModule extends AbstractModule<DiscordSRV> {
         }
     }
 
-    private static class MirroredMessage {
-
-        private final ReceivedDiscordMessage message;
-        private final MirroringConfig config;
-
-        public MirroredMessage(ReceivedDiscordMessage message, MirroringConfig config) {
-            this.message = message;
-            this.config = config;
-        }
-    }
-
     private static class Sync {
 
         private final MessageReference original;
@@ -516,6 +552,21 @@ public class DiscordMessageMirroringModule extends AbstractModule<DiscordSRV> {
             this.mirrors = mirrors;
         }
 
+        public static Sync of(long[] group, long messageId) {
+            MessageReference original = null;
+            List<MessageReference> mirrors = new ArrayList<>();
+            for (int i = 0; i < group.length; i += MirrorMappingStore.REFERENCE_LENGTH) {
+                MessageReference reference = MessageReference.decode(group, i);
+                if ((group[i + 2] & MirrorMappingStore.FLAG_ORIGINAL) != 0) {
+                    original = reference;
+                }
+                if (reference.messageId != messageId) {
+                    mirrors.add(reference);
+                }
+            }
+            return new Sync(original, mirrors);
+        }
+
         public MessageReference getForChannel(DiscordGuildMessageChannel channel) {
             for (MessageReference mirror : mirrors) {
                 if (mirror.isMatching(channel)) {
@@ -533,38 +584,51 @@ public class DiscordMessageMirroringModule extends AbstractModule<DiscordSRV> {
         private final long threadId;
         private final long messageId;
         private final boolean webhookMessage;
-        private final MirroringConfig config;
 
         public MessageReference(
                 DiscordMessageChannel messageChannel,
                 long messageId,
-                boolean webhookMessage,
-                MirroringConfig config
+                boolean webhookMessage
         ) {
-            this(messageChannel.getId(), -1L, messageId, webhookMessage, config);
+            this(messageChannel.getId(), -1L, messageId, webhookMessage);
         }
 
         public MessageReference(
                 DiscordThreadChannel threadChannel,
                 long messageId,
-                boolean webhookMessage,
-                MirroringConfig config
+                boolean webhookMessage
         ) {
-            this(threadChannel.getParentChannel().getId(), threadChannel.getId(), messageId, webhookMessage, config);
+            this(threadChannel.getParentChannel().getId(), threadChannel.getId(), messageId, webhookMessage);
         }
 
         public MessageReference(
                 long channelId,
                 long threadId,
                 long messageId,
-                boolean webhookMessage,
-                MirroringConfig config
+                boolean webhookMessage
         ) {
             this.channelId = channelId;
             this.threadId = threadId;
             this.messageId = messageId;
             this.webhookMessage = webhookMessage;
-            this.config = config;
+        }
+
+        public static MessageReference decode(long[] group, int offset) {
+            long messageId = group[offset + 2];
+            return new MessageReference(
+                    group[offset],
+                    group[offset + 1],
+                    messageId & MirrorMappingStore.MESSAGE_ID_MASK,
+                    (messageId & MirrorMappingStore.FLAG_WEBHOOK) != 0
+            );
+        }
+
+        public void encode(long[] group, int offset, boolean original) {
+            group[offset] = channelId;
+            group[offset + 1] = threadId;
+            group[offset + 2] = messageId
+                    | (webhookMessage ? MirrorMappingStore.FLAG_WEBHOOK : 0)
+                    | (original ? MirrorMappingStore.FLAG_ORIGINAL : 0);
         }
 
         public DiscordGuildMessageChannel getMessageChannel(DiscordSRV discordSRV) {
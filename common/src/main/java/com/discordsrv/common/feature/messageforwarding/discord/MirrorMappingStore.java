@@ -0,0 +1,567 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2025 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.feature.messageforwarding.discord;
+
+import com.discordsrv.common.core.logging.Logger;
+import com.discordsrv.common.core.scheduler.Scheduler;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongSupplier;
+import java.util.zip.CRC32;
+
+/**
+ * Remembers which messages are mirrors of each other, for mirroring edits and deletions.
+ * <p>
+ * A group of mirrored messages is a {@code long[]} of {@link #REFERENCE_LENGTH} longs per message:
+ * the channel id, the thread id (or {@code -1}) and the message id with {@link #FLAG_WEBHOOK} and {@link #FLAG_ORIGINAL}
+ * in the otherwise unused high bits. Every message id in a group maps to the same array,
+ * in an open addressing table of primitive keys.
+ * <p>
+ * Groups are kept in time buckets, a whole bucket is removed once it is older than the retention time.
+ * Optionally groups are also appended to a file, which is read on startup and rewritten once most of it has expired.
+ * The file is written by a single writer thread, so adding groups never waits for the disk.
+ */
+public class MirrorMappingStore {
+
+    public static final int REFERENCE_LENGTH = 3;
+    public static final long FLAG_WEBHOOK = 1L << 63;
+    public static final long FLAG_ORIGINAL = 1L << 62;
+    public static final long MESSAGE_ID_MASK = ~(FLAG_WEBHOOK | FLAG_ORIGINAL);
+
+    private static final long EMPTY = 0L;
+    private static final int BUCKET_COUNT = 12;
+    private static final long MINIMUM_BUCKET_MILLIS = Duration.ofMinutes(1).toMillis();
+
+    private static final int MAGIC = 0x44535256; // DSRV
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    // length (4), crc32 (4), time (8), followed by the group
+    private static final int RECORD_HEADER_SIZE = 16;
+    private static final long MINIMUM_COMPACTION_BYTES = 1024 * 1024;
+    private static final Write STOP = new Write(new long[0], 0, 0);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Path path;
+    private final Logger logger;
+    private final LongSupplier clock;
+    private final long retentionMillis;
+    private final long bucketMillis;
+    private final BlockingQueue<Write> writes = new LinkedBlockingQueue<>();
+
+    // Guarded by the lock
+    private long[] keys;
+    private long[][] values;
+    private int size;
+    private final Deque<Bucket> buckets = new ArrayDeque<>();
+    private long liveBytes;
+    private long sequence;
+    private Thread writerThread;
+
+    // Only used by the writer thread after loading
+    private FileChannel channel;
+    private long fileSize;
+    private long compactedSequence;
+
+    /**
+     * Creates a new store.
+     * @param path the file to persist groups in, {@code null} to only keep them in memory
+     * @param retention how long to keep groups for
+     * @param logger the logger for errors writing the file
+     */
+    public MirrorMappingStore(@Nullable Path path, @NotNull Duration retention, @NotNull Logger logger) {
+        this(path, retention, logger, System::currentTimeMillis);
+    }
+
+    /**
+     * Creates a new store.
+     * @param path the file to persist groups in, {@code null} to only keep them in memory
+     * @param retention how long to keep groups for
+     * @param logger the logger for errors writing the file
+     * @param clock the current time in milliseconds
+     */
+    public MirrorMappingStore(@Nullable Path path, @NotNull Duration retention, @NotNull Logger logger, @NotNull LongSupplier clock) {
+        this.path = path;
+        this.logger = logger;
+        this.clock = clock;
+        this.retentionMillis = retention.toMillis();
+        this.bucketMillis = Math.max(MINIMUM_BUCKET_MILLIS, retentionMillis / BUCKET_COUNT);
+        this.keys = new long[64];
+        this.values = new long[64][];
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the group the given message is in.
+     * @param messageId the id of the message
+     * @return the group, which must not be modified, or {@code null} if the message isn't known
+     */
+    @Nullable
+    public long[] get(long messageId) {
+        lock.readLock().lock();
+        try {
+            int slot = find(messageId);
+            return slot != -1 ? values[slot] : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds a group of mirrored messages, replacing any previous groups for the same messages.
+     * Groups older than the retention time are removed at the same time.
+     * The group is written to the file in the background.
+     * @param group the group, which must not be modified afterward
+     */
+    public void put(@NotNull long[] group) {
+        if (group.length == 0 || group.length % REFERENCE_LENGTH != 0) {
+            throw new IllegalArgumentException("Invalid group length: " + group.length);
+        }
+
+        long now = clock.getAsLong();
+        lock.writeLock().lock();
+        try {
+            evict(now);
+            add(group, now);
+            liveBytes += recordSize(group);
+
+            if (writerThread != null) {
+                // Queued while holding the lock, so a compaction knows which groups it already includes
+                writes.add(new Write(group, currentBucket(now).start, ++sequence));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void evict(long now) {
+        Bucket bucket;
+        while ((bucket = buckets.peekFirst()) != null && bucket.start + bucketMillis <= now - retentionMillis) {
+            buckets.removeFirst();
+            for (long[] group : bucket.groups) {
+                for (int i = 2; i < group.length; i += REFERENCE_LENGTH) {
+                    int slot = find(group[i] & MESSAGE_ID_MASK);
+                    // Unless it was replaced by a newer group
+                    if (slot != -1 && values[slot] == group) {
+                        removeSlot(slot);
+                    }
+                }
+                liveBytes -= recordSize(group);
+            }
+        }
+    }
+
+    private Bucket currentBucket(long now) {
+        Bucket bucket = buckets.peekLast();
+        if (bucket == null || now >= bucket.start + bucketMillis) {
+            bucket = new Bucket(now);
+            buckets.addLast(bucket);
+        }
+        return bucket;
+    }
+
+    private void add(long[] group, long time) {
+        currentBucket(time).groups.add(group);
+        for (int i = 2; i < group.length; i += REFERENCE_LENGTH) {
+            long messageId = group[i] & MESSAGE_ID_MASK;
+            if (messageId == EMPTY) {
+                continue;
+            }
+
+            int slot = find(messageId);
+            if (slot != -1) {
+                values[slot] = group;
+                continue;
+            }
+
+            if ((size + 1) * 2 > keys.length) {
+                resize(keys.length * 2);
+            }
+            insert(messageId, group);
+            size++;
+        }
+    }
+
+    //
+    // Table
+    //
+
+    private int slot(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & (keys.length - 1);
+    }
+
+    private int find(long key) {
+        int mask = keys.length - 1;
+        for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+            long existing = keys[slot];
+            if (existing == EMPTY) {
+                return -1;
+            }
+            if (existing == key) {
+                return slot;
+            }
+        }
+    }
+
+    private void insert(long key, long[] value) {
+        int mask = keys.length - 1;
+        int slot = slot(key);
+        while (keys[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+    }
+
+    private void removeSlot(int slot) {
+        int mask = keys.length - 1;
+
+        // Shift following entries back, so lookups don't stop at the gap
+        int gap = slot;
+        for (slot = (slot + 1) & mask; keys[slot] != EMPTY; slot = (slot + 1) & mask) {
+            int ideal = slot(keys[slot]);
+            if (((slot - ideal) & mask) >= ((slot - gap) & mask)) {
+                keys[gap] = keys[slot];
+                values[gap] = values[slot];
+                gap = slot;
+            }
+        }
+        keys[gap] = EMPTY;
+        values[gap] = null;
+        size--;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        long[][] oldValues = values;
+        keys = new long[capacity];
+        values = new long[capacity][];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                insert(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    //
+    // File
+    //
+
+    /**
+     * Reads the file and starts writing new groups to it, if this store has one.
+     * @throws IOException if reading the file fails
+     */
+    public void load() throws IOException {
+        if (path == null) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            read();
+            if (shouldCompact()) {
+                compact();
+            }
+
+            writerThread = new Thread(this::writeLoop, Scheduler.THREAD_NAME_PREFIX + "Mirror Mapping Writer");
+            writerThread.setDaemon(true);
+            writerThread.start();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void read() throws IOException {
+        boolean exists = Files.exists(path);
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        fileSize = channel.size();
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        if (exists && fileSize >= HEADER_SIZE) {
+            readFully(header, 0);
+        }
+        if (!exists || fileSize < HEADER_SIZE || header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+            // Nothing worth keeping
+            channel.truncate(0);
+            fileSize = writeFully(channel, header(), 0);
+            return;
+        }
+
+        long now = clock.getAsLong();
+        long position = HEADER_SIZE;
+        ByteBuffer recordHeader = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+        while (position + RECORD_HEADER_SIZE <= fileSize) {
+            recordHeader.clear();
+            readFully(recordHeader, position);
+            int length = recordHeader.getInt(0);
+            if (length <= 0 || length % REFERENCE_LENGTH != 0 || position + RECORD_HEADER_SIZE + length * 8L > fileSize) {
+                break;
+            }
+
+            ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + length * 8);
+            readFully(record, position);
+            if (record.getInt(4) != checksum(record.array(), record.arrayOffset(), record.capacity())) {
+                break;
+            }
+
+            long time = record.getLong(8);
+            position += record.capacity();
+            if (time + bucketMillis <= now - retentionMillis) {
+                continue;
+            }
+
+            long[] group = new long[length];
+            record.position(RECORD_HEADER_SIZE);
+            record.asLongBuffer().get(group);
+            add(group, time);
+            liveBytes += record.capacity();
+        }
+
+        if (position < fileSize) {
+            // Incomplete or corrupted write at the end
+            channel.truncate(position);
+            fileSize = position;
+        }
+    }
+
+    /**
+     * Stops writing to the file, after the groups that are waiting to be written have been written.
+     * @throws IOException if closing the file fails
+     */
+    public void close() throws IOException {
+        Thread thread;
+        lock.writeLock().lock();
+        try {
+            thread = writerThread;
+            writerThread = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        if (thread != null) {
+            writes.add(STOP);
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    private boolean shouldCompact() {
+        long liveBytes;
+        lock.readLock().lock();
+        try {
+            liveBytes = this.liveBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        long bytes = fileSize - HEADER_SIZE;
+        return bytes >= MINIMUM_COMPACTION_BYTES && bytes > 2 * liveBytes;
+    }
+
+    private void compact() throws IOException {
+        List<Write> snapshot = new ArrayList<>();
+        long snapshotSequence;
+        lock.readLock().lock();
+        try {
+            for (Bucket bucket : buckets) {
+                for (long[] group : bucket.groups) {
+                    snapshot.add(new Write(group, bucket.start, 0));
+                }
+            }
+            snapshotSequence = sequence;
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        long compactedSize;
+        try (FileChannel output = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            compactedSize = writeFully(output, header(), 0);
+            compactedSize += writeFully(output, encode(snapshot), compactedSize);
+        }
+
+        channel.close();
+        boolean moved = false;
+        try {
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            moved = true;
+        } finally {
+            // The old file if the move failed
+            channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+        if (moved) {
+            // Queued groups up to the snapshot are already in the new file
+            fileSize = compactedSize;
+            compactedSequence = snapshotSequence;
+        }
+    }
+
+    //
+    // Writer
+    //
+
+    private void writeLoop() {
+        List<Write> batch = new ArrayList<>();
+        boolean stop = false;
+        while (!stop) {
+            try {
+                batch.add(writes.take());
+            } catch (InterruptedException e) {
+                break;
+            }
+            writes.drainTo(batch);
+
+            stop = batch.remove(STOP);
+            writeBatch(batch);
+            batch.clear();
+        }
+    }
+
+    private void writeBatch(List<Write> batch) {
+        batch.removeIf(write -> write.sequence <= compactedSequence);
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            fileSize += writeFully(channel, encode(batch), fileSize);
+        } catch (Throwable t) {
+            // The next batch is written over anything that may have been written
+            logger.error("Failed to write to " + path.getFileName(), t);
+            return;
+        }
+
+        if (shouldCompact()) {
+            try {
+                compact();
+            } catch (Throwable t) {
+                logger.error("Failed to compact " + path.getFileName(), t);
+            }
+        }
+    }
+
+    private static ByteBuffer header() {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).flip();
+        return header;
+    }
+
+    private static int recordSize(long[] group) {
+        return RECORD_HEADER_SIZE + group.length * 8;
+    }
+
+    private static ByteBuffer encode(List<Write> writes) {
+        int bytes = 0;
+        for (Write write : writes) {
+            bytes += recordSize(write.group);
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(bytes);
+        for (Write write : writes) {
+            int start = buffer.position();
+            buffer.putInt(write.group.length).putInt(0).putLong(write.time);
+            for (long value : write.group) {
+                buffer.putLong(value);
+            }
+            buffer.putInt(start + 4, checksum(buffer.array(), buffer.arrayOffset() + start, buffer.position() - start));
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static int checksum(byte[] array, int offset, int length) {
+        // Everything except the checksum itself
+        CRC32 crc = new CRC32();
+        crc.update(array, offset, 4);
+        crc.update(array, offset + 8, length - 8);
+        return (int) crc.getValue();
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                break;
+            }
+            position += read;
+        }
+    }
+
+    private static int writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        int written = 0;
+        while (buffer.hasRemaining()) {
+            written += channel.write(buffer, position + written);
+        }
+        return written;
+    }
+
+    private static class Write {
+
+        private final long[] group;
+        private final long time;
+        private final long sequence;
+
+        private Write(long[] group, long time, long sequence) {
+            this.group = group;
+            this.time = time;
+            this.sequence = sequence;
+        }
+    }
+
+    private static class Bucket {
+
+        private final long start;
+        private final List<long[]> groups = new ArrayList<>();
+
+        private Bucket(long start) {
+            this.start = start;
+        }
+    }
+}
@@ -33,9 +33,11 @@ import com.discordsrv.common.DiscordSRV;
 import com.discordsrv.common.abstraction.player.IPlayer;
 import com.discordsrv.common.config.main.channels.base.BaseChannelConfig;
 import com.discordsrv.common.config.main.channels.base.IChannelConfig;
+import com.discordsrv.common.config.main.generic.BurstConfig;
 import com.discordsrv.common.config.main.generic.IMessageConfig;
 import com.discordsrv.common.core.logging.NamedLogger;
 import com.discordsrv.common.core.module.type.AbstractModule;
+import com.discordsrv.common.discord.api.ChannelSendQueues;
 import com.discordsrv.common.discord.api.entity.message.ReceivedDiscordMessageClusterImpl;
 import com.discordsrv.common.helper.TestHelper;
 import com.discordsrv.common.util.DiscordPermissionUtil;
@@ -56,7 +58,8 @@ import java.util.*;
  * - {@link IPlayer} and {@link BaseChannelConfig} (uses {@link #mapConfig(AbstractGameMessageReceiveEvent, BaseChannelConfig)} are resolved, then {@link #forwardToChannel(AbstractGameMessageReceiveEvent, IPlayer, BaseChannelConfig, GameChannel)} is called
  * - Destinations are looked up and {@link #sendMessageToChannels} gets called
  * - {@link #setPlaceholders(IMessageConfig, AbstractGameMessageReceiveEvent, SendableDiscordMessage.Formatter)} is called to set any additional placeholders
- * - {@link #sendMessageToChannel(DiscordGuildMessageChannel, SendableDiscordMessage)} is called (once per channel) to send messages to individual channels
+ * - {@link #sendMessageToChannel(IMessageConfig, DiscordGuildMessageChannel, SendableDiscordMessage)} is called (once per channel) to send messages to individual channels,
+ *   combining messages while the channel is busy if {@link #burstConfig(IMessageConfig)} is enabled
  * - {@link #postClusterToEventBus(GameChannel, ReceivedDiscordMessageCluster)} is called with all messages that were sent (if any messages were sent)
  *
  * @param <T> config model
@@ -64,8 +67,11 @@ import java.util.*;
  */
 public abstract class AbstractGameMessageModule<T extends IMessageConfig, E extends AbstractGameMessageReceiveEvent> extends AbstractModule<DiscordSRV> {
 
+    private final MessageBurstQueue burstQueue;
+
     public AbstractGameMessageModule(DiscordSRV discordSRV, String loggerName) {
         super(discordSRV, new NamedLogger(discordSRV, loggerName));
+        this.burstQueue = new MessageBurstQueue(discordSRV);
     }
 
     @Override
@@ -83,6 +89,24 @@ public abstract class AbstractGameMessageModule<T extends IMessageConfig, E exte
     }
 
     public abstract T mapConfig(BaseChannelConfig channelConfig);
+
+    /**
+     * Gets the configuration for combining messages sent to the same channel in quick succession.
+     * @param config the module configuration
+     * @return the burst configuration, or {@code null} if messages should never be combined
+     */
+    protected @Nullable BurstConfig burstConfig(T config) {
+        return null;
+    }
+
+    /**
+     * The priority of this module's messages in the channel send queues.
+     * @return the priority
+     */
+    protected ChannelSendQueues.Priority sendPriority() {
+        return ChannelSendQueues.Priority.LOW;
+    }
+
     public abstract void postClusterToEventBus(@Nullable GameChannel channel, @NotNull ReceivedDiscordMessageCluster cluster);
 
     public final Task<?> process(
@@ -193,13 +217,21 @@ public abstract class AbstractGameMessageModule<T extends IMessageConfig, E exte
 
         List<Task<ReceivedDiscordMessage>> futures = new ArrayList<>();
         for (DiscordGuildMessageChannel channel : channels) {
-            futures.add(sendMessageToChannel(channel, discordMessage));
+            futures.add(sendMessageToChannel(config, channel, discordMessage));
         }
 
         return futures;
     }
 
     protected final @NotNull Task<ReceivedDiscordMessage> sendMessageToChannel(DiscordGuildMessageChannel channel, SendableDiscordMessage message) {
+        return sendMessageToChannel(null, channel, message);
+    }
+
+    protected final @NotNull Task<ReceivedDiscordMessage> sendMessageToChannel(
+            @Nullable T config,
+            DiscordGuildMessageChannel channel,
+            SendableDiscordMessage message
+    ) {
         GuildChannel permissionChannel = (GuildMessageChannel) channel.getAsJDAMessageChannel();
 
         Permission sendPermission;
@@ -220,7 +252,15 @@ public abstract class AbstractGameMessageModule<T extends IMessageConfig, E exte
             return Task.completed(null);
         }
 
-        return channel.sendMessage(message).whenFailed(t -> {
+        ChannelSendQueues sendQueues = discordSRV.discordAPI().sendQueues();
+        ChannelSendQueues.Priority priority = sendPriority();
+
+        BurstConfig burstConfig = config != null ? burstConfig(config) : null;
+        Task<ReceivedDiscordMessage> future = burstConfig != null && burstConfig.enabled
+                ? burstQueue.send(channel, message, burstConfig, msg -> sendQueues.sendMessage(channel, msg, priority))
+                : sendQueues.sendMessage(channel, message, priority);
+
+        return future.whenFailed(t -> {
             ErrorCallbackContext.context("Failed to deliver a message to " + describeDestination(channel)).accept(t);
             TestHelper.fail(t);
         });
@@ -0,0 +1,314 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2025 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.feature.messageforwarding.game;
+
+import com.discordsrv.api.discord.entity.channel.DiscordGuildMessageChannel;
+import com.discordsrv.api.discord.entity.message.DiscordMessageEmbed;
+import com.discordsrv.api.discord.entity.message.ReceivedDiscordMessage;
+import com.discordsrv.api.discord.entity.message.SendableDiscordMessage;
+import com.discordsrv.api.task.Task;
+import com.discordsrv.common.DiscordSRV;
+import com.discordsrv.common.config.main.generic.BurstConfig;
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Combines consecutive messages to the same channel into one Discord message (up to the content length and embed limits)
+ * while more messages than configured are being sent to the channel per second.
+ * Messages from the same author have their content joined, messages from different authors become one embed each.
+ * Messages are sent individually when traffic is light.
+ */
+public class MessageBurstQueue {
+
+    private final DiscordSRV discordSRV;
+    private final Map<Long, ChannelQueue> channels = new ConcurrentHashMap<>();
+
+    public MessageBurstQueue(DiscordSRV discordSRV) {
+        this.discordSRV = discordSRV;
+    }
+
+    public Task<ReceivedDiscordMessage> send(
+            DiscordGuildMessageChannel channel,
+            SendableDiscordMessage message,
+            BurstConfig config,
+            Function<SendableDiscordMessage, Task<ReceivedDiscordMessage>> sender
+    ) {
+        ChannelQueue queue = channels.computeIfAbsent(channel.getId(), key -> new ChannelQueue());
+        long currentTime = System.currentTimeMillis();
+
+        PendingMessage pending;
+        Task<ReceivedDiscordMessage> chained = null;
+        synchronized (queue) {
+            Deque<Long> recent = queue.recentMessages;
+            while (!recent.isEmpty() && (recent.size() > config.messagesPerSecond || recent.peekFirst() <= currentTime - 1000)) {
+                recent.pollFirst();
+            }
+            recent.addLast(currentTime);
+
+            if (queue.pending == null) {
+                if (recent.size() <= config.messagesPerSecond) {
+                    // Not busy
+                    pending = null;
+                    if (queue.draining != null) {
+                        // The previous window is still being sent, send after it
+                        chained = chain(queue, () -> sender.apply(message));
+                    }
+                } else {
+                    queue.pending = new ArrayList<>();
+                    discordSRV.scheduler().runLater(() -> flush(queue, config, sender), Duration.ofMillis(config.delayMilliseconds));
+                    pending = new PendingMessage(message);
+                    queue.pending.add(pending);
+                }
+            } else {
+                // Keep messages in order, even if it's no longer busy
+                pending = new PendingMessage(message);
+                queue.pending.add(pending);
+            }
+        }
+
+        if (pending != null) {
+            return pending.task;
+        }
+        return chained != null ? chained : sender.apply(message);
+    }
+
+    /**
+     * Sends after everything that is currently being sent to the channel, must be called while holding the queue's lock.
+     */
+    private <T> Task<T> chain(ChannelQueue queue, Supplier<Task<T>> send) {
+        Task<?> previous = queue.draining != null ? queue.draining.mapException(t -> null) : Task.<Void>completed(null);
+        Task<T> task = previous.then(__ -> send.get());
+        queue.draining = task;
+        task.whenComplete((__, t) -> {
+            synchronized (queue) {
+                if (queue.draining == task) {
+                    queue.draining = null;
+                }
+            }
+        });
+        return task;
+    }
+
+    private void flush(ChannelQueue queue, BurstConfig config, Function<SendableDiscordMessage, Task<ReceivedDiscordMessage>> sender) {
+        synchronized (queue) {
+            List<PendingMessage> pending = queue.pending;
+            queue.pending = null;
+            if (pending == null || pending.isEmpty()) {
+                return;
+            }
+
+            // Chained while holding the lock, so newer messages can't be sent before these
+            for (Group group : group(pending, config)) {
+                chain(queue, () -> {
+                    Task<ReceivedDiscordMessage> task = sender.apply(combine(group));
+                    task.whenComplete((result, t) -> {
+                        for (PendingMessage message : group.messages) {
+                            if (t != null) {
+                                message.task.completeExceptionally(t);
+                            } else {
+                                message.task.complete(result);
+                            }
+                        }
+                    });
+                    return task;
+                });
+            }
+        }
+    }
+
+    private List<Group> group(List<PendingMessage> pending, BurstConfig config) {
+        List<Group> groups = new ArrayList<>();
+        Group group = new Group();
+        for (PendingMessage message : pending) {
+            if (!group.add(message, config.combineDifferentAuthors)) {
+                groups.add(group);
+                group = new Group();
+                group.add(message, config.combineDifferentAuthors);
+            }
+        }
+        groups.add(group);
+        return groups;
+    }
+
+    private static boolean canCombine(SendableDiscordMessage first, SendableDiscordMessage other) {
+        if (!isCombinable(first) || !isCombinable(other)) {
+            return false;
+        }
+
+        return Objects.equals(first.getWebhookUsername(), other.getWebhookUsername())
+                && Objects.equals(first.getWebhookAvatarUrl(), other.getWebhookAvatarUrl())
+                && Objects.equals(first.getAllowedMentions(), other.getAllowedMentions())
+                && first.isSuppressedNotifications() == other.isSuppressedNotifications()
+                && first.isSuppressedEmbeds() == other.isSuppressedEmbeds();
+    }
+
+    private static boolean isCombinable(SendableDiscordMessage message) {
+        return message.getAttachments().isEmpty()
+                && message.getActionRows().isEmpty()
+                && message.getMessageIdToReplyTo() == null;
+    }
+
+    /**
+     * If the message can be shown as an embed with its author, when combining messages from different authors.
+     */
+    private static boolean isEmbeddable(SendableDiscordMessage message) {
+        String content = message.getContent();
+        return isCombinable(message)
+                && message.getEmbeds().isEmpty()
+                && !message.isSuppressedEmbeds()
+                && content != null && !content.isEmpty()
+                && content.length() <= MessageEmbed.DESCRIPTION_MAX_LENGTH;
+    }
+
+    private static int embedLength(SendableDiscordMessage message) {
+        String username = message.getWebhookUsername();
+        return (username != null ? username.length() : 0) + message.getContent().length();
+    }
+
+    private static int contentLength(SendableDiscordMessage message) {
+        String content = message.getContent();
+        return content != null ? content.length() : 0;
+    }
+
+    private SendableDiscordMessage combine(Group group) {
+        List<PendingMessage> messages = group.messages;
+        SendableDiscordMessage first = messages.get(0).message;
+        if (messages.size() == 1) {
+            return first;
+        }
+
+        if (group.asEmbeds) {
+            // A single bot message with one embed per message, so each author stays visible
+            SendableDiscordMessage.Builder builder = SendableDiscordMessage.builder()
+                    .setSuppressedNotifications(first.isSuppressedNotifications());
+            for (PendingMessage message : messages) {
+                SendableDiscordMessage sendable = message.message;
+                builder.addEmbed(
+                        DiscordMessageEmbed.builder()
+                                .setAuthor(sendable.getWebhookUsername(), null, sendable.getWebhookAvatarUrl())
+                                .setDescription(sendable.getContent())
+                                .build()
+                );
+            }
+            return builder.build();
+        }
+
+        StringJoiner content = new StringJoiner("\n");
+        SendableDiscordMessage.Builder builder = SendableDiscordMessage.builder()
+                .setWebhookUsername(first.getWebhookUsername())
+                .setWebhookAvatarUrl(first.getWebhookAvatarUrl())
+                .setAllowedMentions(first.getAllowedMentions())
+                .setSuppressedNotifications(first.isSuppressedNotifications())
+                .setSuppressedEmbeds(first.isSuppressedEmbeds());
+        for (PendingMessage message : messages) {
+            String messageContent = message.message.getContent();
+            if (messageContent != null && !messageContent.isEmpty()) {
+                content.add(messageContent);
+            }
+            for (DiscordMessageEmbed embed : message.message.getEmbeds()) {
+                builder.addEmbed(embed);
+            }
+        }
+        return builder.setContent(content.length() > 0 ? content.toString() : null).build();
+    }
+
+    /**
+     * Messages that are sent as one Discord message, either with their content joined (same author)
+     * or as one embed per message (different authors).
+     */
+    private static class Group {
+
+        private final List<PendingMessage> messages = new ArrayList<>();
+        private boolean asEmbeds = false;
+        private int contentLength = 0;
+        private int embedCount = 0;
+        private int embedLength = 0;
+
+        private boolean add(PendingMessage message, boolean combineDifferentAuthors) {
+            SendableDiscordMessage sendable = message.message;
+            if (messages.isEmpty()) {
+                messages.add(message);
+                contentLength = contentLength(sendable);
+                embedCount = sendable.getEmbeds().size();
+                embedLength = isEmbeddable(sendable) ? embedLength(sendable) : 0;
+                return true;
+            }
+
+            SendableDiscordMessage first = messages.get(0).message;
+            if (!asEmbeds && canCombine(first, sendable)) {
+                int length = contentLength(sendable);
+                int joinedLength = contentLength + (length > 0 && contentLength > 0 ? 1 : 0) + length;
+                int embeds = sendable.getEmbeds().size();
+                if (joinedLength <= Message.MAX_CONTENT_LENGTH && embedCount + embeds <= Message.MAX_EMBED_COUNT) {
+                    messages.add(message);
+                    contentLength = joinedLength;
+                    embedCount += embeds;
+                    if (isEmbeddable(sendable)) {
+                        embedLength += embedLength(sendable);
+                    }
+                    return true;
+                }
+            }
+
+            if (!combineDifferentAuthors || !isEmbeddable(sendable)
+                    || messages.size() + 1 > Message.MAX_EMBED_COUNT
+                    || embedLength + embedLength(sendable) > MessageEmbed.EMBED_MAX_LENGTH_BOT
+                    || first.isSuppressedNotifications() != sendable.isSuppressedNotifications()) {
+                return false;
+            }
+            if (!asEmbeds) {
+                for (PendingMessage previous : messages) {
+                    if (!isEmbeddable(previous.message)) {
+                        return false;
+                    }
+                }
+                asEmbeds = true;
+            }
+
+            messages.add(message);
+            embedLength += embedLength(sendable);
+            return true;
+        }
+    }
+
+    private static class ChannelQueue {
+
+        // Guarded by the queue itself
+        private final Deque<Long> recentMessages = new ArrayDeque<>();
+        private List<PendingMessage> pending;
+        // The last send of a flushed window or a message sent after it, until it completes
+        private Task<?> draining;
+    }
+
+    private static class PendingMessage {
+
+        private final SendableDiscordMessage message;
+        private final Task<ReceivedDiscordMessage> task = new Task<>();
+
+        private PendingMessage(SendableDiscordMessage message) {
+            this.message = message;
+        }
+    }
+}
@@ -29,6 +29,7 @@ import com.discordsrv.api.eventbus.EventPriorities;
 import com.discordsrv.api.eventbus.Subscribe;
 import com.discordsrv.api.events.message.forward.game.GameChatMessageForwardedEvent;
 import com.discordsrv.api.events.message.receive.game.GameChatMessageReceiveEvent;
+import com.discordsrv.api.placeholder.PlaceholderRenderScope;
 import com.discordsrv.api.placeholder.format.FormattedText;
 import com.discordsrv.api.placeholder.format.PlainPlaceholderFormat;
 import com.discordsrv.api.placeholder.util.Placeholders;
@@ -37,6 +38,8 @@ import com.discordsrv.common.DiscordSRV;
 import com.discordsrv.common.abstraction.player.IPlayer;
 import com.discordsrv.common.config.main.channels.MinecraftToDiscordChatConfig;
 import com.discordsrv.common.config.main.channels.base.BaseChannelConfig;
+import com.discordsrv.common.config.main.generic.BurstConfig;
+import com.discordsrv.common.discord.api.ChannelSendQueues;
 import com.discordsrv.common.feature.mention.CachedMention;
 import com.discordsrv.common.feature.mention.MentionCachingModule;
 import com.discordsrv.common.permission.game.Permissions;
@@ -69,6 +72,16 @@ public class MinecraftToDiscordChatModule extends AbstractGameMessageModule<Mine
         return channelConfig.minecraftToDiscord;
     }
 
+    @Override
+    protected ChannelSendQueues.Priority sendPriority() {
+        return ChannelSendQueues.Priority.NORMAL;
+    }
+
+    @Override
+    protected BurstConfig burstConfig(MinecraftToDiscordChatConfig config) {
+        return config.burst;
+    }
+
     @Override
     public void postClusterToEventBus(GameChannel channel, @NotNull ReceivedDiscordMessageCluster cluster) {
         discordSRV.eventBus().publish(new GameChatMessageForwardedEvent(channel, cluster));
@@ -94,13 +107,17 @@ public class MinecraftToDiscordChatModule extends AbstractGameMessageModule<Mine
         Component message = ComponentUtil.fromAPI(event.getMessage());
         List<Task<ReceivedDiscordMessage>> futures = new ArrayList<>();
 
+        // Placeholders that don't depend on the Guild are only resolved once
+        Object[] guildContext = Arrays.copyOf(context, context.length + 1);
+        guildContext[context.length] = new PlaceholderRenderScope();
+
         // Format messages per-Guild
         for (Map.Entry<DiscordGuild, Set<DiscordGuildMessageChannel>> entry : channelMap.entrySet()) {
             Guild guild = entry.getKey().asJDA();
-            Task<SendableDiscordMessage> messageFuture = getMessageForGuild(config, format, guild, message, player, context);
+            Task<SendableDiscordMessage> messageFuture = getMessageForGuild(config, format, guild, message, player, guildContext);
 
             for (DiscordGuildMessageChannel channel : entry.getValue()) {
-                futures.add(messageFuture.then(msg -> sendMessageToChannel(channel, msg)));
+                futures.add(messageFuture.then(msg -> sendMessageToChannel(config, channel, msg)));
             }
         }
 
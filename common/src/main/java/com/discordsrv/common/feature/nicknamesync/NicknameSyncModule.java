@@ -27,9 +27,11 @@ import com.discordsrv.api.task.Task;
 import com.discordsrv.common.DiscordSRV;
 import com.discordsrv.common.abstraction.sync.AbstractSyncModule;
 import com.discordsrv.common.abstraction.sync.SyncFail;
+import com.discordsrv.common.abstraction.sync.SyncStates;
 import com.discordsrv.common.abstraction.sync.result.GenericSyncResults;
 import com.discordsrv.common.abstraction.sync.result.ISyncResult;
 import com.discordsrv.common.config.main.NicknameSyncConfig;
+import com.discordsrv.common.discord.api.DiscordMutationQueue;
 import com.discordsrv.common.feature.nicknamesync.enums.NicknameSyncCause;
 import com.discordsrv.common.feature.nicknamesync.enums.NicknameSyncResult;
 import com.discordsrv.common.helper.Someone;
@@ -128,6 +130,36 @@ public class NicknameSyncModule extends AbstractSyncModule<DiscordSRV, NicknameS
                 .thenApply(nickname -> cleanNickname(config, nickname));
     }
 
+    @Override
+    protected Task<SyncStates<NicknameSyncConfig, Long, String>> getDiscordBulk(List<NicknameSyncConfig> configs, Set<Long> userIds) {
+        SyncStates<NicknameSyncConfig, Long, String> states = new SyncStates<>();
+        List<Task<Void>> retrievals = new ArrayList<>(configs.size());
+        for (NicknameSyncConfig config : configs) {
+            DiscordGuild guild = discordSRV.discordAPI().getGuildById(config.serverId);
+            if (guild == null) {
+                continue;
+            }
+
+            retrievals.add(guild.retrieveMembersByIds(userIds).thenApply(members -> {
+                Set<Long> notMembers = new HashSet<>(userIds);
+                for (DiscordGuildMember member : members) {
+                    long userId = member.getUser().getId();
+                    notMembers.remove(userId);
+                    states.complete(config, userId, cleanNickname(config, member.getNickname()));
+                }
+                for (Long userId : notMembers) {
+                    states.fail(config, userId, NicknameSyncResult.NOT_A_GUILD_MEMBER);
+                }
+                return (Void) null;
+            }).mapException(t -> {
+                logger().debug("Failed to retrieve members of " + guild + " in bulk", t);
+                return null;
+            }));
+        }
+
+        return Task.allOf(retrievals).thenApply(v -> states);
+    }
+
     @Override
     protected Task<String> getGame(NicknameSyncConfig config, UUID playerUUID) {
         NicknameModule module = getModule();
@@ -158,7 +190,8 @@ public class NicknameSyncModule extends AbstractSyncModule<DiscordSRV, NicknameS
                     }
                     return jdaMember;
                 })
-                .thenCompose(member -> member.modifyNickname(newNickname).submit())
+                .then(member -> discordSRV.discordAPI().mutationQueue()
+                        .submit(DiscordMutationQueue.Priority.LOW, () -> member.modifyNickname(newNickname)))
                 .thenApply(v -> NicknameSyncResult.SET_DISCORD);
     }
 
@@ -24,7 +24,8 @@ public enum NicknameSyncResult implements ISyncResult {
 
     MATCH("Both sides match", false),
     SET_DISCORD("Set Discord nickname", true),
-    SET_GAME("Set game nickname", true);
+    SET_GAME("Set game nickname", true),
+    NOT_A_GUILD_MEMBER("User is not part of the server", false);
 
     private final String message;
     private final boolean update;
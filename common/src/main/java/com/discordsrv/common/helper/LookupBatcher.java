@@ -0,0 +1,97 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2025 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.helper;
+
+import com.discordsrv.api.task.Task;
+import com.discordsrv.common.DiscordSRV;
+import com.discordsrv.common.util.function.CheckedFunction;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Helper class to coalesce lookups made within a short window into a single batch lookup.
+ * Concurrent lookups for the same key share the same {@link Task}.
+ *
+ * @param <K> the key type
+ * @param <V> the value type, keys missing from the batch result complete with {@code null}
+ */
+public class LookupBatcher<K, V> {
+
+    private final DiscordSRV discordSRV;
+    private final Duration window;
+    private final CheckedFunction<Collection<K>, Map<K, V>> batchLookup;
+
+    private Map<K, Task<V>> pending = new HashMap<>();
+    private boolean scheduled = false;
+
+    public LookupBatcher(
+            @NotNull DiscordSRV discordSRV,
+            @NotNull Duration window,
+            @NotNull CheckedFunction<Collection<K>, Map<K, V>> batchLookup
+    ) {
+        this.discordSRV = discordSRV;
+        this.window = window;
+        this.batchLookup = batchLookup;
+    }
+
+    /**
+     * Adds the key to the next batch.
+     * @param key the key to lookup
+     * @return a task completing with the value for the key once the batch has been looked up
+     */
+    public Task<V> lookup(@NotNull K key) {
+        synchronized (this) {
+            Task<V> task = pending.get(key);
+            if (task == null) {
+                task = new Task<>();
+                pending.put(key, task);
+            }
+            if (!scheduled) {
+                scheduled = true;
+                discordSRV.scheduler().runLater(() -> discordSRV.scheduler().run(this::flush), window);
+            }
+            return task;
+        }
+    }
+
+    private void flush() {
+        Map<K, Task<V>> batch;
+        synchronized (this) {
+            batch = pending;
+            pending = new HashMap<>();
+            scheduled = false;
+        }
+
+        Map<K, V> results;
+        try {
+            results = batchLookup.apply(batch.keySet());
+        } catch (Throwable t) {
+            batch.values().forEach(task -> task.completeExceptionally(t));
+            return;
+        }
+
+        for (Map.Entry<K, Task<V>> entry : batch.entrySet()) {
+            entry.getValue().complete(results.get(entry.getKey()));
+        }
+    }
+}
@@ -55,7 +55,7 @@ import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
-public class LuckPermsIntegration extends PluginIntegration<DiscordSRV> implements PermissionModule.All {
+public class LuckPermsIntegration extends PluginIntegration<DiscordSRV> implements PermissionModule.All, GroupSyncModule.ReportsGroupChanges {
 
     private LuckPerms luckPerms;
     private final List<EventSubscription<?>> subscriptions = new ArrayList<>();
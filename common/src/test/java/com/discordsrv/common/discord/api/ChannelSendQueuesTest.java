@@ -0,0 +1,193 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2025 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.discord.api;
+
+import com.discordsrv.api.task.Task;
+import com.discordsrv.common.MockDiscordSRV;
+import okhttp3.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChannelSendQueuesTest {
+
+    private static final String LANE = "channel";
+
+    private final ChannelSendQueues queues = new ChannelSendQueues(MockDiscordSRV.getInstance());
+
+    /**
+     * Queues a send that stays in flight until the returned task is completed, so following sends wait in the queue.
+     */
+    private Task<Void> holdLane(Long rateLimitId) {
+        Task<Void> inFlight = new Task<>();
+        queues.enqueue(LANE, ChannelSendQueues.Priority.NORMAL, () -> rateLimitId, () -> inFlight);
+        return inFlight;
+    }
+
+    private Task<Void> enqueue(ChannelSendQueues.Priority priority) {
+        return queues.enqueue(LANE, priority, () -> null, () -> Task.completed(null));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> laneMetrics() {
+        return (Map<String, Object>) queues.metrics().get(LANE);
+    }
+
+    private static void assertRejected(Task<?> task) {
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> task.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class, exception.getCause());
+    }
+
+    @Test
+    public void dropsOldestLowerPriorityWhenFull() {
+        holdLane(null);
+
+        List<Task<Void>> low = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            low.add(enqueue(ChannelSendQueues.Priority.LOW));
+            enqueue(ChannelSendQueues.Priority.NORMAL);
+        }
+
+        Task<Void> added = enqueue(ChannelSendQueues.Priority.NORMAL);
+        assertFalse(added.isDone());
+        assertRejected(low.get(0));
+        assertFalse(low.get(1).isDone());
+
+        Map<String, Object> metrics = laneMetrics();
+        assertEquals(49, metrics.get("queued.low"));
+        assertEquals(51, metrics.get("queued.normal"));
+        assertEquals(1L, metrics.get("dropped"));
+        assertEquals(100, metrics.get("maximumQueued"));
+    }
+
+    @Test
+    public void rejectsWhenOnlyHigherPriorityQueued() {
+        holdLane(null);
+
+        List<Task<Void>> normal = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            normal.add(enqueue(ChannelSendQueues.Priority.NORMAL));
+        }
+
+        assertRejected(enqueue(ChannelSendQueues.Priority.LOW));
+        assertFalse(normal.get(0).isDone());
+
+        // Equal priority drops the oldest
+        assertFalse(enqueue(ChannelSendQueues.Priority.NORMAL).isDone());
+        assertRejected(normal.get(0));
+
+        Map<String, Object> metrics = laneMetrics();
+        assertEquals(100, metrics.get("queued.normal"));
+        assertEquals(1L, metrics.get("dropped"));
+        assertEquals(1L, metrics.get("rejected"));
+    }
+
+    @Test
+    public void sendsQueuedInPriorityOrder() {
+        Task<Void> inFlight = holdLane(null);
+
+        List<String> sent = new ArrayList<>();
+        queues.enqueue(LANE, ChannelSendQueues.Priority.LOW, () -> null, () -> Task.completed(sent.add("low")));
+        queues.enqueue(LANE, ChannelSendQueues.Priority.NORMAL, () -> null, () -> Task.completed(sent.add("normal")));
+        queues.enqueue(LANE, ChannelSendQueues.Priority.HIGH, () -> null, () -> Task.completed(sent.add("high")));
+        assertTrue(sent.isEmpty());
+
+        inFlight.complete(null);
+        assertEquals(Arrays.asList("high", "normal", "low"), sent);
+    }
+
+    @Test
+    public void removesDrainedLane() {
+        Task<Void> inFlight = holdLane(null);
+        assertTrue(queues.metrics().containsKey(LANE));
+
+        inFlight.complete(null);
+        assertFalse(queues.metrics().containsKey(LANE));
+
+        // Used again after being removed
+        assertTrue(enqueue(ChannelSendQueues.Priority.NORMAL).isDone());
+        assertFalse(queues.metrics().containsKey(LANE));
+    }
+
+    @Test
+    public void readsMessageCreateRateLimit() {
+        holdLane(123L);
+
+        queues.updateRateLimit(response("POST", "/api/v10/channels/123/messages", "4", "2.5"));
+        Map<String, Object> metrics = laneMetrics();
+        assertEquals("123", metrics.get("rateLimitId"));
+        assertEquals(4, metrics.get("rateLimitRemaining"));
+        assertTrue((long) metrics.get("rateLimitResetAfterMs") <= 2500L);
+    }
+
+    @Test
+    public void readsWebhookExecuteRateLimit() {
+        holdLane(123L);
+
+        queues.updateRateLimit(response("POST", "/api/v10/webhooks/123/token", "3", "1"));
+        assertEquals(3, laneMetrics().get("rateLimitRemaining"));
+    }
+
+    @Test
+    public void ignoresOtherRoutes() {
+        holdLane(123L);
+
+        queues.updateRateLimit(response("GET", "/api/v10/channels/123/messages", "1", "1"));
+        queues.updateRateLimit(response("POST", "/api/v10/channels/123/messages/456/crosspost", "2", "1"));
+        queues.updateRateLimit(response("POST", "/api/v10/channels/123/typing", "3", "1"));
+        queues.updateRateLimit(response("POST", "/api/v10/webhooks/123/token/messages/456", "4", "1"));
+        assertNull(laneMetrics().get("rateLimitRemaining"));
+    }
+
+    @Test
+    public void waitsForRateLimitReset() {
+        queues.updateRateLimit(response("POST", "/api/v10/channels/123/messages", "0", "60"));
+
+        List<String> sent = new ArrayList<>();
+        queues.enqueue(LANE, ChannelSendQueues.Priority.NORMAL, () -> 123L, () -> Task.completed(sent.add("message")));
+        assertTrue(sent.isEmpty());
+
+        Map<String, Object> metrics = laneMetrics();
+        assertEquals(true, metrics.get("waitingForRateLimit"));
+        assertEquals(0, metrics.get("rateLimitRemaining"));
+    }
+
+    private static Response response(String method, String path, String remaining, String resetAfter) {
+        Request request = new Request.Builder()
+                .url("https://discord.com" + path)
+                .method(method, method.equals("GET") ? null : RequestBody.create(MediaType.parse("application/json"), "{}"))
+                .build();
+        return new Response.Builder()
+                .request(request)
+                .protocol(Protocol.HTTP_1_1)
+                .code(200)
+                .message("OK")
+                .header("X-RateLimit-Remaining", remaining)
+                .header("X-RateLimit-Reset-After", resetAfter)
+                .build();
+    }
+}
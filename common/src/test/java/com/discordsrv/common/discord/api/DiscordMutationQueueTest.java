@@ -0,0 +1,234 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2025 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.discord.api;
+
+import com.discordsrv.api.task.Task;
+import com.discordsrv.common.MockDiscordSRV;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.entities.Role;
+import net.dv8tion.jda.api.requests.restaction.AuditableRestAction;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DiscordMutationQueueTest {
+
+    private final DiscordMutationQueue queue = new DiscordMutationQueue(MockDiscordSRV.getInstance().discordAPI());
+    private final FakeGuild guild = new FakeGuild("1");
+
+    private final Role firstRole = role(1);
+    private final Role secondRole = role(2);
+    private final Role thirdRole = role(3);
+
+    /**
+     * Fills the in flight limit with mutations that complete once the returned futures are completed.
+     */
+    private List<CompletableFuture<Void>> fillInFlight() {
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            CompletableFuture<Void> future = new CompletableFuture<>();
+            queue.submit(DiscordMutationQueue.Priority.NORMAL, () -> action(future));
+            futures.add(future);
+        }
+        return futures;
+    }
+
+    @Test
+    public void mergesWaitingRoleChanges() {
+        guild.roles.add(thirdRole);
+        List<CompletableFuture<Void>> inFlight = fillInFlight();
+
+        Task<Void> first = queue.modifyRole(DiscordMutationQueue.Priority.NORMAL, guild.member, firstRole, true);
+        Task<Void> second = queue.modifyRole(DiscordMutationQueue.Priority.NORMAL, guild.member, secondRole, true);
+        Task<Void> third = queue.modifyRole(DiscordMutationQueue.Priority.NORMAL, guild.member, thirdRole, false);
+        Task<Void> fourth = queue.modifyRole(DiscordMutationQueue.Priority.NORMAL, guild.member, firstRole, false);
+        assertSame(first, second);
+        assertSame(first, third);
+        assertSame(first, fourth);
+        assertTrue(guild.calls.isEmpty());
+
+        inFlight.get(0).complete(null);
+
+        // The latest change for a role wins, the member doesn't have the first role to remove
+        assertEquals(Collections.singletonList("modify +[2] -[3]"), guild.calls);
+        guild.complete();
+        assertTrue(first.isDone());
+        assertEquals(3L, queue.metrics().get("mergedRoleChanges"));
+    }
+
+    @Test
+    public void singleRoleChange() {
+        queue.modifyRole(DiscordMutationQueue.Priority.NORMAL, guild.member, firstRole, true);
+        assertEquals(Collections.singletonList("add 1"), guild.calls);
+    }
+
+    @Test
+    public void skipsChangesMemberAlreadyHas() {
+        guild.roles.add(firstRole);
+
+        Task<Void> task = queue.modifyRole(DiscordMutationQueue.Priority.NORMAL, guild.member, firstRole, true);
+        assertTrue(task.isDone());
+        assertTrue(guild.calls.isEmpty());
+    }
+
+    @Test
+    public void oneRoleChangePerMember() {
+        queue.modifyRole(DiscordMutationQueue.Priority.NORMAL, guild.member, firstRole, true);
+        assertEquals(1, guild.calls.size());
+
+        // Not merged into the change that was already sent, and waits for it
+        queue.modifyRole(DiscordMutationQueue.Priority.NORMAL, guild.member, secondRole, true);
+        assertEquals(1, guild.calls.size());
+
+        guild.roles.add(firstRole);
+        guild.complete();
+        assertEquals(Arrays.asList("add 1", "add 2"), guild.calls);
+    }
+
+    @Test
+    public void highPriorityIgnoresInFlightLimit() {
+        fillInFlight();
+        FakeGuild otherGuild = new FakeGuild("2");
+
+        queue.modifyRole(DiscordMutationQueue.Priority.NORMAL, guild.member, firstRole, true);
+        queue.modifyRole(DiscordMutationQueue.Priority.HIGH, otherGuild.member, secondRole, true);
+        assertTrue(guild.calls.isEmpty());
+        assertEquals(Collections.singletonList("add 2"), otherGuild.calls);
+    }
+
+    @Test
+    public void drainsImmediatelyCompletingMutations() throws Exception {
+        List<Task<Void>> tasks = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            tasks.add(queue.submit(DiscordMutationQueue.Priority.NORMAL, () -> action(CompletableFuture.completedFuture(null))));
+        }
+
+        Task.allOf(tasks).get(5, TimeUnit.SECONDS);
+        assertEquals(0, queue.metrics().get("inFlight"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<?> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(
+                DiscordMutationQueueTest.class.getClassLoader(),
+                new Class<?>[] {type},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "toString":
+                            return type.getSimpleName();
+                    }
+                    return handler.invoke(proxy, method, args);
+                }
+        );
+    }
+
+    private static <T> AuditableRestAction<T> action(CompletableFuture<T> future) {
+        return proxy(AuditableRestAction.class, (proxy, method, args) -> {
+            if (method.getName().equals("submit")) {
+                return future;
+            }
+            throw new UnsupportedOperationException(method.getName());
+        });
+    }
+
+    private static Role role(long id) {
+        return proxy(Role.class, (proxy, method, args) -> {
+            if (method.getName().equals("getIdLong")) {
+                return id;
+            }
+            throw new UnsupportedOperationException(method.getName());
+        });
+    }
+
+    private static String ids(Collection<?> roles) {
+        List<Long> ids = new ArrayList<>();
+        for (Object role : roles) {
+            ids.add(((Role) role).getIdLong());
+        }
+        return ids.toString();
+    }
+
+    /**
+     * A guild with one member, recording the role changes made to the member.
+     */
+    private static class FakeGuild {
+
+        private final List<Role> roles = new ArrayList<>();
+        private final List<String> calls = new ArrayList<>();
+        private final Deque<CompletableFuture<Void>> pending = new ArrayDeque<>();
+        private final Guild guild;
+        private final Member member;
+
+        private FakeGuild(String id) {
+            this.guild = proxy(Guild.class, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getId":
+                        return id;
+                    case "getMemberById":
+                        return this.member;
+                    case "addRoleToMember":
+                        return record("add " + ((Role) args[1]).getIdLong());
+                    case "removeRoleFromMember":
+                        return record("remove " + ((Role) args[1]).getIdLong());
+                    case "modifyMemberRoles":
+                        return record("modify +" + ids((Collection<?>) args[1]) + " -" + ids((Collection<?>) args[2]));
+                }
+                throw new UnsupportedOperationException(method.getName());
+            });
+            this.member = proxy(Member.class, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getGuild":
+                        return guild;
+                    case "getId":
+                        return "10";
+                    case "getIdLong":
+                        return 10L;
+                    case "getRoles":
+                        return new ArrayList<>(roles);
+                }
+                throw new UnsupportedOperationException(method.getName());
+            });
+        }
+
+        private AuditableRestAction<Void> record(String call) {
+            calls.add(call);
+            CompletableFuture<Void> future = new CompletableFuture<>();
+            pending.add(future);
+            return action(future);
+        }
+
+        /**
+         * Completes the oldest role change that is in progress.
+         */
+        private void complete() {
+            pending.remove().complete(null);
+        }
+    }
+}
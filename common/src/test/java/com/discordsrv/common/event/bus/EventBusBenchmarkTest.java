@@ -0,0 +1,185 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2025 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.event.bus;
+
+import com.discordsrv.api.eventbus.Subscribe;
+import com.discordsrv.api.events.Cancellable;
+import com.discordsrv.api.events.Processable;
+import com.discordsrv.api.events.discord.message.DiscordMessageReceiveEvent;
+import com.discordsrv.common.MockDiscordSRV;
+import com.discordsrv.common.core.eventbus.EventBusImpl;
+import com.discordsrv.common.core.eventbus.EventListenerImpl;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class EventBusBenchmarkTest {
+
+    private static final int LISTENERS = 50;
+    private static final int WARMUP_ITERATIONS = 20_000;
+    private static final int ITERATIONS = 200_000;
+
+    @Test
+    @Tag("benchmark")
+    public void dispatchTableVersusPerPublishLookup() throws Throwable {
+        EventBusImpl eventBus = new EventBusImpl(MockDiscordSRV.getInstance());
+        List<CountingListener> listeners = subscribe(eventBus);
+        Map<Class<?>, List<EventListenerImpl>> listenersByEvent = listenersByEvent(eventBus, listeners);
+        DiscordMessageReceiveEvent event = new DiscordMessageReceiveEvent(null, null, null);
+
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            publishWithLookup(listenersByEvent, event);
+            eventBus.publish(event);
+        }
+
+        long lookup = time(() -> publishWithLookup(listenersByEvent, event));
+        long dispatchTable = time(() -> eventBus.publish(event));
+        print("Per publish lookup", lookup);
+        print("Dispatch table", dispatchTable);
+
+        for (CountingListener listener : listeners) {
+            assertEquals(2L * (WARMUP_ITERATIONS + ITERATIONS), listener.count);
+        }
+    }
+
+    @Test
+    @Tag("benchmark")
+    public void generatedInvokersVersusMethodHandles() throws Throwable {
+        EventBusImpl eventBus = new EventBusImpl(MockDiscordSRV.getInstance());
+        List<CountingListener> listeners = subscribe(eventBus);
+        List<EventListenerImpl> eventListeners = new ArrayList<>(LISTENERS);
+        for (CountingListener listener : listeners) {
+            eventListeners.addAll(eventBus.getListeners(listener));
+        }
+        DiscordMessageReceiveEvent event = new DiscordMessageReceiveEvent(null, null, null);
+
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            invokeHandles(eventListeners, event);
+            invokeInvokers(eventListeners, event);
+        }
+
+        long handles = time(() -> invokeHandles(eventListeners, event));
+        long invokers = time(() -> invokeInvokers(eventListeners, event));
+        print("MethodHandle.invoke", handles);
+        print("Generated invokers", invokers);
+
+        for (CountingListener listener : listeners) {
+            assertEquals(2L * (WARMUP_ITERATIONS + ITERATIONS), listener.count);
+        }
+    }
+
+    private static void invokeHandles(List<EventListenerImpl> eventListeners, Object event) throws Throwable {
+        for (EventListenerImpl eventListener : eventListeners) {
+            eventListener.handle().invoke(eventListener.listener(), event);
+        }
+    }
+
+    private static void invokeInvokers(List<EventListenerImpl> eventListeners, Object event) throws Throwable {
+        for (EventListenerImpl eventListener : eventListeners) {
+            eventListener.invoker().invoke(eventListener.listener(), event);
+        }
+    }
+
+    private static List<CountingListener> subscribe(EventBusImpl eventBus) {
+        List<CountingListener> listeners = new ArrayList<>(LISTENERS);
+        for (int i = 0; i < LISTENERS; i++) {
+            CountingListener listener = new CountingListener();
+            eventBus.subscribe(listener);
+            listeners.add(listener);
+        }
+        return listeners;
+    }
+
+    private static Map<Class<?>, List<EventListenerImpl>> listenersByEvent(EventBusImpl eventBus, List<CountingListener> listeners) {
+        Map<Class<?>, List<EventListenerImpl>> listenersByEvent = new HashMap<>();
+        for (CountingListener listener : listeners) {
+            for (EventListenerImpl eventListener : eventBus.getListeners(listener)) {
+                listenersByEvent.computeIfAbsent(eventListener.eventClass(), key -> new ArrayList<>()).add(eventListener);
+            }
+        }
+        return listenersByEvent;
+    }
+
+    /**
+     * What publishing did before dispatch tables: walking the event's class hierarchy,
+     * sorting the listeners and tracking the states in a new map for every event, then invoking the MethodHandle.
+     */
+    private static void publishWithLookup(Map<Class<?>, List<EventListenerImpl>> listenersByEvent, Object event) throws Throwable {
+        Class<?> checkClass = event.getClass();
+
+        Map<Class<?>, Boolean> states = new HashMap<>(2);
+        if (event instanceof Cancellable) {
+            states.put(Cancellable.class, ((Cancellable) event).isCancelled());
+        }
+        if (event instanceof Processable) {
+            states.put(Processable.class, ((Processable) event).isProcessed());
+        }
+
+        List<EventListenerImpl> listeners = new ArrayList<>();
+        while (!Object.class.equals(checkClass)) {
+            listeners.addAll(listenersByEvent.getOrDefault(checkClass, Collections.emptyList()));
+            for (Class<?> anInterface : checkClass.getInterfaces()) {
+                listeners.addAll(listenersByEvent.getOrDefault(anInterface, Collections.emptyList()));
+            }
+
+            checkClass = checkClass.getSuperclass();
+        }
+
+        listeners.sort(Comparator.comparingInt(EventListenerImpl::priority));
+
+        for (EventListenerImpl eventListener : listeners) {
+            eventListener.handle().invoke(eventListener.listener(), event);
+        }
+        states.clear();
+    }
+
+    private static long time(ThrowingRunnable runnable) throws Throwable {
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            runnable.run();
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static void print(String name, long elapsed) {
+        System.out.println(name + ": " + ITERATIONS + " events to " + LISTENERS + " listeners in "
+                                   + TimeUnit.NANOSECONDS.toMillis(elapsed) + "ms ("
+                                   + (elapsed / ITERATIONS) + "ns per event)");
+    }
+
+    @FunctionalInterface
+    private interface ThrowingRunnable {
+
+        void run() throws Throwable;
+    }
+
+    public static class CountingListener {
+
+        private long count = 0;
+
+        @Subscribe
+        public void onDiscordMessageReceive(DiscordMessageReceiveEvent event) {
+            count++;
+        }
+    }
+}
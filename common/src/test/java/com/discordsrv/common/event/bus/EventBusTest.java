@@ -22,6 +22,7 @@ import com.discordsrv.api.eventbus.EventBus;
 import com.discordsrv.api.eventbus.EventPriorities;
 import com.discordsrv.api.eventbus.Subscribe;
 import com.discordsrv.api.events.Event;
+import com.discordsrv.api.task.Task;
 import com.discordsrv.common.MockDiscordSRV;
 import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.events.GenericEvent;
@@ -29,6 +30,9 @@ import net.dv8tion.jda.api.utils.data.DataObject;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -58,6 +62,47 @@ public class EventBusTest {
         assertFalse(reached.get());
     }
 
+    @Test
+    public void dispatchTableInvalidationTest() {
+        Event event = new TestEvent();
+        eventBus.publish(event); // Builds the dispatch table for the event class
+
+        AtomicBoolean reached = new AtomicBoolean(false);
+        ListenerEarly listener = new ListenerEarly(() -> reached.set(true));
+
+        // Subscribing after the table was built should still reach the new listener
+        eventBus.subscribe(listener);
+        eventBus.publish(event);
+        assertTrue(reached.get());
+
+        // and unsubscribing should remove it from the table again
+        eventBus.unsubscribe(listener);
+        reached.set(false);
+
+        eventBus.publish(event);
+        assertFalse(reached.get());
+    }
+
+    @Test
+    public void asyncOrderingTest() {
+        List<Integer> received = new CopyOnWriteArrayList<>();
+        OrderedListener listener = new OrderedListener(received);
+        eventBus.subscribe(listener);
+
+        Object orderingKey = new Object();
+        List<Task<OrderedEvent>> tasks = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            tasks.add(eventBus.publishAsync(new OrderedEvent(i), orderingKey));
+        }
+        Task.allOf(tasks).join();
+        eventBus.unsubscribe(listener);
+
+        assertEquals(100, received.size());
+        for (int i = 0; i < received.size(); i++) {
+            assertEquals(i, received.get(i));
+        }
+    }
+
     @Test
     public void orderTest() {
         AtomicBoolean earlyReached = new AtomicBoolean(false);
@@ -110,6 +155,31 @@ public class EventBusTest {
         assertTrue(reached.get());
     }
 
+    public static class TestEvent implements Event {}
+
+    public static class OrderedEvent implements Event {
+
+        private final int number;
+
+        public OrderedEvent(int number) {
+            this.number = number;
+        }
+    }
+
+    public static class OrderedListener {
+
+        private final List<Integer> received;
+
+        public OrderedListener(List<Integer> received) {
+            this.received = received;
+        }
+
+        @Subscribe
+        public void onOrderedEvent(OrderedEvent event) {
+            received.add(event.number);
+        }
+    }
+
     public static class ListenerEarly {
 
         private final Runnable runnable;
@@ -0,0 +1,156 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2025 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.linking.impl;
+
+import com.discordsrv.common.feature.linking.impl.LinkIndex;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LinkIndexTest {
+
+    /**
+     * Players that all hash to the same slot in the Player UUID table.
+     */
+    private static UUID colliding(long i) {
+        return new UUID(i, i ^ 42L);
+    }
+
+    private static void assertMatches(Map<UUID, Long> expected, LinkIndex index) {
+        assertEquals(expected.size(), index.size());
+        for (Map.Entry<UUID, Long> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), index.getUserId(entry.getKey()));
+            assertEquals(entry.getKey(), index.getPlayerUUID(entry.getValue()));
+        }
+
+        List<Long> userIds = new ArrayList<>();
+        index.forEach((player, userId) -> {
+            assertEquals(expected.get(player), userId);
+            userIds.add(userId);
+        });
+        List<Long> sorted = new ArrayList<>(expected.values());
+        Collections.sort(sorted);
+        assertEquals(sorted, userIds);
+    }
+
+    @Test
+    public void removeFromCollidingCluster() {
+        LinkIndex index = new LinkIndex();
+        Map<UUID, Long> expected = new HashMap<>();
+        for (int i = 0; i < 20; i++) {
+            index.put(colliding(i), i * 10L);
+            expected.put(colliding(i), i * 10L);
+        }
+
+        // Removing from the middle of the cluster shifts the following entries back
+        for (int i = 0; i < 20; i += 3) {
+            index.remove(colliding(i));
+            expected.remove(colliding(i));
+            assertNull(index.getUserId(colliding(i)));
+            assertNull(index.getPlayerUUID(i * 10L));
+        }
+        assertMatches(expected, index);
+    }
+
+    @Test
+    public void removeMovesLastLink() {
+        LinkIndex index = new LinkIndex();
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        index.put(first, 3L);
+        index.put(second, 1L);
+        index.put(third, 2L);
+
+        // The last link takes the removed link's place
+        index.remove(first);
+
+        Map<UUID, Long> expected = new HashMap<>();
+        expected.put(second, 1L);
+        expected.put(third, 2L);
+        assertMatches(expected, index);
+    }
+
+    @Test
+    public void putReplacesExistingLinks() {
+        LinkIndex index = new LinkIndex();
+        UUID player = UUID.randomUUID();
+        UUID otherPlayer = UUID.randomUUID();
+        index.put(player, 1L);
+        index.put(otherPlayer, 2L);
+
+        // Same player, other user
+        index.put(player, 2L);
+        assertNull(index.getUserId(otherPlayer));
+        assertNull(index.getPlayerUUID(1L));
+        assertEquals(player, index.getPlayerUUID(2L));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    public void randomOperations() {
+        Random random = new Random(1);
+        LinkIndex index = new LinkIndex();
+        Map<UUID, Long> expected = new HashMap<>();
+        Map<Long, UUID> expectedPlayers = new HashMap<>();
+
+        for (int operation = 0; operation < 20_000; operation++) {
+            // A small amount of players and users, half of them colliding, so links are replaced and removed often
+            long playerNumber = random.nextInt(200);
+            UUID player = playerNumber % 2 == 0 ? colliding(playerNumber) : new UUID(playerNumber, random.nextInt(4));
+            long userId = random.nextInt(200);
+
+            if (random.nextInt(3) == 0) {
+                index.remove(player);
+                Long removed = expected.remove(player);
+                if (removed != null) {
+                    expectedPlayers.remove(removed);
+                }
+            } else {
+                index.put(player, userId);
+                Long previousUser = expected.remove(player);
+                if (previousUser != null) {
+                    expectedPlayers.remove(previousUser);
+                }
+                UUID previousPlayer = expectedPlayers.remove(userId);
+                if (previousPlayer != null) {
+                    expected.remove(previousPlayer);
+                }
+                expected.put(player, userId);
+                expectedPlayers.put(userId, player);
+            }
+        }
+        assertMatches(expected, index);
+    }
+
+    @Test
+    public void bulkCreateKeepsOneLinkPerPlayer() {
+        UUID player = UUID.randomUUID();
+        UUID otherPlayer = UUID.randomUUID();
+        LinkIndex index = LinkIndex.of(new long[] {3L, 1L, 2L}, new UUID[] {player, player, otherPlayer}, 3);
+
+        // Links are kept in user id order
+        Map<UUID, Long> expected = new HashMap<>();
+        expected.put(player, 1L);
+        expected.put(otherPlayer, 2L);
+        assertMatches(expected, index);
+    }
+}
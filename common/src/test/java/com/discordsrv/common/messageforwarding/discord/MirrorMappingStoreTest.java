@@ -0,0 +1,230 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2025 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.messageforwarding.discord;
+
+import com.discordsrv.common.core.logging.Logger;
+import com.discordsrv.common.feature.messageforwarding.discord.MirrorMappingStore;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MirrorMappingStoreTest {
+
+    private static final long FIRST_MESSAGE_ID = 1L << 40;
+    private static final Logger LOGGER = (loggerName, logLevel, message, throwable) -> {};
+    private static final Duration RETENTION = Duration.ofHours(1);
+    // The retention time divided into 12 buckets
+    private static final long BUCKET_MILLIS = Duration.ofMinutes(5).toMillis();
+
+    private static long[] group(long originalId, long mirrorId) {
+        return new long[] {
+                1L, -1L, originalId | MirrorMappingStore.FLAG_ORIGINAL,
+                2L, -1L, mirrorId | MirrorMappingStore.FLAG_WEBHOOK
+        };
+    }
+
+    @Test
+    public void sharedGroup() {
+        MirrorMappingStore store = new MirrorMappingStore(null, Duration.ofHours(1), LOGGER);
+        store.put(group(FIRST_MESSAGE_ID, FIRST_MESSAGE_ID + 1));
+
+        assertSame(store.get(FIRST_MESSAGE_ID), store.get(FIRST_MESSAGE_ID + 1));
+        assertNull(store.get(FIRST_MESSAGE_ID + 2));
+        assertEquals(2, store.size());
+    }
+
+    @Test
+    public void replacesGroup() {
+        MirrorMappingStore store = new MirrorMappingStore(null, Duration.ofHours(1), LOGGER);
+        store.put(group(FIRST_MESSAGE_ID, FIRST_MESSAGE_ID + 1));
+        store.put(group(FIRST_MESSAGE_ID, FIRST_MESSAGE_ID + 2));
+
+        assertSame(store.get(FIRST_MESSAGE_ID), store.get(FIRST_MESSAGE_ID + 2));
+        assertNotSame(store.get(FIRST_MESSAGE_ID), store.get(FIRST_MESSAGE_ID + 1));
+        assertEquals(3, store.size());
+    }
+
+    @Test
+    public void persists(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("mirrored-messages.dat");
+
+        MirrorMappingStore store = new MirrorMappingStore(file, Duration.ofHours(1), LOGGER);
+        store.load();
+        store.put(group(FIRST_MESSAGE_ID, FIRST_MESSAGE_ID + 1));
+        store.close();
+
+        MirrorMappingStore loaded = new MirrorMappingStore(file, Duration.ofHours(1), LOGGER);
+        loaded.load();
+        assertArrayEquals(group(FIRST_MESSAGE_ID, FIRST_MESSAGE_ID + 1), loaded.get(FIRST_MESSAGE_ID + 1));
+        assertEquals(2, loaded.size());
+        loaded.close();
+    }
+
+    @Test
+    public void evictsExpiredBuckets() {
+        AtomicLong time = new AtomicLong(Duration.ofDays(1).toMillis());
+        MirrorMappingStore store = new MirrorMappingStore(null, RETENTION, LOGGER, time::get);
+        store.put(group(FIRST_MESSAGE_ID, FIRST_MESSAGE_ID + 1));
+
+        // The bucket is only removed once all of it is older than the retention time
+        time.addAndGet(RETENTION.toMillis());
+        store.put(group(FIRST_MESSAGE_ID + 2, FIRST_MESSAGE_ID + 3));
+        assertNotNull(store.get(FIRST_MESSAGE_ID));
+
+        time.addAndGet(BUCKET_MILLIS);
+        store.put(group(FIRST_MESSAGE_ID + 4, FIRST_MESSAGE_ID + 5));
+        assertNull(store.get(FIRST_MESSAGE_ID));
+        assertNull(store.get(FIRST_MESSAGE_ID + 1));
+        assertNotNull(store.get(FIRST_MESSAGE_ID + 2));
+        assertEquals(4, store.size());
+    }
+
+    @Test
+    public void keepsReplacingGroupWhenEvicting() {
+        AtomicLong time = new AtomicLong(Duration.ofDays(1).toMillis());
+        MirrorMappingStore store = new MirrorMappingStore(null, RETENTION, LOGGER, time::get);
+        store.put(group(FIRST_MESSAGE_ID, FIRST_MESSAGE_ID + 1));
+
+        time.addAndGet(BUCKET_MILLIS);
+        store.put(group(FIRST_MESSAGE_ID, FIRST_MESSAGE_ID + 2));
+
+        time.addAndGet(RETENTION.toMillis());
+        store.put(group(FIRST_MESSAGE_ID + 3, FIRST_MESSAGE_ID + 4));
+        assertNull(store.get(FIRST_MESSAGE_ID + 1));
+        assertArrayEquals(group(FIRST_MESSAGE_ID, FIRST_MESSAGE_ID + 2), store.get(FIRST_MESSAGE_ID));
+    }
+
+    @Test
+    public void recoversFromTruncatedTail(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("mirrored-messages.dat");
+        writeTwoGroups(file);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 5);
+        }
+
+        assertRecovered(file);
+    }
+
+    @Test
+    public void recoversFromCorruptTail(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("mirrored-messages.dat");
+        writeTwoGroups(file);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer value = ByteBuffer.allocate(1);
+            long position = channel.size() - 1;
+            channel.read(value, position);
+            value.put(0, (byte) ~value.get(0)).rewind();
+            channel.write(value, position);
+        }
+
+        assertRecovered(file);
+    }
+
+    private static void writeTwoGroups(Path file) throws IOException {
+        MirrorMappingStore store = new MirrorMappingStore(file, RETENTION, LOGGER);
+        store.load();
+        store.put(group(FIRST_MESSAGE_ID, FIRST_MESSAGE_ID + 1));
+        store.put(group(FIRST_MESSAGE_ID + 2, FIRST_MESSAGE_ID + 3));
+        store.close();
+    }
+
+    private static void assertRecovered(Path file) throws IOException {
+        MirrorMappingStore store = new MirrorMappingStore(file, RETENTION, LOGGER);
+        store.load();
+        assertNotNull(store.get(FIRST_MESSAGE_ID));
+        assertNull(store.get(FIRST_MESSAGE_ID + 2));
+
+        // New groups are written after the last intact group
+        store.put(group(FIRST_MESSAGE_ID + 4, FIRST_MESSAGE_ID + 5));
+        store.close();
+
+        MirrorMappingStore loaded = new MirrorMappingStore(file, RETENTION, LOGGER);
+        loaded.load();
+        assertNotNull(loaded.get(FIRST_MESSAGE_ID));
+        assertNotNull(loaded.get(FIRST_MESSAGE_ID + 5));
+        assertEquals(4, loaded.size());
+        loaded.close();
+    }
+
+    @Test
+    public void compactsExpiredGroups(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("mirrored-messages.dat");
+        AtomicLong time = new AtomicLong(Duration.ofDays(1).toMillis());
+
+        // More than the minimum compaction size (64 bytes per group)
+        int groups = 20_000;
+        MirrorMappingStore store = new MirrorMappingStore(file, RETENTION, LOGGER, time::get);
+        store.load();
+        for (long messageId = FIRST_MESSAGE_ID; messageId < FIRST_MESSAGE_ID + groups * 2; messageId += 2) {
+            store.put(group(messageId, messageId + 1));
+        }
+
+        time.addAndGet(RETENTION.toMillis() + BUCKET_MILLIS);
+        long lastMessageId = FIRST_MESSAGE_ID + groups * 2;
+        store.put(group(lastMessageId, lastMessageId + 1));
+        store.close();
+
+        assertTrue(Files.size(file) < 1024, "Expected the file to be compacted, but it is " + Files.size(file) + " bytes");
+
+        MirrorMappingStore loaded = new MirrorMappingStore(file, RETENTION, LOGGER, time::get);
+        loaded.load();
+        assertNull(loaded.get(FIRST_MESSAGE_ID));
+        assertArrayEquals(group(lastMessageId, lastMessageId + 1), loaded.get(lastMessageId));
+        assertEquals(2, loaded.size());
+        loaded.close();
+    }
+
+    @Test
+    @Tag("benchmark")
+    public void memoryForOneMillionMessages() {
+        int messages = 1_000_000;
+
+        long before = usedMemory();
+        MirrorMappingStore store = new MirrorMappingStore(null, Duration.ofHours(1), LOGGER);
+        for (long messageId = FIRST_MESSAGE_ID; messageId < FIRST_MESSAGE_ID + messages; messageId += 2) {
+            store.put(group(messageId, messageId + 1));
+        }
+        long bytesPerMessage = (usedMemory() - before) / store.size();
+
+        assertEquals(messages, store.size());
+        assertNotNull(store.get(FIRST_MESSAGE_ID + messages - 1));
+        assertTrue(bytesPerMessage < 128, "Expected less than 128 bytes per message, got " + bytesPerMessage);
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2025 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.messageforwarding.game;
+
+import com.discordsrv.api.discord.entity.channel.DiscordGuildMessageChannel;
+import com.discordsrv.api.discord.entity.message.DiscordMessageEmbed;
+import com.discordsrv.api.discord.entity.message.ReceivedDiscordMessage;
+import com.discordsrv.api.discord.entity.message.SendableDiscordMessage;
+import com.discordsrv.api.task.Task;
+import com.discordsrv.common.MockDiscordSRV;
+import com.discordsrv.common.config.main.generic.BurstConfig;
+import com.discordsrv.common.feature.messageforwarding.game.MessageBurstQueue;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MessageBurstQueueTest {
+
+    private static final DiscordGuildMessageChannel CHANNEL = (DiscordGuildMessageChannel) Proxy.newProxyInstance(
+            MessageBurstQueueTest.class.getClassLoader(),
+            new Class<?>[] {DiscordGuildMessageChannel.class},
+            (proxy, method, args) -> {
+                if (method.getName().equals("getId")) {
+                    return 1L;
+                }
+                throw new UnsupportedOperationException(method.getName());
+            }
+    );
+
+    private static BurstConfig config(int messagesPerSecond) {
+        BurstConfig config = new BurstConfig();
+        config.enabled = true;
+        config.messagesPerSecond = messagesPerSecond;
+        config.delayMilliseconds = 50;
+        return config;
+    }
+
+    private static SendableDiscordMessage message(String username, String content) {
+        return SendableDiscordMessage.builder()
+                .setWebhookUsername(username)
+                .setWebhookAvatarUrl("https://example.com/" + username + ".png")
+                .setContent(content)
+                .build();
+    }
+
+    private static String repeat(char character, int length) {
+        char[] chars = new char[length];
+        Arrays.fill(chars, character);
+        return new String(chars);
+    }
+
+    @Test
+    public void joinsContentUpToLengthLimit() throws InterruptedException {
+        Sender sender = new Sender(false);
+        MessageBurstQueue queue = new MessageBurstQueue(MockDiscordSRV.getInstance());
+        BurstConfig config = config(0);
+
+        for (char character = 'a'; character <= 'c'; character++) {
+            queue.send(CHANNEL, message("Player", repeat(character, 900)), config, sender);
+        }
+
+        List<SendableDiscordMessage> sent = sender.await(2);
+        assertEquals(repeat('a', 900) + "\n" + repeat('b', 900), sent.get(0).getContent());
+        assertEquals(repeat('c', 900), sent.get(1).getContent());
+        assertEquals("Player", sent.get(0).getWebhookUsername());
+        assertTrue(sent.get(0).getEmbeds().isEmpty());
+    }
+
+    @Test
+    public void differentAuthorsUpToEmbedLimit() throws InterruptedException {
+        Sender sender = new Sender(false);
+        MessageBurstQueue queue = new MessageBurstQueue(MockDiscordSRV.getInstance());
+        BurstConfig config = config(0);
+
+        for (int i = 0; i < 12; i++) {
+            queue.send(CHANNEL, message("Player" + i, "message " + i), config, sender);
+        }
+
+        List<SendableDiscordMessage> sent = sender.await(2);
+        assertEquals(10, sent.get(0).getEmbeds().size());
+        assertEquals(2, sent.get(1).getEmbeds().size());
+        assertNull(sent.get(0).getWebhookUsername());
+        assertNull(sent.get(0).getContent());
+
+        for (int i = 0; i < 12; i++) {
+            DiscordMessageEmbed embed = sent.get(i / 10).getEmbeds().get(i % 10);
+            assertEquals("Player" + i, embed.getAuthorName());
+            assertEquals("https://example.com/Player" + i + ".png", embed.getAuthorImageUrl());
+            assertEquals("message " + i, embed.getDescription());
+        }
+    }
+
+    @Test
+    public void differentAuthorsSeparateWhenDisabled() throws InterruptedException {
+        Sender sender = new Sender(false);
+        MessageBurstQueue queue = new MessageBurstQueue(MockDiscordSRV.getInstance());
+        BurstConfig config = config(0);
+        config.combineDifferentAuthors = false;
+
+        queue.send(CHANNEL, message("First", "a"), config, sender);
+        queue.send(CHANNEL, message("First", "b"), config, sender);
+        queue.send(CHANNEL, message("Second", "c"), config, sender);
+
+        List<SendableDiscordMessage> sent = sender.await(2);
+        assertEquals("a\nb", sent.get(0).getContent());
+        assertEquals("First", sent.get(0).getWebhookUsername());
+        assertEquals("c", sent.get(1).getContent());
+        assertEquals("Second", sent.get(1).getWebhookUsername());
+    }
+
+    @Test
+    public void windowSentBeforeLaterMessages() throws Exception {
+        Sender sender = new Sender(true);
+        MessageBurstQueue queue = new MessageBurstQueue(MockDiscordSRV.getInstance());
+        BurstConfig config = config(1);
+
+        queue.send(CHANNEL, message("Player", "a"), config, sender);
+        queue.send(CHANNEL, message("Player", "b"), config, sender);
+        queue.send(CHANNEL, message("Player", "c"), config, sender);
+        sender.await(2);
+
+        // No longer busy, but the window is still being sent
+        config.messagesPerSecond = 100;
+        Task<ReceivedDiscordMessage> later = queue.send(CHANNEL, message("Player", "d"), config, sender);
+        Thread.sleep(100);
+        assertEquals(2, sender.sent().size());
+
+        sender.complete(1);
+        List<SendableDiscordMessage> sent = sender.await(3);
+        assertEquals("a", sent.get(0).getContent());
+        assertEquals("b\nc", sent.get(1).getContent());
+        assertEquals("d", sent.get(2).getContent());
+
+        sender.complete(2);
+        later.get(5, TimeUnit.SECONDS);
+    }
+
+    private static class Sender implements Function<SendableDiscordMessage, Task<ReceivedDiscordMessage>> {
+
+        private final boolean hold;
+        private final List<SendableDiscordMessage> sent = Collections.synchronizedList(new ArrayList<>());
+        private final List<Task<ReceivedDiscordMessage>> tasks = Collections.synchronizedList(new ArrayList<>());
+
+        private Sender(boolean hold) {
+            this.hold = hold;
+        }
+
+        @Override
+        public Task<ReceivedDiscordMessage> apply(SendableDiscordMessage message) {
+            Task<ReceivedDiscordMessage> task = hold ? new Task<>() : Task.completed(null);
+            sent.add(message);
+            tasks.add(task);
+            return task;
+        }
+
+        private List<SendableDiscordMessage> sent() {
+            synchronized (sent) {
+                return new ArrayList<>(sent);
+            }
+        }
+
+        private void complete(int index) {
+            tasks.get(index).complete(null);
+        }
+
+        private List<SendableDiscordMessage> await(int count) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+            while (sent.size() < count && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+
+            List<SendableDiscordMessage> messages = sent();
+            assertEquals(count, messages.size());
+            return messages;
+        }
+    }
+}
@@ -0,0 +1,368 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2025 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.placeholder;
+
+import com.discordsrv.api.placeholder.PlaceholderService;
+import com.discordsrv.api.placeholder.annotation.Placeholder;
+import com.discordsrv.api.placeholder.annotation.PlaceholderPrefix;
+import com.discordsrv.common.MockDiscordSRV;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class PlaceholderServiceBenchmarkTest {
+
+    // The default minecraftToDiscord formats, and a few typical customized ones
+    private static final String[] FORMATS = {
+            "%player_prefix%%player_display_name|player_name%%player_suffix%",
+            "%player_avatar_url%",
+            "%message%",
+            "**%player_display_name%** > %message%",
+            "[%player_world%] %player_prefix%%player_name%: %message%",
+            "%player_name% (%player_uuid%) has %player_stat_150% kills"
+    };
+    private static final String[] EXPECTED = {
+            "[Admin] Vankka the Great",
+            "https://example.com/avatar.png",
+            "Hello world",
+            "**Vankka** > Hello world",
+            "[world_nether] [Admin] Vankka: Hello world",
+            "Vankka (6c983d46-0631-48b8-9baf-5e33eb5ffec4) has 150 kills"
+    };
+
+    private static final int WARMUP_ITERATIONS = 20_000;
+    private static final int ITERATIONS = 100_000;
+
+    private final PlaceholderService service = MockDiscordSRV.getInstance().placeholderService();
+
+    @Test
+    @Tag("benchmark")
+    public void minecraftToDiscordFormats() {
+        PlayerContext player = new PlayerContext();
+        MessageContext message = new MessageContext();
+        for (int i = 0; i < FORMATS.length; i++) {
+            assertEquals(EXPECTED[i], service.replacePlaceholders(FORMATS[i], player, message));
+        }
+
+        render(player, message, WARMUP_ITERATIONS);
+        long start = System.nanoTime();
+        render(player, message, ITERATIONS);
+        long elapsed = System.nanoTime() - start;
+
+        System.out.println("Rendered " + ITERATIONS + " sets of " + FORMATS.length + " formats in "
+                                   + TimeUnit.NANOSECONDS.toMillis(elapsed) + "ms ("
+                                   + (elapsed / ((long) ITERATIONS * FORMATS.length)) + "ns per format)");
+    }
+
+    private void render(PlayerContext player, MessageContext message, int iterations) {
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            for (String format : FORMATS) {
+                service.replacePlaceholders(format, player, message);
+            }
+        }
+    }
+
+    public static class MessageContext {
+
+        @Placeholder("message")
+        public String message = "Hello world";
+    }
+
+    @PlaceholderPrefix("player_")
+    public static class PlayerContext {
+
+        @Placeholder("name")
+        public String name = "Vankka";
+
+        @Placeholder("display_name")
+        public String displayName() {
+            return "Vankka";
+        }
+
+        @Placeholder("prefix")
+        public String prefix = "[Admin] ";
+
+        @Placeholder("suffix")
+        public String suffix = " the Great";
+
+        @Placeholder("avatar_url")
+        public String avatarUrl = "https://example.com/avatar.png";
+
+        @Placeholder("uuid")
+        public String uuid = "6c983d46-0631-48b8-9baf-5e33eb5ffec4";
+
+        @Placeholder("world")
+        public String world = "world_nether";
+
+        // Many more placeholders, like a player with statistics and plugin integrations
+        @Placeholder("stat_0") public int stat0 = 0;
+        @Placeholder("stat_1") public int stat1 = 1;
+        @Placeholder("stat_2") public int stat2 = 2;
+        @Placeholder("stat_3") public int stat3 = 3;
+        @Placeholder("stat_4") public int stat4 = 4;
+        @Placeholder("stat_5") public int stat5 = 5;
+        @Placeholder("stat_6") public int stat6 = 6;
+        @Placeholder("stat_7") public int stat7 = 7;
+        @Placeholder("stat_8") public int stat8 = 8;
+        @Placeholder("stat_9") public int stat9 = 9;
+        @Placeholder("stat_10") public int stat10 = 10;
+        @Placeholder("stat_11") public int stat11 = 11;
+        @Placeholder("stat_12") public int stat12 = 12;
+        @Placeholder("stat_13") public int stat13 = 13;
+        @Placeholder("stat_14") public int stat14 = 14;
+        @Placeholder("stat_15") public int stat15 = 15;
+        @Placeholder("stat_16") public int stat16 = 16;
+        @Placeholder("stat_17") public int stat17 = 17;
+        @Placeholder("stat_18") public int stat18 = 18;
+        @Placeholder("stat_19") public int stat19 = 19;
+        @Placeholder("stat_20") public int stat20 = 20;
+        @Placeholder("stat_21") public int stat21 = 21;
+        @Placeholder("stat_22") public int stat22 = 22;
+        @Placeholder("stat_23") public int stat23 = 23;
+        @Placeholder("stat_24") public int stat24 = 24;
+        @Placeholder("stat_25") public int stat25 = 25;
+        @Placeholder("stat_26") public int stat26 = 26;
+        @Placeholder("stat_27") public int stat27 = 27;
+        @Placeholder("stat_28") public int stat28 = 28;
+        @Placeholder("stat_29") public int stat29 = 29;
+        @Placeholder("stat_30") public int stat30 = 30;
+        @Placeholder("stat_31") public int stat31 = 31;
+        @Placeholder("stat_32") public int stat32 = 32;
+        @Placeholder("stat_33") public int stat33 = 33;
+        @Placeholder("stat_34") public int stat34 = 34;
+        @Placeholder("stat_35") public int stat35 = 35;
+        @Placeholder("stat_36") public int stat36 = 36;
+        @Placeholder("stat_37") public int stat37 = 37;
+        @Placeholder("stat_38") public int stat38 = 38;
+        @Placeholder("stat_39") public int stat39 = 39;
+        @Placeholder("stat_40") public int stat40 = 40;
+        @Placeholder("stat_41") public int stat41 = 41;
+        @Placeholder("stat_42") public int stat42 = 42;
+        @Placeholder("stat_43") public int stat43 = 43;
+        @Placeholder("stat_44") public int stat44 = 44;
+        @Placeholder("stat_45") public int stat45 = 45;
+        @Placeholder("stat_46") public int stat46 = 46;
+        @Placeholder("stat_47") public int stat47 = 47;
+        @Placeholder("stat_48") public int stat48 = 48;
+        @Placeholder("stat_49") public int stat49 = 49;
+        @Placeholder("stat_50") public int stat50 = 50;
+        @Placeholder("stat_51") public int stat51 = 51;
+        @Placeholder("stat_52") public int stat52 = 52;
+        @Placeholder("stat_53") public int stat53 = 53;
+        @Placeholder("stat_54") public int stat54 = 54;
+        @Placeholder("stat_55") public int stat55 = 55;
+        @Placeholder("stat_56") public int stat56 = 56;
+        @Placeholder("stat_57") public int stat57 = 57;
+        @Placeholder("stat_58") public int stat58 = 58;
+        @Placeholder("stat_59") public int stat59 = 59;
+        @Placeholder("stat_60") public int stat60 = 60;
+        @Placeholder("stat_61") public int stat61 = 61;
+        @Placeholder("stat_62") public int stat62 = 62;
+        @Placeholder("stat_63") public int stat63 = 63;
+        @Placeholder("stat_64") public int stat64 = 64;
+        @Placeholder("stat_65") public int stat65 = 65;
+        @Placeholder("stat_66") public int stat66 = 66;
+        @Placeholder("stat_67") public int stat67 = 67;
+        @Placeholder("stat_68") public int stat68 = 68;
+        @Placeholder("stat_69") public int stat69 = 69;
+        @Placeholder("stat_70") public int stat70 = 70;
+        @Placeholder("stat_71") public int stat71 = 71;
+        @Placeholder("stat_72") public int stat72 = 72;
+        @Placeholder("stat_73") public int stat73 = 73;
+        @Placeholder("stat_74") public int stat74 = 74;
+        @Placeholder("stat_75") public int stat75 = 75;
+        @Placeholder("stat_76") public int stat76 = 76;
+        @Placeholder("stat_77") public int stat77 = 77;
+        @Placeholder("stat_78") public int stat78 = 78;
+        @Placeholder("stat_79") public int stat79 = 79;
+        @Placeholder("stat_80") public int stat80 = 80;
+        @Placeholder("stat_81") public int stat81 = 81;
+        @Placeholder("stat_82") public int stat82 = 82;
+        @Placeholder("stat_83") public int stat83 = 83;
+        @Placeholder("stat_84") public int stat84 = 84;
+        @Placeholder("stat_85") public int stat85 = 85;
+        @Placeholder("stat_86") public int stat86 = 86;
+        @Placeholder("stat_87") public int stat87 = 87;
+        @Placeholder("stat_88") public int stat88 = 88;
+        @Placeholder("stat_89") public int stat89 = 89;
+        @Placeholder("stat_90") public int stat90 = 90;
+        @Placeholder("stat_91") public int stat91 = 91;
+        @Placeholder("stat_92") public int stat92 = 92;
+        @Placeholder("stat_93") public int stat93 = 93;
+        @Placeholder("stat_94") public int stat94 = 94;
+        @Placeholder("stat_95") public int stat95 = 95;
+        @Placeholder("stat_96") public int stat96 = 96;
+        @Placeholder("stat_97") public int stat97 = 97;
+        @Placeholder("stat_98") public int stat98 = 98;
+        @Placeholder("stat_99") public int stat99 = 99;
+        @Placeholder("stat_100") public int stat100 = 100;
+        @Placeholder("stat_101") public int stat101 = 101;
+        @Placeholder("stat_102") public int stat102 = 102;
+        @Placeholder("stat_103") public int stat103 = 103;
+        @Placeholder("stat_104") public int stat104 = 104;
+        @Placeholder("stat_105") public int stat105 = 105;
+        @Placeholder("stat_106") public int stat106 = 106;
+        @Placeholder("stat_107") public int stat107 = 107;
+        @Placeholder("stat_108") public int stat108 = 108;
+        @Placeholder("stat_109") public int stat109 = 109;
+        @Placeholder("stat_110") public int stat110 = 110;
+        @Placeholder("stat_111") public int stat111 = 111;
+        @Placeholder("stat_112") public int stat112 = 112;
+        @Placeholder("stat_113") public int stat113 = 113;
+        @Placeholder("stat_114") public int stat114 = 114;
+        @Placeholder("stat_115") public int stat115 = 115;
+        @Placeholder("stat_116") public int stat116 = 116;
+        @Placeholder("stat_117") public int stat117 = 117;
+        @Placeholder("stat_118") public int stat118 = 118;
+        @Placeholder("stat_119") public int stat119 = 119;
+        @Placeholder("stat_120") public int stat120 = 120;
+        @Placeholder("stat_121") public int stat121 = 121;
+        @Placeholder("stat_122") public int stat122 = 122;
+        @Placeholder("stat_123") public int stat123 = 123;
+        @Placeholder("stat_124") public int stat124 = 124;
+        @Placeholder("stat_125") public int stat125 = 125;
+        @Placeholder("stat_126") public int stat126 = 126;
+        @Placeholder("stat_127") public int stat127 = 127;
+        @Placeholder("stat_128") public int stat128 = 128;
+        @Placeholder("stat_129") public int stat129 = 129;
+        @Placeholder("stat_130") public int stat130 = 130;
+        @Placeholder("stat_131") public int stat131 = 131;
+        @Placeholder("stat_132") public int stat132 = 132;
+        @Placeholder("stat_133") public int stat133 = 133;
+        @Placeholder("stat_134") public int stat134 = 134;
+        @Placeholder("stat_135") public int stat135 = 135;
+        @Placeholder("stat_136") public int stat136 = 136;
+        @Placeholder("stat_137") public int stat137 = 137;
+        @Placeholder("stat_138") public int stat138 = 138;
+        @Placeholder("stat_139") public int stat139 = 139;
+        @Placeholder("stat_140") public int stat140 = 140;
+        @Placeholder("stat_141") public int stat141 = 141;
+        @Placeholder("stat_142") public int stat142 = 142;
+        @Placeholder("stat_143") public int stat143 = 143;
+        @Placeholder("stat_144") public int stat144 = 144;
+        @Placeholder("stat_145") public int stat145 = 145;
+        @Placeholder("stat_146") public int stat146 = 146;
+        @Placeholder("stat_147") public int stat147 = 147;
+        @Placeholder("stat_148") public int stat148 = 148;
+        @Placeholder("stat_149") public int stat149 = 149;
+        @Placeholder("stat_150") public int stat150 = 150;
+        @Placeholder("stat_151") public int stat151 = 151;
+        @Placeholder("stat_152") public int stat152 = 152;
+        @Placeholder("stat_153") public int stat153 = 153;
+        @Placeholder("stat_154") public int stat154 = 154;
+        @Placeholder("stat_155") public int stat155 = 155;
+        @Placeholder("stat_156") public int stat156 = 156;
+        @Placeholder("stat_157") public int stat157 = 157;
+        @Placeholder("stat_158") public int stat158 = 158;
+        @Placeholder("stat_159") public int stat159 = 159;
+        @Placeholder("stat_160") public int stat160 = 160;
+        @Placeholder("stat_161") public int stat161 = 161;
+        @Placeholder("stat_162") public int stat162 = 162;
+        @Placeholder("stat_163") public int stat163 = 163;
+        @Placeholder("stat_164") public int stat164 = 164;
+        @Placeholder("stat_165") public int stat165 = 165;
+        @Placeholder("stat_166") public int stat166 = 166;
+        @Placeholder("stat_167") public int stat167 = 167;
+        @Placeholder("stat_168") public int stat168 = 168;
+        @Placeholder("stat_169") public int stat169 = 169;
+        @Placeholder("stat_170") public int stat170 = 170;
+        @Placeholder("stat_171") public int stat171 = 171;
+        @Placeholder("stat_172") public int stat172 = 172;
+        @Placeholder("stat_173") public int stat173 = 173;
+        @Placeholder("stat_174") public int stat174 = 174;
+        @Placeholder("stat_175") public int stat175 = 175;
+        @Placeholder("stat_176") public int stat176 = 176;
+        @Placeholder("stat_177") public int stat177 = 177;
+        @Placeholder("stat_178") public int stat178 = 178;
+        @Placeholder("stat_179") public int stat179 = 179;
+        @Placeholder("stat_180") public int stat180 = 180;
+        @Placeholder("stat_181") public int stat181 = 181;
+        @Placeholder("stat_182") public int stat182 = 182;
+        @Placeholder("stat_183") public int stat183 = 183;
+        @Placeholder("stat_184") public int stat184 = 184;
+        @Placeholder("stat_185") public int stat185 = 185;
+        @Placeholder("stat_186") public int stat186 = 186;
+        @Placeholder("stat_187") public int stat187 = 187;
+        @Placeholder("stat_188") public int stat188 = 188;
+        @Placeholder("stat_189") public int stat189 = 189;
+        @Placeholder("stat_190") public int stat190 = 190;
+        @Placeholder("stat_191") public int stat191 = 191;
+        @Placeholder("stat_192") public int stat192 = 192;
+        @Placeholder("stat_193") public int stat193 = 193;
+        @Placeholder("stat_194") public int stat194 = 194;
+        @Placeholder("stat_195") public int stat195 = 195;
+        @Placeholder("stat_196") public int stat196 = 196;
+        @Placeholder("stat_197") public int stat197 = 197;
+        @Placeholder("stat_198") public int stat198 = 198;
+        @Placeholder("stat_199") public int stat199 = 199;
+        @Placeholder("stat_200") public int stat200 = 200;
+        @Placeholder("stat_201") public int stat201 = 201;
+        @Placeholder("stat_202") public int stat202 = 202;
+        @Placeholder("stat_203") public int stat203 = 203;
+        @Placeholder("stat_204") public int stat204 = 204;
+        @Placeholder("stat_205") public int stat205 = 205;
+        @Placeholder("stat_206") public int stat206 = 206;
+        @Placeholder("stat_207") public int stat207 = 207;
+        @Placeholder("stat_208") public int stat208 = 208;
+        @Placeholder("stat_209") public int stat209 = 209;
+        @Placeholder("stat_210") public int stat210 = 210;
+        @Placeholder("stat_211") public int stat211 = 211;
+        @Placeholder("stat_212") public int stat212 = 212;
+        @Placeholder("stat_213") public int stat213 = 213;
+        @Placeholder("stat_214") public int stat214 = 214;
+        @Placeholder("stat_215") public int stat215 = 215;
+        @Placeholder("stat_216") public int stat216 = 216;
+        @Placeholder("stat_217") public int stat217 = 217;
+        @Placeholder("stat_218") public int stat218 = 218;
+        @Placeholder("stat_219") public int stat219 = 219;
+        @Placeholder("stat_220") public int stat220 = 220;
+        @Placeholder("stat_221") public int stat221 = 221;
+        @Placeholder("stat_222") public int stat222 = 222;
+        @Placeholder("stat_223") public int stat223 = 223;
+        @Placeholder("stat_224") public int stat224 = 224;
+        @Placeholder("stat_225") public int stat225 = 225;
+        @Placeholder("stat_226") public int stat226 = 226;
+        @Placeholder("stat_227") public int stat227 = 227;
+        @Placeholder("stat_228") public int stat228 = 228;
+        @Placeholder("stat_229") public int stat229 = 229;
+        @Placeholder("stat_230") public int stat230 = 230;
+        @Placeholder("stat_231") public int stat231 = 231;
+        @Placeholder("stat_232") public int stat232 = 232;
+        @Placeholder("stat_233") public int stat233 = 233;
+        @Placeholder("stat_234") public int stat234 = 234;
+        @Placeholder("stat_235") public int stat235 = 235;
+        @Placeholder("stat_236") public int stat236 = 236;
+        @Placeholder("stat_237") public int stat237 = 237;
+        @Placeholder("stat_238") public int stat238 = 238;
+        @Placeholder("stat_239") public int stat239 = 239;
+        @Placeholder("stat_240") public int stat240 = 240;
+        @Placeholder("stat_241") public int stat241 = 241;
+        @Placeholder("stat_242") public int stat242 = 242;
+        @Placeholder("stat_243") public int stat243 = 243;
+        @Placeholder("stat_244") public int stat244 = 244;
+        @Placeholder("stat_245") public int stat245 = 245;
+        @Placeholder("stat_246") public int stat246 = 246;
+        @Placeholder("stat_247") public int stat247 = 247;
+        @Placeholder("stat_248") public int stat248 = 248;
+        @Placeholder("stat_249") public int stat249 = 249;
+    }
+}
@@ -18,9 +18,11 @@
 
 package com.discordsrv.common.placeholder;
 
+import com.discordsrv.api.placeholder.PlaceholderRenderScope;
 import com.discordsrv.api.placeholder.PlaceholderService;
 import com.discordsrv.api.placeholder.annotation.Placeholder;
 import com.discordsrv.api.placeholder.annotation.PlaceholderPrefix;
+import com.discordsrv.api.placeholder.annotation.PlaceholderRemainder;
 import com.discordsrv.common.MockDiscordSRV;
 import org.junit.jupiter.api.Test;
 
@@ -70,6 +72,36 @@ public class PlaceholderServiceTest {
         assertEquals("b", service.replacePlaceholders("%empty|static_method%", PlaceholderContext.class));
     }
 
+    @Test
+    public void surroundingTextTest() {
+        assertEquals("a & b & a", service.replacePlaceholders("%static_field% & %static_method% & %static_field%", PlaceholderContext.class));
+    }
+
+    @Test
+    public void recursiveTest() {
+        assertEquals("b", service.replacePlaceholders("%static_{relookup_target}%", PlaceholderContext.class));
+    }
+
+    @Test
+    public void unknownPlaceholderTest() {
+        assertEquals("a %unknown% b", service.replacePlaceholders("%static_field% %unknown% %static_method%", PlaceholderContext.class));
+    }
+
+    @Test
+    public void overlappingExactTest() {
+        assertEquals("name lower", service.replacePlaceholders("%player_name% %player_name_lower%", OverlapContext.class));
+    }
+
+    @Test
+    public void overlappingRemainderTest() {
+        assertEquals("name value", service.replacePlaceholders("%player_name% %player_meta:value%", OverlapContext.class));
+    }
+
+    @Test
+    public void remainderRequiresValueTest() {
+        assertEquals("%player_meta%", service.replacePlaceholders("%player_meta%", OverlapContext.class));
+    }
+
     @Test
     public void prefixFailTest() {
         assertEquals("%placeholder%", service.replacePlaceholders("%placeholder%", PrefixContext.class));
@@ -90,6 +122,21 @@ public class PlaceholderServiceTest {
         assertEquals("value", service.replacePlaceholders("%noprefix%", PrefixInheritanceContext.class));
     }
 
+    @Test
+    public void renderScopeTest() {
+        CountingContext context = new CountingContext();
+        PlaceholderRenderScope scope = new PlaceholderRenderScope();
+        assertEquals("1 1", service.replacePlaceholders("%counted% %counted%", context, scope));
+        assertEquals("1", service.replacePlaceholders("%counted%", context, scope));
+        assertEquals("2", service.replacePlaceholders("%counted%", context));
+    }
+
+    @Test
+    public void renderScopeNotCacheableTest() {
+        CountingContext context = new CountingContext();
+        assertEquals("1 2", service.replacePlaceholders("%not_cached% %not_cached%", context, new PlaceholderRenderScope()));
+    }
+
     public static class PlaceholderContext {
 
         @Placeholder("static_field")
@@ -103,6 +150,9 @@ public class PlaceholderServiceTest {
         @Placeholder("empty")
         public static String EMPTY = "";
 
+        @Placeholder("relookup_target")
+        public static String RELOOKUP_TARGET = "method";
+
         @Placeholder("object_field")
         public String localField = "c";
 
@@ -117,6 +167,36 @@ public class PlaceholderServiceTest {
         }
     }
 
+    public static class OverlapContext {
+
+        @Placeholder("player_name")
+        public static String NAME = "name";
+
+        @Placeholder("player_name_lower")
+        public static String NAME_LOWER = "lower";
+
+        @Placeholder("player_meta")
+        public static String meta(@PlaceholderRemainder String remainder) {
+            return remainder;
+        }
+    }
+
+    public static class CountingContext {
+
+        private int counted = 0;
+        private int notCached = 0;
+
+        @Placeholder("counted")
+        public int counted() {
+            return ++counted;
+        }
+
+        @Placeholder(value = "not_cached", cacheable = false)
+        public int notCached() {
+            return ++notCached;
+        }
+    }
+
     @PlaceholderPrefix("prefix_")
     public static class PrefixContext {
 
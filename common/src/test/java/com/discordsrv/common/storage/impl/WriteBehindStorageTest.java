@@ -0,0 +1,170 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2025 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.storage.impl;
+
+import com.discordsrv.common.MockDiscordSRV;
+import com.discordsrv.common.core.logging.Logger;
+import com.discordsrv.common.core.storage.LinkChange;
+import com.discordsrv.common.core.storage.impl.WriteBehindStorage;
+import com.discordsrv.common.core.storage.impl.file.FileStorage;
+import com.discordsrv.common.exception.StorageException;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WriteBehindStorageTest {
+
+    private static final Logger LOGGER = (loggerName, logLevel, message, throwable) -> {};
+    // Only flushed by the tests
+    private static final Duration FLUSH_INTERVAL = Duration.ofHours(1);
+
+    private static final UUID FIRST_PLAYER = new UUID(1, 1);
+    private static final UUID SECOND_PLAYER = new UUID(2, 2);
+    private static final UUID THIRD_PLAYER = new UUID(3, 3);
+
+    private static WriteBehindStorage open(Path directory, boolean storageAvailable) {
+        FileStorage storage = new ToggledStorage(directory.resolve("linked-accounts.dat"), storageAvailable);
+        WriteBehindStorage writeBehind = new WriteBehindStorage(
+                storage,
+                directory.resolve("linked-accounts.journal"),
+                FLUSH_INTERVAL,
+                MockDiscordSRV.getInstance().scheduler(),
+                LOGGER
+        );
+        writeBehind.initialize();
+        return writeBehind;
+    }
+
+    private static List<String> journal(Path directory) throws IOException {
+        return Files.readAllLines(directory.resolve("linked-accounts.journal"), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void changesVisibleBeforeFlush(@TempDir Path directory) {
+        WriteBehindStorage storage = open(directory, false);
+        storage.createLink(FIRST_PLAYER, 1L);
+        storage.createLink(SECOND_PLAYER, 2L);
+        storage.removeLink(SECOND_PLAYER, 2L);
+
+        assertEquals(1L, storage.getUserId(FIRST_PLAYER));
+        assertEquals(FIRST_PLAYER, storage.getPlayerUUID(1L));
+        assertNull(storage.getUserId(SECOND_PLAYER));
+        assertNull(storage.getPlayerUUID(2L));
+        storage.close();
+    }
+
+    @Test
+    public void replaysJournal(@TempDir Path directory) throws IOException {
+        WriteBehindStorage storage = open(directory, false);
+        storage.createLink(FIRST_PLAYER, 1L);
+        storage.createLink(SECOND_PLAYER, 2L);
+        storage.removeLink(FIRST_PLAYER, 1L);
+        assertThrows(StorageException.class, storage::flush);
+        storage.close();
+
+        // Nothing could be written, everything is still in the journal
+        assertEquals(3, journal(directory).size());
+
+        storage = open(directory, true);
+        assertNull(storage.getUserId(FIRST_PLAYER));
+        assertEquals(2L, storage.getUserId(SECOND_PLAYER));
+        storage.close();
+
+        // Written to storage on startup, nothing left in the journal
+        assertTrue(journal(directory).isEmpty());
+
+        FileStorage fileStorage = new FileStorage(directory.resolve("linked-accounts.dat"), LOGGER);
+        fileStorage.initialize();
+        assertNull(fileStorage.getUserId(FIRST_PLAYER));
+        assertEquals(2L, fileStorage.getUserId(SECOND_PLAYER));
+        fileStorage.close();
+    }
+
+    @Test
+    public void flushCompactsJournal(@TempDir Path directory) throws IOException {
+        WriteBehindStorage storage = open(directory, true);
+        storage.createLink(FIRST_PLAYER, 1L);
+        storage.createLink(SECOND_PLAYER, 2L);
+        assertEquals(2, journal(directory).size());
+
+        storage.flush();
+        assertTrue(journal(directory).isEmpty());
+        assertEquals(1L, storage.getUserId(FIRST_PLAYER));
+        assertEquals(SECOND_PLAYER, storage.getPlayerUUID(2L));
+
+        // Changes after the compaction are appended to the new journal
+        storage.createLink(THIRD_PLAYER, 3L);
+        assertEquals(1, journal(directory).size());
+        storage.close();
+    }
+
+    @Test
+    public void ignoresPartialLine(@TempDir Path directory) throws IOException {
+        // Cut off by a crash while writing the second line
+        String content = "+ " + FIRST_PLAYER + " 1\n" + "+ " + SECOND_PLAYER + " 12";
+        Files.write(directory.resolve("linked-accounts.journal"), content.getBytes(StandardCharsets.UTF_8));
+
+        WriteBehindStorage storage = open(directory, false);
+        assertEquals(1L, storage.getUserId(FIRST_PLAYER));
+        assertNull(storage.getUserId(SECOND_PLAYER));
+
+        // Not appended to the partial line
+        storage.createLink(THIRD_PLAYER, 3L);
+        storage.close();
+        assertEquals(
+                Arrays.asList("+ " + FIRST_PLAYER + " 1", "+ " + THIRD_PLAYER + " 3"),
+                journal(directory)
+        );
+
+        storage = open(directory, true);
+        assertEquals(1L, storage.getUserId(FIRST_PLAYER));
+        assertNull(storage.getUserId(SECOND_PLAYER));
+        assertEquals(3L, storage.getUserId(THIRD_PLAYER));
+        storage.close();
+    }
+
+    private static class ToggledStorage extends FileStorage {
+
+        private final boolean available;
+
+        private ToggledStorage(Path path, boolean available) {
+            super(path, LOGGER);
+            this.available = available;
+        }
+
+        @Override
+        public void applyLinkChanges(@NotNull List<LinkChange> changes) {
+            if (!available) {
+                throw new StorageException("Storage is unavailable");
+            }
+            super.applyLinkChanges(changes);
+        }
+    }
+}
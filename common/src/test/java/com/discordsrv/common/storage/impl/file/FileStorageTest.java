@@ -0,0 +1,165 @@
+/*
+ * This file is part of DiscordSRV, licensed under the GPLv3 License
+ * Copyright (c) 2016-2025 Austin "Scarsz" Shapiro, Henri "Vankka" Schubin and DiscordSRV contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.discordsrv.common.storage.impl.file;
+
+import com.discordsrv.common.core.logging.Logger;
+import com.discordsrv.common.core.storage.LinkChange;
+import com.discordsrv.common.core.storage.impl.file.FileStorage;
+import com.discordsrv.common.exception.StorageException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FileStorageTest {
+
+    private static final Logger LOGGER = (loggerName, logLevel, message, throwable) -> {};
+    private static final int HEADER_SIZE = 8;
+    private static final int RECORD_SIZE = 32;
+
+    private static final UUID FIRST_PLAYER = new UUID(1, 1);
+    private static final UUID SECOND_PLAYER = new UUID(2, 2);
+    private static final UUID THIRD_PLAYER = new UUID(3, 3);
+
+    private static FileStorage open(Path file) {
+        FileStorage storage = new FileStorage(file, LOGGER);
+        storage.initialize();
+        return storage;
+    }
+
+    private static Path writeThreeLinks(Path directory) {
+        Path file = directory.resolve("linked-accounts.dat");
+        FileStorage storage = open(file);
+        storage.createLink(FIRST_PLAYER, 1L);
+        storage.createLink(SECOND_PLAYER, 2L);
+        storage.createLink(THIRD_PLAYER, 3L);
+        storage.close();
+        return file;
+    }
+
+    @Test
+    public void persists(@TempDir Path directory) {
+        Path file = writeThreeLinks(directory);
+
+        FileStorage storage = open(file);
+        storage.removeLink(SECOND_PLAYER, 2L);
+        storage.createLink(FIRST_PLAYER, 4L);
+        storage.close();
+
+        storage = open(file);
+        assertEquals(4L, storage.getUserId(FIRST_PLAYER));
+        assertNull(storage.getUserId(SECOND_PLAYER));
+        assertEquals(THIRD_PLAYER, storage.getPlayerUUID(3L));
+        assertNull(storage.getPlayerUUID(1L));
+        assertEquals(2, storage.getLinkedAccountCount());
+        storage.close();
+    }
+
+    @Test
+    public void skipsCorruptedRecord(@TempDir Path directory) throws IOException {
+        Path file = writeThreeLinks(directory);
+
+        // Flip a bit in the second record's user id
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long position = HEADER_SIZE + RECORD_SIZE + 8;
+            ByteBuffer buffer = ByteBuffer.allocate(1);
+            channel.read(buffer, position);
+            buffer.put(0, (byte) (buffer.get(0) ^ 1)).rewind();
+            channel.write(buffer, position);
+        }
+
+        FileStorage storage = open(file);
+        assertEquals(1L, storage.getUserId(FIRST_PLAYER));
+        assertNull(storage.getUserId(SECOND_PLAYER));
+        assertEquals(3L, storage.getUserId(THIRD_PLAYER));
+        storage.close();
+
+        try (Stream<Path> files = Files.list(directory)) {
+            assertTrue(files.anyMatch(path -> path.getFileName().toString().startsWith("linked-accounts.dat.corrupt-")));
+        }
+    }
+
+    @Test
+    public void truncatesIncompleteRecord(@TempDir Path directory) throws IOException {
+        Path file = writeThreeLinks(directory);
+        Files.write(file, new byte[RECORD_SIZE / 2], StandardOpenOption.APPEND);
+
+        FileStorage storage = open(file);
+        assertEquals(HEADER_SIZE + 3 * RECORD_SIZE, Files.size(file));
+
+        // New records are written after the last complete record
+        storage.createLink(SECOND_PLAYER, 5L);
+        storage.close();
+
+        storage = open(file);
+        assertEquals(1L, storage.getUserId(FIRST_PLAYER));
+        assertEquals(5L, storage.getUserId(SECOND_PLAYER));
+        assertEquals(3L, storage.getUserId(THIRD_PLAYER));
+        storage.close();
+    }
+
+    @Test
+    public void compactsOutdatedRecords(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("linked-accounts.dat");
+        FileStorage storage = open(file);
+
+        List<LinkChange> changes = new ArrayList<>();
+        for (long userId = 1; userId <= 2000; userId++) {
+            changes.add(LinkChange.link(FIRST_PLAYER, userId));
+        }
+        storage.applyLinkChanges(changes);
+        storage.createLink(SECOND_PLAYER, 1L);
+
+        // One record per link after compacting, and the record written after it
+        assertEquals(HEADER_SIZE + 2 * RECORD_SIZE, Files.size(file));
+        storage.close();
+
+        storage = open(file);
+        assertEquals(2000L, storage.getUserId(FIRST_PLAYER));
+        assertEquals(1L, storage.getUserId(SECOND_PLAYER));
+        storage.close();
+    }
+
+    @Test
+    public void rejectsOtherFiles(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("linked-accounts.dat");
+        Files.write(file, new byte[HEADER_SIZE]);
+
+        assertThrows(StorageException.class, () -> new FileStorage(file, LOGGER).initialize());
+    }
+
+    @Test
+    public void writeAfterCloseFails(@TempDir Path directory) {
+        FileStorage storage = open(directory.resolve("linked-accounts.dat"));
+        storage.close();
+
+        assertThrows(StorageException.class, () -> storage.createLink(FIRST_PLAYER, 1L));
+    }
+}